@@ -0,0 +1,20 @@
+package com.bds.config;
+
+import com.bds.services.LoggingShortageNotifier;
+import com.bds.services.ShortageNotifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ShortageAlertProperties.class)
+public class AlertsConfig {
+
+    // Local stand-in until a paging or e-mail integration provides its own ShortageNotifier bean.
+    @Bean
+    @ConditionalOnMissingBean(ShortageNotifier.class)
+    public ShortageNotifier loggingShortageNotifier() {
+        return new LoggingShortageNotifier();
+    }
+}
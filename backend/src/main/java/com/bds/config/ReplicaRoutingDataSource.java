@@ -0,0 +1,87 @@
+package com.bds.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything
+ * else to the primary. It has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager asks for a connection before the transaction is
+ * marked read-only.
+ * <p>
+ * With a positive {@code readYourWrites} window, a client that started a
+ * writing transaction keeps reading from the primary for that long. Clients
+ * are told apart by the {@value #CLIENT_HEADER} header, falling back to the
+ * remote address. Connections taken outside a request, e.g. by scheduled jobs,
+ * are never sticky.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    // expired entries are purged once this many clients are tracked
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long readYourWritesNanos;
+    private final LongSupplier nanoTime;
+    private final ConcurrentMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(Duration readYourWrites) {
+        this(readYourWrites, System::nanoTime);
+    }
+
+    ReplicaRoutingDataSource(Duration readYourWrites, LongSupplier nanoTime) {
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String client = readYourWritesNanos > 0 ? currentClient() : null;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (client != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite(client);
+            }
+            return Target.PRIMARY;
+        }
+        return client != null && wroteRecently(client) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    private void recordWrite(String client) {
+        long now = nanoTime.getAsLong();
+        lastWrites.put(client, now);
+        if (lastWrites.size() > PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(at -> now - at >= readYourWritesNanos);
+        }
+    }
+
+    private boolean wroteRecently(String client) {
+        Long at = lastWrites.get(client);
+        return at != null && nanoTime.getAsLong() - at < readYourWritesNanos;
+    }
+
+    private static String currentClient() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String client = request.getHeader(CLIENT_HEADER);
+        return client != null && !client.isBlank() ? client : request.getRemoteAddr();
+    }
+}
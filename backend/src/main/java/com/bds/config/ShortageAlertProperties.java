@@ -0,0 +1,34 @@
+package com.bds.config;
+
+import com.bds.models.BloodType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Per blood type shortage thresholds: a shortage starts when units drop below
+ * {@code low-water} and only ends once they are back at {@code high-water} or
+ * above, so units hovering around one level do not raise a stream of alerts.
+ */
+@ConfigurationProperties(prefix = "inventory.alerts")
+public record ShortageAlertProperties(
+        @DefaultValue("100") int recentAlerts,
+        Map<BloodType, Threshold> thresholds
+) {
+    public ShortageAlertProperties {
+        thresholds = thresholds == null ? Map.of() : Map.copyOf(thresholds);
+        if (recentAlerts < 1) {
+            throw new IllegalArgumentException("inventory.alerts.recent-alerts must be greater than 0");
+        }
+    }
+
+    public record Threshold(long lowWater, long highWater) {
+        public Threshold {
+            if (lowWater < 0 || highWater < lowWater) {
+                throw new IllegalArgumentException(
+                        "shortage thresholds need 0 <= low-water <= high-water, got " + lowWater + " and " + highWater);
+            }
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.bds.controllers;
 
 import com.bds.dto.BloodDonationEventRequest;
+import com.bds.dto.DonorMatchesPage;
 import com.bds.models.BloodDonationEvent;
 import com.bds.services.BloodDonationEventService;
+import com.bds.services.DonorMatchingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,9 +22,12 @@ import org.springframework.web.bind.annotation.*;
 public class BloodDonationEventController {
 
     private final BloodDonationEventService bloodDonationEventService;
+    private final DonorMatchingService donorMatchingService;
 
-    public BloodDonationEventController(BloodDonationEventService bloodDonationEventService) {
+    public BloodDonationEventController(BloodDonationEventService bloodDonationEventService,
+                                        DonorMatchingService donorMatchingService) {
         this.bloodDonationEventService = bloodDonationEventService;
+        this.donorMatchingService = donorMatchingService;
     }
 
     @Operation(
@@ -45,4 +50,29 @@ public class BloodDonationEventController {
                 bloodDonationEventService.addBloodDonationEvent(bloodDonationEventRequest),
                 HttpStatus.CREATED);
     }
+
+    @Operation(
+            summary = "Retrieve donors matching a blood donation event",
+            description = "This is a endpoint for ranking donors who can donate to the event's blood type and are eligible on the event date. " +
+                    "Donors are ordered by blood type compatibility, donation history and time since they became eligible",
+            tags = {"Blood donation event", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Success", content = {@Content(schema = @Schema(implementation = DonorMatchesPage.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Donation event does not exists", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "406", description = "Invalid page or size", content = {@Content(schema = @Schema())})
+    })
+    @GetMapping("donation_event/{id}/matches")
+    public ResponseEntity<DonorMatchesPage> getDonorMatches(
+            @Parameter(description = "Blood donation event id", required = true)
+            @PathVariable("id") Long id,
+            @Parameter(description = "Zero based page number")
+            @RequestParam(value = "page", required = false) Integer page,
+            @Parameter(description = "Page size, at most 1000")
+            @RequestParam(value = "size", required = false) Integer size) {
+        return new ResponseEntity<>(
+                donorMatchingService.getMatches(id, page, size),
+                HttpStatus.OK);
+    }
 }
@@ -1,11 +1,20 @@
 package com.bds.controllers;
 
+import com.bds.dto.BloodDonationBatchResult;
 import com.bds.dto.BloodDonationRequest;
 import com.bds.dto.BloodUnits;
 import com.bds.dto.ConfirmDonationRequest;
+import com.bds.dto.DispenseBloodUnitsRequest;
+import com.bds.dto.DonorBloodDonation;
 import com.bds.dto.InitiateBloodDonationRequest;
+import com.bds.dto.InventoryDelta;
+import com.bds.dto.PendingDonation;
+import com.bds.dto.RejectDonationRequest;
+import com.bds.dto.Versioned;
 import com.bds.models.BloodDonations;
 import com.bds.services.BloodDonationsService;
+import com.bds.services.BloodInventoryService;
+import com.bds.services.InventoryStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,9 +22,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -25,9 +37,15 @@ import java.util.List;
 public class BloodDonationsController {
 
     private final BloodDonationsService bloodDonationsService;
+    private final BloodInventoryService bloodInventoryService;
+    private final InventoryStream inventoryStream;
 
-    public BloodDonationsController(BloodDonationsService bloodDonationsService) {
+    public BloodDonationsController(BloodDonationsService bloodDonationsService,
+                                    BloodInventoryService bloodInventoryService,
+                                    InventoryStream inventoryStream) {
         this.bloodDonationsService = bloodDonationsService;
+        this.bloodInventoryService = bloodInventoryService;
+        this.inventoryStream = inventoryStream;
     }
 
     @Operation(
@@ -38,12 +56,37 @@ public class BloodDonationsController {
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Ok", content = {@Content(schema = @Schema(implementation = BloodUnits.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match", content = {@Content(schema = @Schema())}),
             @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())})
     })
     @GetMapping("/admin/available_blood_units")
-    public ResponseEntity<List<BloodUnits>> countAvailableUnitsByBloodType() {
-        return new ResponseEntity<>(bloodDonationsService.countAvailableUnitsByBloodType(),
-                HttpStatus.OK);
+    public ResponseEntity<List<BloodUnits>> countAvailableUnitsByBloodType(
+            @Parameter(description = "ETag of the units the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = bloodDonationsService.availableUnitsETag();
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        Versioned<List<BloodUnits>> availableUnits = bloodDonationsService.getAvailableUnits();
+        return ResponseEntity.ok()
+                .eTag(availableUnits.eTag())
+                .body(availableUnits.body());
+    }
+
+    @Operation(
+            summary = "Stream changes of available blood units",
+            description = "This is a endpoint for subscribing to available blood units as Server-Sent Events." +
+                    "A snapshot event with all units comes first and is repeated periodically, " +
+                    "delta events follow each committed change with the new units of the changed blood types",
+            tags = {"Blood donations", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ok", content = {@Content(schema = @Schema(implementation = InventoryDelta.class), mediaType = "text/event-stream")}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())})
+    })
+    @GetMapping(path = "/admin/available_blood_units/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailableUnits() {
+        return inventoryStream.subscribe();
     }
 
     @Operation(
@@ -69,6 +112,48 @@ public class BloodDonationsController {
                 HttpStatus.CREATED);
     }
 
+    @Operation(
+            summary = "Enter a batch of blood donations",
+            description = "This is a endpoint for posting many blood donations at once, e.g. after a mobile drive." +
+                    "The response is a list of per-row results: CREATED, DUPLICATE or INVALID",
+            tags = {"Blood donations", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ok", content = {@Content(schema = @Schema(implementation = BloodDonationBatchResult.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "409", description = "Donations were entered concurrently, retry the batch", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "406", description = "Batch too large", content = {@Content(schema = @Schema())})
+    })
+    @PostMapping("/admin/enter_donations:batch")
+    public ResponseEntity<List<BloodDonationBatchResult>> addBloodDonations(
+            @Parameter(description = "New blood donation requests")
+            @RequestBody List<BloodDonationRequest> bloodDonationRequests) {
+
+        return new ResponseEntity<>(
+                bloodDonationsService.addBloodDonations(bloodDonationRequests),
+                HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Dispense blood units",
+            description = "This is a endpoint for ADMIN user taking blood units out of the inventory, " +
+                    "when they are issued to a hospital (DISPENSE), expired (EXPIRY) or discarded (DISCARD)." +
+                    "The response is BloodUnits object with the units of the blood type left",
+            tags = {"Blood donations", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ok", content = {@Content(schema = @Schema(implementation = BloodUnits.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "409", description = "Not enough blood units available", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "406", description = "Request not validated", content = {@Content(schema = @Schema())})
+    })
+    @PostMapping("/admin/dispense_blood_units")
+    public BloodUnits dispenseBloodUnits(
+            @Parameter(description = "Dispense blood units request")
+            @RequestBody DispenseBloodUnitsRequest dispenseBloodUnitsRequest) {
+        return bloodInventoryService.dispense(dispenseBloodUnitsRequest);
+    }
+
     @Operation(
             summary = "Confirm blood donation",
             description = "This is a endpoint for ADMIN user confirming DONOR initiated blood donation.",
@@ -78,7 +163,7 @@ public class BloodDonationsController {
             @ApiResponse(responseCode = "200", description = "Success", content = {@Content(schema = @Schema())}),
             @ApiResponse(responseCode = "400", description = "Confirmed units does not match DONOR units", content = {@Content(schema = @Schema())}),
             @ApiResponse(responseCode = "404", description = "Donation id does not exists", content = {@Content(schema = @Schema())}),
-            @ApiResponse(responseCode = "409", description = "Donor or donation date already exists", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "409", description = "Donation already confirmed, rejected or claimed by another admin", content = {@Content(schema = @Schema())}),
             @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())}),
             @ApiResponse(responseCode = "406", description = "Request not validated", content = {@Content(schema = @Schema())})
 
@@ -92,6 +177,50 @@ public class BloodDonationsController {
         bloodDonationsService.confirmBloodDonation(donationId, confirmDonationRequest);
     }
 
+    @Operation(
+            summary = "Reject blood donation",
+            description = "This is a endpoint for ADMIN user rejecting DONOR initiated blood donation." +
+                    "The units of the donation are taken out of the available blood units",
+            tags = {"Blood donations", "patch"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Success", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "404", description = "Donation id does not exists", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "409", description = "Donation already confirmed, rejected or claimed by another admin", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "406", description = "Request not validated", content = {@Content(schema = @Schema())})
+
+    })
+    @PatchMapping("/admin/reject_blood_donation/{donationId}")
+    public void rejectBloodDonation(
+            @Parameter(description = "Donation id", required = true)
+            @PathVariable("donationId") Long donationId,
+            @Parameter(description = "Reject donation request")
+            @RequestBody RejectDonationRequest rejectDonationRequest) {
+        bloodDonationsService.rejectBloodDonation(donationId, rejectDonationRequest);
+    }
+
+    @Operation(
+            summary = "Claim a batch of pending blood donations",
+            description = "This is a endpoint for ADMIN user taking up to n of the oldest DONOR initiated blood donations " +
+                    "to confirm or reject. Admins claiming at the same time get disjoint batches." +
+                    "The response is list of PendingDonation objects with it's properties",
+            tags = {"Blood donations", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ok", content = {@Content(schema = @Schema(implementation = PendingDonation.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "406", description = "Unknown admin or n out of range", content = {@Content(schema = @Schema())})
+    })
+    @PostMapping("/admin/pending_donations/claim")
+    public List<PendingDonation> claimPendingDonations(
+            @Parameter(description = "Id of the admin claiming the donations", required = true)
+            @RequestParam("adminId") Long adminId,
+            @Parameter(description = "Maximum number of donations to claim")
+            @RequestParam(value = "n", defaultValue = "10") int n) {
+        return bloodDonationsService.claimPendingDonations(adminId, n);
+    }
+
     @Operation(
             summary = "Initiate blood donation by DONOR user",
             description = "This is a endpoint for posting blood donation initiation.",
@@ -114,19 +243,28 @@ public class BloodDonationsController {
     @Operation(
             summary = "Retrieve a list of blood donations of donor with given id",
             description = "This is a endpoint for getting a list of blood donations of donor with given id." +
-                    "The response is list of BloodDonations objects with it's properties",
+                    "The response is list of DonorBloodDonation objects with it's properties",
             tags = {"Blood donations", "get"}
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Success", content = {@Content(schema = @Schema(implementation = BloodDonations.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "200", description = "Success", content = {@Content(schema = @Schema(implementation = DonorBloodDonation.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match", content = {@Content(schema = @Schema())}),
             @ApiResponse(responseCode = "400", description = "Not found", content = {@Content(schema = @Schema())}),
             @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())}),
             @ApiResponse(responseCode = "406", description = "Request not validated", content = {@Content(schema = @Schema())})
     })
     @GetMapping("/donor/my_blood_donations/{donorId}")
-    public List<BloodDonations> getDonorBloodDonations(
+    public ResponseEntity<List<DonorBloodDonation>> getDonorBloodDonations(
             @Parameter(description = "Donor id", required = true)
-            @PathVariable("donorId") Long donorId) {
-        return bloodDonationsService.getBloodDonations(donorId);
+            @PathVariable("donorId") Long donorId,
+            @Parameter(description = "ETag of the donations the client already has")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = bloodDonationsService.donationHistoryETag(donorId);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(bloodDonationsService.getBloodDonations(donorId));
     }
 }
@@ -0,0 +1,37 @@
+package com.bds.controllers;
+
+/**
+ * If-None-Match handling for endpoints that know their current ETag before
+ * running any query.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Whether an If-None-Match header lists {@code eTag}, compared weakly as
+     * required for GET.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        int from = 0;
+        while (from < ifNoneMatch.length()) {
+            int to = ifNoneMatch.indexOf(',', from);
+            if (to < 0) {
+                to = ifNoneMatch.length();
+            }
+            String candidate = ifNoneMatch.substring(from, to).trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
+            from = to + 1;
+        }
+        return false;
+    }
+}
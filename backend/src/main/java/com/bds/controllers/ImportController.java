@@ -0,0 +1,121 @@
+package com.bds.controllers;
+
+import com.bds.dto.ImportFormat;
+import com.bds.dto.ImportJobStatus;
+import com.bds.dto.ImportKind;
+import com.bds.dto.ImportReject;
+import com.bds.services.ImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("api/v1")
+@Tag(name = "Imports", description = "Historical users and blood donations import API")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @Operation(
+            summary = "Import a CSV or NDJSON file sent as the request body",
+            description = "This is a endpoint for starting an import of historical users or blood donations." +
+                    "The file is streamed to disk as it arrives, so it is not bound by the multipart size limits." +
+                    "The response is the import job with it's progress",
+            tags = {"Imports", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Accepted", content = {@Content(schema = @Schema(implementation = ImportJobStatus.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "406", description = "Import file is empty", content = {@Content(schema = @Schema())})
+    })
+    @PostMapping(value = "/admin/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportJobStatus> importUpload(
+            @Parameter(description = "What the file contains: USERS or BLOOD_DONATIONS", required = true)
+            @RequestParam("kind") ImportKind kind,
+            @Parameter(description = "File format: CSV or NDJSON")
+            @RequestParam(value = "format", defaultValue = "CSV") ImportFormat format,
+            @Parameter(hidden = true) InputStream body) {
+        return new ResponseEntity<>(
+                importService.importUpload(kind, format, body),
+                HttpStatus.ACCEPTED);
+    }
+
+    @Operation(
+            summary = "Import a CSV or NDJSON file from the server's import directory",
+            description = "This is a endpoint for starting an import of a file already present on the server." +
+                    "The response is the import job with it's progress",
+            tags = {"Imports", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Accepted", content = {@Content(schema = @Schema(implementation = ImportJobStatus.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Import file does not exists", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "406", description = "Local file imports are disabled", content = {@Content(schema = @Schema())})
+    })
+    @PostMapping("/admin/import/local")
+    public ResponseEntity<ImportJobStatus> importLocalFile(
+            @Parameter(description = "What the file contains: USERS or BLOOD_DONATIONS", required = true)
+            @RequestParam("kind") ImportKind kind,
+            @Parameter(description = "File format: CSV or NDJSON")
+            @RequestParam(value = "format", defaultValue = "CSV") ImportFormat format,
+            @Parameter(description = "Path relative to the import directory", required = true)
+            @RequestParam("path") String path) {
+        return new ResponseEntity<>(
+                importService.importLocalFile(kind, format, path),
+                HttpStatus.ACCEPTED);
+    }
+
+    @Operation(
+            summary = "Retrieve progress of an import",
+            description = "This is a endpoint for getting rows read, merged and rejected so far, and throughput in rows/s.",
+            tags = {"Imports", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Success", content = {@Content(schema = @Schema(implementation = ImportJobStatus.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Import job does not exists", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())})
+    })
+    @GetMapping("/admin/import/{jobId}")
+    public ImportJobStatus getImport(
+            @Parameter(description = "Import job id", required = true)
+            @PathVariable("jobId") UUID jobId) {
+        return importService.getImport(jobId);
+    }
+
+    @Operation(
+            summary = "Retrieve rejected rows of an import",
+            description = "This is a endpoint for paging through rejected lines with the reason they were rejected.",
+            tags = {"Imports", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Success", content = {@Content(schema = @Schema(implementation = ImportReject.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Import job does not exists", content = {@Content(schema = @Schema())}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())})
+    })
+    @GetMapping("/admin/import/{jobId}/rejects")
+    public List<ImportReject> getImportRejects(
+            @Parameter(description = "Import job id", required = true)
+            @PathVariable("jobId") UUID jobId,
+            @Parameter(description = "Return rejects after this line number")
+            @RequestParam(value = "after", defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of rejects, at most 1000")
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return importService.getRejects(jobId, after, limit);
+    }
+}
@@ -0,0 +1,42 @@
+package com.bds.controllers;
+
+import com.bds.dto.ShortageAlert;
+import com.bds.services.ShortageAlertService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/v1")
+@Tag(name = "Shortage alerts", description = "Blood shortage alerts API")
+public class ShortageAlertsController {
+
+    private final ShortageAlertService shortageAlertService;
+
+    public ShortageAlertsController(ShortageAlertService shortageAlertService) {
+        this.shortageAlertService = shortageAlertService;
+    }
+
+    @Operation(
+            summary = "Retrieve recent blood shortage alerts",
+            description = "This is a endpoint for getting the most recent shortage and recovery alerts, newest first." +
+                    "The response is list of ShortageAlert objects with it's properties",
+            tags = {"Shortage alerts", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ok", content = {@Content(schema = @Schema(implementation = ShortageAlert.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = {@Content(schema = @Schema())})
+    })
+    @GetMapping("/admin/shortage_alerts")
+    public List<ShortageAlert> getShortageAlerts() {
+        return shortageAlertService.getRecentAlerts();
+    }
+}
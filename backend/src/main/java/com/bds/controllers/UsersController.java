@@ -1,8 +1,13 @@
 package com.bds.controllers;
 
+import com.bds.dto.EligibleDonor;
+import com.bds.dto.EligibleDonorsPage;
+import com.bds.dto.UsersPage;
 import com.bds.dto.UsersRegistrationRequest;
 import com.bds.models.Users;
 import com.bds.services.UsersService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,52 +15,125 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("api/v1/admin")
 @Tag(name = "Users", description = "Users management API")
 public class UsersController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
     private final UsersService usersService;
+    private final ObjectMapper objectMapper;
 
-    public UsersController(UsersService usersService) {
+    public UsersController(UsersService usersService, ObjectMapper objectMapper) {
         this.usersService = usersService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(
             summary = "Retrieve a list of donors",
-            description = "This is a endpoint for getting all DONOR users." +
-                    "The response is list of Users objects with it's properties",
+            description = "This is a endpoint for getting DONOR users ordered by id." +
+                    "With after and/or limit the response is one page of Users objects and a Link header to the next page, " +
+                    "otherwise all donors are streamed. Accept application/x-ndjson streams one Users object per line",
             tags = {"Users", "get"}
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", content= { @Content(schema = @Schema(implementation = Users.class), mediaType = "application/json") }),
-            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = { @Content(schema = @Schema()) })
+            @ApiResponse(responseCode = "200", content= { @Content(schema = @Schema(implementation = Users.class), mediaType = "application/json"),
+                    @Content(schema = @Schema(implementation = Users.class), mediaType = "application/x-ndjson") }),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "406", description = "Limit out of range", content = {@Content(schema = @Schema()) })
     })
     @GetMapping("/donor")
-    public ResponseEntity<List<Users>> getAllDonors() {
-        return new ResponseEntity<>(usersService.getAllDonors(), HttpStatus.OK);
+    public ResponseEntity<?> getAllDonors(
+            @Parameter(description = "Return donors with id greater than this cursor")
+            @RequestParam(value = "after", required = false) Long after,
+            @Parameter(description = "Page size, at most 1000")
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return streamJson(usersService::forEachDonor);
+        }
+        return page(usersService.getDonors(after, limit));
+    }
+
+    @GetMapping(value = "/donor", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDonors() {
+        return streamNdjson(usersService::forEachDonor);
+    }
+
+    @Operation(
+            summary = "Retrieve a list of donors eligible to donate",
+            description = "This is a endpoint for getting DONOR users of a blood type whose deferral interval " +
+                    "has passed on the given date (today by default), ordered by next eligible date." +
+                    "The response is one page of EligibleDonor objects and a Link header to the next page",
+            tags = {"Users", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content= { @Content(schema = @Schema(implementation = EligibleDonor.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "406", description = "Invalid blood type, cursor or limit", content = {@Content(schema = @Schema()) })
+    })
+    @GetMapping("/donor/eligible")
+    public ResponseEntity<List<EligibleDonor>> getEligibleDonors(
+            @Parameter(description = "Blood type, Ex: APos, ANeg...", required = true)
+            @RequestParam("bloodType") String bloodType,
+            @Parameter(description = "Date the donors must be eligible on, defaults to today")
+            @RequestParam(value = "on", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate on,
+            @Parameter(description = "Cursor from the Link header of the previous page")
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Page size, at most 1000")
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        EligibleDonorsPage page = usersService.getEligibleDonors(bloodType, on, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(HttpHeaders.LINK, nextLink(page.nextCursor()));
+        }
+        return response.body(page.donors());
     }
 
     @Operation(
             summary = "Retrieve a list of admins",
-            description = "This is a endpoint for getting all ADMIN users." +
-                    "The response is list of Users objects with it's properties",
+            description = "This is a endpoint for getting ADMIN users ordered by id." +
+                    "With after and/or limit the response is one page of Users objects and a Link header to the next page, " +
+                    "otherwise all admins are streamed. Accept application/x-ndjson streams one Users object per line",
             tags = {"Users", "get"}
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK", content= { @Content(schema = @Schema(implementation = Users.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "200", description = "OK", content= { @Content(schema = @Schema(implementation = Users.class), mediaType = "application/json"),
+                    @Content(schema = @Schema(implementation = Users.class), mediaType = "application/x-ndjson") }),
             @ApiResponse(responseCode = "401", description = "Unauthorized / Invalid Token", content = { @Content(schema = @Schema()) }),
             @ApiResponse(responseCode = "406", description = "Request not validated", content = {@Content(schema = @Schema()) })
     })
     @GetMapping()
-    public ResponseEntity<List<Users>> getAllAdmins() {
-        return new ResponseEntity<>(usersService.getAllAdmins(), HttpStatus.OK);
+    public ResponseEntity<?> getAllAdmins(
+            @Parameter(description = "Return admins with id greater than this cursor")
+            @RequestParam(value = "after", required = false) Long after,
+            @Parameter(description = "Page size, at most 1000")
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return streamJson(usersService::forEachAdmin);
+        }
+        return page(usersService.getAdmins(after, limit));
+    }
+
+    @GetMapping(produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAdmins() {
+        return streamNdjson(usersService::forEachAdmin);
     }
 
     @Operation(
@@ -77,4 +155,51 @@ public class UsersController {
         return new ResponseEntity<>(
                 usersService.registerNewUser(request), HttpStatus.CREATED);
     }
+
+    private ResponseEntity<List<Users>> page(UsersPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(HttpHeaders.LINK, nextLink(page.nextCursor()));
+        }
+        return response.body(page.users());
+    }
+
+    private static String nextLink(Object cursor) {
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", cursor)
+                .toUriString();
+        return "<" + next + ">; rel=\"next\"";
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamJson(Consumer<Consumer<Users>> source) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                source.accept(user -> write(generator, user, false));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamNdjson(Consumer<Consumer<Users>> source) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                source.accept(user -> write(generator, user, true));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private static void write(JsonGenerator generator, Users user, boolean newLine) {
+        try {
+            generator.writeObject(user);
+            if (newLine) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package com.bds.dto;
+
+public enum BatchRowStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
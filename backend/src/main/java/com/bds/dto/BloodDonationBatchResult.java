@@ -0,0 +1,11 @@
+package com.bds.dto;
+
+import java.util.Set;
+
+public record BloodDonationBatchResult(
+        int index,
+        BatchRowStatus status,
+        Long donationId,
+        Set<String> messages
+) {
+}
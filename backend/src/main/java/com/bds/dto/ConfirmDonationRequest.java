@@ -1,7 +1,11 @@
 package com.bds.dto;
 
+import jakarta.validation.constraints.NotNull;
+
 public record ConfirmDonationRequest(
+        @NotNull(message = "Invalid admin id: Empty admin id")
         Long adminId,
+        @NotNull(message = "Invalid units amount: Empty units amount")
         Integer units
 ) {
 }
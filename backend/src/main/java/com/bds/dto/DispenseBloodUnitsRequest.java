@@ -0,0 +1,21 @@
+package com.bds.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+public record DispenseBloodUnitsRequest(
+        @NotNull(message = "Invalid blood type: Empty blood type")
+        @Pattern(regexp = "APos|ANeg|BPos|BNeg|ABPos|ABNeg|OPos|ONeg",
+                message = "Invalid blood type: " +
+                        "Must start with capital letter for group followed by Pos or Neg Ex: APos, ANeg...")
+        String bloodType,
+        @NotNull(message = "Invalid units amount: Empty units amount")
+        @Min(value = 1, message = "Invalid units amount: Must be at least 1")
+        Integer units,
+        @NotNull(message = "Invalid reason: Empty reason")
+        @Pattern(regexp = "DISPENSE|EXPIRY|DISCARD",
+                message = "Invalid reason: Must be one of DISPENSE, EXPIRY, DISCARD")
+        String reason
+) {
+}
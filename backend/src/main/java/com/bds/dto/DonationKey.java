@@ -0,0 +1,8 @@
+package com.bds.dto;
+
+import java.time.LocalDate;
+
+public interface DonationKey {
+    Long getDonorId();
+    LocalDate getDonationDate();
+}
@@ -0,0 +1,14 @@
+package com.bds.dto;
+
+import com.bds.models.DonationStatus;
+
+import java.time.LocalDate;
+
+public record DonorBloodDonation(
+        Long id,
+        Integer units,
+        LocalDate donationDate,
+        Long adminId,
+        DonationStatus status
+) {
+}
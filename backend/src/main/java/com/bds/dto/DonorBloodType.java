@@ -0,0 +1,8 @@
+package com.bds.dto;
+
+import com.bds.models.BloodType;
+
+public interface DonorBloodType {
+    Long getId();
+    BloodType getBloodType();
+}
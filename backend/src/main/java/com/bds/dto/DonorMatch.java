@@ -0,0 +1,18 @@
+package com.bds.dto;
+
+import com.bds.models.BloodType;
+
+import java.time.LocalDate;
+
+public record DonorMatch(
+        Long donorId,
+        String firstName,
+        String lastName,
+        String email,
+        BloodType bloodType,
+        int score,
+        boolean exactMatch,
+        LocalDate nextEligibleDate,
+        int donationCount
+) {
+}
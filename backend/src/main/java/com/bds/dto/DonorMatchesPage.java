@@ -0,0 +1,18 @@
+package com.bds.dto;
+
+import com.bds.models.BloodType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DonorMatchesPage(
+        Long eventId,
+        BloodType bloodType,
+        LocalDate eventDate,
+        Integer units,
+        int candidates,
+        int page,
+        int size,
+        List<DonorMatch> matches
+) {
+}
@@ -0,0 +1,24 @@
+package com.bds.dto;
+
+import com.bds.models.BloodType;
+import com.bds.models.Users;
+
+import java.time.LocalDate;
+
+public record EligibleDonor(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        BloodType bloodType,
+        LocalDate lastDonationDate,
+        LocalDate nextEligibleDate
+) {
+    /**
+     * The date donors are ordered and paged by, {@link Users#NEVER_DONATED} for
+     * donors who never donated.
+     */
+    public LocalDate cursorDate() {
+        return nextEligibleDate == null ? Users.NEVER_DONATED : nextEligibleDate;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bds.dto;
+
+import java.util.List;
+
+public record EligibleDonorsPage(
+        List<EligibleDonor> donors,
+        String nextCursor
+) {
+}
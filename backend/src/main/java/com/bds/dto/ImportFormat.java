@@ -0,0 +1,6 @@
+package com.bds.dto;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
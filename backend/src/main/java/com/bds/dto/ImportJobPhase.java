@@ -0,0 +1,9 @@
+package com.bds.dto;
+
+public enum ImportJobPhase {
+    QUEUED,
+    COPYING,
+    MERGING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,20 @@
+package com.bds.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ImportJobStatus(
+        UUID jobId,
+        ImportKind kind,
+        ImportFormat format,
+        ImportJobPhase phase,
+        long rowsRead,
+        long rowsMerged,
+        long rowsRejected,
+        double copyRowsPerSecond,
+        double mergeRowsPerSecond,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+}
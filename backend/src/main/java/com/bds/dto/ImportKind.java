@@ -0,0 +1,39 @@
+package com.bds.dto;
+
+import java.util.List;
+
+public enum ImportKind {
+
+    USERS(
+            List.of("first_name", "last_name", "email", "role", "blood_type"),
+            List.of("firstName", "lastName", "email", "role", "bloodType"),
+            "first_name TEXT, last_name TEXT, email TEXT, role TEXT, blood_type TEXT"
+    ),
+    BLOOD_DONATIONS(
+            List.of("donor_email", "admin_email", "units", "donation_date"),
+            List.of("donorEmail", "adminEmail", "units", "donationDate"),
+            "donor_email TEXT, admin_email TEXT, units INTEGER, donation_date DATE"
+    );
+
+    private final List<String> columns;
+    private final List<String> jsonFields;
+    private final String columnDefinitions;
+
+    ImportKind(List<String> columns, List<String> jsonFields, String columnDefinitions) {
+        this.columns = columns;
+        this.jsonFields = jsonFields;
+        this.columnDefinitions = columnDefinitions;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public List<String> getJsonFields() {
+        return jsonFields;
+    }
+
+    public String getColumnDefinitions() {
+        return columnDefinitions;
+    }
+}
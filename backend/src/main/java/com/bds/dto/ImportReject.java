@@ -0,0 +1,8 @@
+package com.bds.dto;
+
+public record ImportReject(
+        long lineNo,
+        String reason,
+        String line
+) {
+}
@@ -0,0 +1,14 @@
+package com.bds.dto;
+
+import com.bds.models.BloodType;
+
+/**
+ * Change of one blood type's available units; {@code units} is the total after
+ * the change, so clients can apply events idempotently.
+ */
+public record InventoryDelta(
+        BloodType bloodType,
+        long delta,
+        long units
+) {
+}
@@ -0,0 +1,11 @@
+package com.bds.dto;
+
+import com.bds.models.BloodType;
+
+import java.util.Map;
+
+public record InventorySnapshot(
+        long ledgerId,
+        Map<BloodType, Long> units
+) {
+}
@@ -0,0 +1,11 @@
+package com.bds.dto;
+
+import java.time.LocalDate;
+
+public record PendingDonation(
+        Long id,
+        Long donorId,
+        Integer units,
+        LocalDate donationDate
+) {
+}
@@ -0,0 +1,9 @@
+package com.bds.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record RejectDonationRequest(
+        @NotNull(message = "Invalid admin id: Empty admin id")
+        Long adminId
+) {
+}
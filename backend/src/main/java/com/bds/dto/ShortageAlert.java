@@ -0,0 +1,15 @@
+package com.bds.dto;
+
+import com.bds.models.BloodType;
+
+import java.time.Instant;
+
+public record ShortageAlert(
+        BloodType bloodType,
+        ShortageAlertType type,
+        long units,
+        long lowWater,
+        long highWater,
+        Instant raisedAt
+) {
+}
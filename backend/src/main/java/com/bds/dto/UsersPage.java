@@ -0,0 +1,11 @@
+package com.bds.dto;
+
+import com.bds.models.Users;
+
+import java.util.List;
+
+public record UsersPage(
+        List<Users> users,
+        Long nextCursor
+) {
+}
@@ -0,0 +1,10 @@
+package com.bds.dto;
+
+/**
+ * A response body together with the ETag of the version it was read at.
+ */
+public record Versioned<T>(
+        String eTag,
+        T body
+) {
+}
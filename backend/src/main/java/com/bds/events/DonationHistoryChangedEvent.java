@@ -0,0 +1,20 @@
+package com.bds.events;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Donations of the given donors were added or changed; {@code null} donor ids
+ * mean any donor may be affected, e.g. after a bulk import.
+ */
+public record DonationHistoryChangedEvent(
+        Collection<Long> donorIds
+) {
+    public static DonationHistoryChangedEvent of(Long donorId) {
+        return new DonationHistoryChangedEvent(List.of(donorId));
+    }
+
+    public static DonationHistoryChangedEvent allDonors() {
+        return new DonationHistoryChangedEvent(null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.bds.events;
+
+import com.bds.models.BloodType;
+
+import java.util.Map;
+
+public record InventoryChangedEvent(
+        Map<BloodType, Long> deltas
+) {
+    public static InventoryChangedEvent of(BloodType bloodType, long units) {
+        return new InventoryChangedEvent(Map.of(bloodType, units));
+    }
+}
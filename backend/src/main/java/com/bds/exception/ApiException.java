@@ -6,5 +6,6 @@ import java.util.Set;
 
 public record ApiException(Set<String> message,
                            HttpStatus httpStatus,
-                           ZonedDateTime zonedDateTime) {
+                           ZonedDateTime zonedDateTime,
+                           ErrorCode errorCode) {
 }
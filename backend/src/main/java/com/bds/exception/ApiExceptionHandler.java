@@ -1,74 +1,116 @@
 package com.bds.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.Set;
 
 @ControllerAdvice
 public class ApiExceptionHandler {
 
+    private final Counter conflicts;
+    private final Counter notFound;
+    private final Counter badRequests;
+    private final Counter invalidRequests;
+    private final Counter invalidObjects;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private volatile Timestamp timestamp = new Timestamp(0, null);
+
+    public ApiExceptionHandler(MeterRegistry meterRegistry) {
+        this.conflicts = counter(meterRegistry, DuplicateResourceException.class, HttpStatus.CONFLICT);
+        this.notFound = counter(meterRegistry, ResourceNotFoundException.class, HttpStatus.NOT_FOUND);
+        this.badRequests = counter(meterRegistry, BadRequestException.class, HttpStatus.BAD_REQUEST);
+        this.invalidRequests = counter(meterRegistry, RequestValidationException.class, HttpStatus.NOT_ACCEPTABLE);
+        this.invalidObjects = counter(meterRegistry, ObjectNotValidException.class, HttpStatus.NOT_ACCEPTABLE);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Class<? extends RuntimeException> exception, HttpStatus status) {
+        return Counter.builder("bds.api.errors")
+                .description("Requests answered by ApiExceptionHandler")
+                .tag("exception", exception.getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry);
+    }
+
     @ExceptionHandler(value = DuplicateResourceException.class)
     public ResponseEntity<?> handleException(
             DuplicateResourceException e
     ) {
+        conflicts.increment();
+        return response(e, HttpStatus.CONFLICT);
+    }
 
-        ApiException apiException = new ApiException(
-                Set.of(e.getMessage()),
-                HttpStatus.CONFLICT,
-                ZonedDateTime.now()
-        );
-
-        return new ResponseEntity<>(
-                apiException,
-                HttpStatus.CONFLICT);
+    @ExceptionHandler(value = BadRequestException.class)
+    public ResponseEntity<?> handleException(
+            BadRequestException e
+    ) {
+        badRequests.increment();
+        return response(e, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(value = RequestValidationException.class)
     public ResponseEntity<?> handleException(
             RequestValidationException e
     ) {
-        ApiException apiException = new ApiException(
-                Set.of(e.getMessage()),
-                HttpStatus.NOT_ACCEPTABLE,
-                ZonedDateTime.now()
-        );
-
-        return new ResponseEntity<>(
-                apiException,
-                HttpStatus.NOT_ACCEPTABLE);
+        invalidRequests.increment();
+        return response(e, HttpStatus.NOT_ACCEPTABLE);
     }
 
     @ExceptionHandler(value = ResourceNotFoundException.class)
     public ResponseEntity<?> handleException(
             ResourceNotFoundException e
     ) {
-        ApiException apiException = new ApiException(
-                Set.of(e.getMessage()),
-                HttpStatus.NOT_FOUND,
-                ZonedDateTime.now()
-        );
-
-        return new ResponseEntity<>(
-                apiException,
-                HttpStatus.NOT_FOUND);
+        notFound.increment();
+        return response(e, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(value = ObjectNotValidException.class)
     public ResponseEntity<?> handleException(
             ObjectNotValidException e
     ) {
+        invalidObjects.increment();
         ApiException apiException = new ApiException(
                 e.getErrorMessages(),
                 HttpStatus.NOT_ACCEPTABLE,
-                ZonedDateTime.now()
+                now(),
+                ErrorCode.INVALID_REQUEST_BODY
         );
 
         return new ResponseEntity<>(
                 apiException,
                 HttpStatus.NOT_ACCEPTABLE);
     }
+
+    private ResponseEntity<?> response(DomainException e, HttpStatus status) {
+        ApiException apiException = new ApiException(
+                e.getMessages(),
+                status,
+                now(),
+                e.getErrorCode()
+        );
+
+        return new ResponseEntity<>(
+                apiException,
+                status);
+    }
+
+    // errors within the same millisecond share one timestamp
+    private ZonedDateTime now() {
+        long millis = System.currentTimeMillis();
+        Timestamp current = timestamp;
+        if (current.millis() != millis) {
+            current = new Timestamp(millis, ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), zone));
+            timestamp = current;
+        }
+        return current.time();
+    }
+
+    private record Timestamp(long millis, ZonedDateTime time) {
+    }
 }
@@ -0,0 +1,12 @@
+package com.bds.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class BadRequestException extends DomainException {
+
+    public BadRequestException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+}
@@ -0,0 +1,34 @@
+package com.bds.exception;
+
+import java.util.Set;
+
+/**
+ * Base of the exceptions services throw for expected outcomes such as unknown
+ * ids or duplicates. They are part of normal control flow under load, so no
+ * stack trace is captured; the {@link ErrorCode} identifies where they came from.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+    private final Set<String> messages;
+
+    protected DomainException(ErrorCode errorCode) {
+        super(errorCode.message(), null, false, false);
+        this.errorCode = errorCode;
+        this.messages = errorCode.messages();
+    }
+
+    protected DomainException(ErrorCode errorCode, String message) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+        this.messages = null;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    Set<String> getMessages() {
+        return messages != null ? messages : Set.of(getMessage());
+    }
+}
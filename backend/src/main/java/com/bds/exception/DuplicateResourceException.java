@@ -4,9 +4,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(code = HttpStatus.CONFLICT)
-public class DuplicateResourceException extends RuntimeException {
+public class DuplicateResourceException extends DomainException {
 
     public DuplicateResourceException(String message) {
-        super(message);
+        super(ErrorCode.RESOURCE_CONFLICT, message);
+    }
+
+    public DuplicateResourceException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+
+    public DuplicateResourceException(ErrorCode errorCode, Object argument) {
+        super(errorCode, errorCode.message(argument));
     }
 }
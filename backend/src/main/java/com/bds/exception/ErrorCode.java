@@ -0,0 +1,83 @@
+package com.bds.exception;
+
+import java.util.Set;
+
+/**
+ * Stable codes for every error the services raise, returned with the response
+ * so clients do not have to match on message text. Messages take at most one
+ * {@code {}} argument; those without one are served from a prebuilt set.
+ */
+public enum ErrorCode {
+
+    // 404
+    USER_NOT_FOUND("user does not exists"),
+    DONOR_NOT_FOUND("Donor with given id: {} does not exist"),
+    DONOR_HAS_NO_DONATIONS("Donor with given id: {} does not have donations"),
+    DONATION_NOT_FOUND("donation id does not exists"),
+    DONATION_EVENT_NOT_FOUND("donation event does not exists"),
+    IMPORT_JOB_NOT_FOUND("import job does not exists"),
+    IMPORT_FILE_NOT_FOUND("import file does not exists"),
+
+    // 409
+    EMAIL_TAKEN("email already taken"),
+    DONATION_EXISTS("donor or donation date already exists"),
+    DONATION_ALREADY_CONFIRMED("donation already confirmed"),
+    DONATION_ALREADY_REJECTED("donation already rejected"),
+    DONATION_CLAIMED_BY_OTHER_ADMIN("donation is claimed by another admin"),
+    CONCURRENT_DONATIONS("donations were entered concurrently, retry the batch"),
+    INSUFFICIENT_UNITS("not enough blood units available"),
+
+    // 400
+    UNITS_MISMATCH("confirmed units does not match DONOR units"),
+
+    // 406
+    INVALID_BLOOD_TYPE("Invalid blood type: Must start with capital letter for group followed by Pos or Neg Ex: APos, ANeg..."),
+    INVALID_CURSOR("invalid cursor: {}"),
+    INVALID_LIMIT("limit must be between 1 and {}"),
+    INVALID_PAGE("page must not be negative"),
+    INVALID_PAGE_SIZE("size must be between 1 and {}"),
+    MATCH_WINDOW_EXCEEDED("only the first {} matches can be paged through"),
+    BATCH_TOO_LARGE("batch exceeds {} donations"),
+    UNKNOWN_USER("user with {} does not exists"),
+    IMPORT_FILE_EMPTY("import file is empty"),
+    LOCAL_IMPORTS_DISABLED("local file imports are disabled"),
+    IMPORT_FILE_OUTSIDE_DIRECTORY("import file must be inside the import directory"),
+    INVALID_REQUEST_BODY(null),
+
+    // exceptions created with a free-form message
+    RESOURCE_NOT_FOUND(null),
+    RESOURCE_CONFLICT(null),
+    INVALID_REQUEST(null);
+
+    private static final String PLACEHOLDER = "{}";
+
+    private final String prefix;
+    private final String suffix;
+    private final Set<String> messages;
+
+    ErrorCode(String message) {
+        int placeholder = message == null ? -1 : message.indexOf(PLACEHOLDER);
+        this.prefix = placeholder < 0 ? message : message.substring(0, placeholder);
+        this.suffix = placeholder < 0 ? null : message.substring(placeholder + PLACEHOLDER.length());
+        this.messages = placeholder < 0 && message != null ? Set.of(message) : null;
+    }
+
+    public String message() {
+        if (messages == null) {
+            throw new IllegalStateException(name() + " has no fixed message");
+        }
+        return prefix;
+    }
+
+    public String message(Object argument) {
+        if (suffix == null) {
+            throw new IllegalStateException(name() + " takes no argument");
+        }
+        return prefix + argument + suffix;
+    }
+
+    // prebuilt response messages, null for codes whose message takes an argument
+    Set<String> messages() {
+        return messages;
+    }
+}
@@ -8,6 +8,8 @@ public class ObjectNotValidException extends RuntimeException {
     private final Set<String> errorMessages;
 
     public ObjectNotValidException(Set<String> errorMessages) {
+        // rejected requests are expected, so skip the stack trace
+        super(null, null, false, false);
         this.errorMessages = errorMessages;
     }
 
@@ -4,8 +4,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(code = HttpStatus.BAD_REQUEST)
-public class RequestValidationException extends RuntimeException {
+public class RequestValidationException extends DomainException {
+
     public RequestValidationException(String message) {
-        super(message);
+        super(ErrorCode.INVALID_REQUEST, message);
+    }
+
+    public RequestValidationException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+
+    public RequestValidationException(ErrorCode errorCode, Object argument) {
+        super(errorCode, errorCode.message(argument));
     }
 }
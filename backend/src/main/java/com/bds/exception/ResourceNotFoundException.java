@@ -4,9 +4,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(code = HttpStatus.NOT_FOUND)
-public class ResourceNotFoundException extends RuntimeException{
+public class ResourceNotFoundException extends DomainException {
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.RESOURCE_NOT_FOUND, message);
+    }
+
+    public ResourceNotFoundException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+
+    public ResourceNotFoundException(ErrorCode errorCode, Object argument) {
+        super(errorCode, errorCode.message(argument));
     }
 }
@@ -21,7 +21,7 @@ public class BloodDonationEvent {
     @SequenceGenerator(
             name = "blood_donation_event_id_seq",
             sequenceName = "blood_donation_event_id_seq",
-            allocationSize = 1
+            allocationSize = 50
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -58,7 +58,7 @@ public class BloodDonationEvent {
     )
     private Integer units;
 
-    @ManyToOne(/*fetch = FetchType.LAZY*/)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(
             name = "organizer_id",
             nullable = false,
@@ -20,7 +20,7 @@ public class BloodDonations {
     @SequenceGenerator(
             name = "blood_donations_id_seq",
             sequenceName = "blood_donations_id_seq",
-            allocationSize = 1
+            allocationSize = 50
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -44,7 +44,7 @@ public class BloodDonations {
     )
     private LocalDate donationDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(
             name = "donor_id",
             nullable = false,
@@ -55,7 +55,7 @@ public class BloodDonations {
     )
     private Users donor;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(
             name = "admin_id",
             referencedColumnName = "id",
@@ -65,6 +65,13 @@ public class BloodDonations {
     )
     private Users admin;
 
+    @Column(
+            name = "status",
+            nullable = false
+    )
+    @Enumerated(EnumType.STRING)
+    private DonationStatus status;
+
     public BloodDonations() {
     }
 
@@ -74,6 +81,7 @@ public class BloodDonations {
         this.donationDate = donationDate;
         this.donor = donor;
         this.admin = admin;
+        this.status = DonationStatus.of(admin);
     }
 
     public BloodDonations(Integer units, LocalDate donationDate, Users donor, Users admin) {
@@ -81,12 +89,14 @@ public class BloodDonations {
         this.donationDate = donationDate;
         this.donor = donor;
         this.admin = admin;
+        this.status = DonationStatus.of(admin);
     }
 
     public BloodDonations(Integer units, LocalDate donationDate, Users donor) {
         this.units = units;
         this.donationDate = donationDate;
         this.donor = donor;
+        this.status = DonationStatus.INITIATED;
     }
 
     public Long getId() {
@@ -129,6 +139,14 @@ public class BloodDonations {
         this.admin = admin;
     }
 
+    public DonationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DonationStatus status) {
+        this.status = status;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -150,6 +168,7 @@ public class BloodDonations {
                 ", donationDate=" + donationDate +
                 ", donor=" + donor +
                 ", admin=" + admin +
+                ", status=" + status +
                 '}';
     }
 }
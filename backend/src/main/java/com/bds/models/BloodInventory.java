@@ -0,0 +1,69 @@
+package com.bds.models;
+
+
+import jakarta.persistence.*;
+import java.util.Objects;
+
+@Entity(name = "blood_inventory")
+@Table(name = "blood_inventory")
+public class BloodInventory {
+
+    @Id
+    @Column(
+            name = "blood_type",
+            updatable = false
+    )
+    @Enumerated(EnumType.STRING)
+    private BloodType bloodType;
+
+    @Column(
+            name = "units",
+            nullable = false
+    )
+    private Long units;
+
+    public BloodInventory() {
+    }
+
+    public BloodInventory(BloodType bloodType, Long units) {
+        this.bloodType = bloodType;
+        this.units = units;
+    }
+
+    public BloodType getBloodType() {
+        return bloodType;
+    }
+
+    public void setBloodType(BloodType bloodType) {
+        this.bloodType = bloodType;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public void setUnits(Long units) {
+        this.units = units;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BloodInventory that = (BloodInventory) o;
+        return bloodType == that.bloodType && Objects.equals(units, that.units);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bloodType, units);
+    }
+
+    @Override
+    public String toString() {
+        return "BloodInventory{" +
+                "bloodType=" + bloodType +
+                ", units=" + units +
+                '}';
+    }
+}
@@ -1,12 +1,32 @@
 package com.bds.models;
 
 public enum BloodType {
-    APos,
-    ANeg,
-    BPos,
-    BNeg,
-    ABPos,
-    ABNeg,
-    OPos,
-    ONeg
+    APos(true, false, true),
+    ANeg(true, false, false),
+    BPos(false, true, true),
+    BNeg(false, true, false),
+    ABPos(true, true, true),
+    ABNeg(true, true, false),
+    OPos(false, false, true),
+    ONeg(false, false, false);
+
+    private final boolean antigenA;
+    private final boolean antigenB;
+    private final boolean rhD;
+
+    BloodType(boolean antigenA, boolean antigenB, boolean rhD) {
+        this.antigenA = antigenA;
+        this.antigenB = antigenB;
+        this.rhD = rhD;
+    }
+
+    /**
+     * Red cell compatibility: the donor must not carry an A, B or RhD antigen
+     * the recipient lacks.
+     */
+    public boolean canDonateTo(BloodType recipient) {
+        return (!antigenA || recipient.antigenA)
+                && (!antigenB || recipient.antigenB)
+                && (!rhD || recipient.rhD);
+    }
 }
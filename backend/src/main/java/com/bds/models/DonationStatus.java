@@ -0,0 +1,12 @@
+package com.bds.models;
+
+public enum DonationStatus {
+    INITIATED,
+    CLAIMED,
+    CONFIRMED,
+    REJECTED;
+
+    public static DonationStatus of(Users admin) {
+        return admin == null ? INITIATED : CONFIRMED;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bds.models;
+
+public enum InventoryEntryType {
+    DONATION,
+    REJECTION,
+    DISPENSE,
+    EXPIRY,
+    DISCARD
+}
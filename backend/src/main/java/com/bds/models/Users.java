@@ -2,6 +2,8 @@ package com.bds.models;
 
 
 import jakarta.persistence.*;
+
+import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity(name = "users")
@@ -16,11 +18,17 @@ import java.util.Objects;
 )
 public class Users {
 
+    /**
+     * Stored in {@code next_eligible_date} for donors who never donated, so that
+     * "eligible on a date" stays a single index range; never returned to clients.
+     */
+    public static final LocalDate NEVER_DONATED = LocalDate.of(1900, 1, 1);
+
     @Id
     @SequenceGenerator(
             name = "users_id_seq",
             sequenceName = "users_id_seq",
-            allocationSize = 1
+            allocationSize = 50
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -0,0 +1,10 @@
+package com.bds.repositories;
+
+import com.bds.models.BloodDonations;
+
+import java.util.List;
+
+public interface BloodDonationsBatchRepository {
+
+    void persistInBatches(List<BloodDonations> bloodDonations);
+}
@@ -0,0 +1,34 @@
+package com.bds.repositories;
+
+import com.bds.models.BloodDonations;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class BloodDonationsBatchRepositoryImpl implements BloodDonationsBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // Flushing and clearing every JDBC batch keeps the persistence context (and
+    // dirty checking at flush) bounded no matter how many rows are ingested.
+    @Override
+    @Transactional
+    public void persistInBatches(List<BloodDonations> bloodDonations) {
+        for (int i = 0; i < bloodDonations.size(); i++) {
+            entityManager.persist(bloodDonations.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
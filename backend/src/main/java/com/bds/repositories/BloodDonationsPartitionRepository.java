@@ -0,0 +1,25 @@
+package com.bds.repositories;
+
+import java.util.SortedSet;
+
+public interface BloodDonationsPartitionRepository {
+
+    /**
+     * Years that currently have a {@code blood_donations_y<year>} partition attached.
+     */
+    SortedSet<Integer> findPartitionYears();
+
+    /**
+     * Creates the partition of one calendar year unless a table of that name exists.
+     * Rows of that year already sitting in the default partition are moved into it
+     * in the same transaction.
+     *
+     * @return the number of rows moved out of the default partition
+     */
+    long createPartition(int year);
+
+    /**
+     * Detaches the year's partition; the detached table is left in place for archiving.
+     */
+    void detachPartition(int year);
+}
@@ -0,0 +1,91 @@
+package com.bds.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+public class BloodDonationsPartitionRepositoryImpl implements BloodDonationsPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "blood_donations_y";
+
+    private static final String FIND_PARTITIONS = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'blood_donations'::regclass
+              AND c.relname ~ '^blood_donations_y[0-9]{4}$'
+            """;
+
+    private static final String CREATE_PARTITION =
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF blood_donations FOR VALUES FROM ('%s') TO ('%s')";
+
+    private static final String DEFAULT_PARTITION = "blood_donations_default";
+
+    private static final String DEFAULT_HAS_ROWS =
+            "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE donation_date >= ? AND donation_date < ?)";
+
+    // while the default partition is detached the inserted rows can only land in the new partition
+    private static final String MOVE_FROM_DEFAULT = """
+            WITH moved AS (
+                DELETE FROM %s
+                WHERE donation_date >= ? AND donation_date < ?
+                RETURNING *
+            )
+            INSERT INTO blood_donations
+            SELECT * FROM moved
+            """.formatted(DEFAULT_PARTITION);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BloodDonationsPartitionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public SortedSet<Integer> findPartitionYears() {
+        SortedSet<Integer> years = new TreeSet<>();
+        jdbcTemplate.query(FIND_PARTITIONS, rs -> {
+            years.add(Integer.parseInt(rs.getString(1).substring(PARTITION_PREFIX.length())));
+        });
+        return years;
+    }
+
+    /**
+     * Creating a partition fails while the default partition holds rows of its
+     * range, so those rows are moved across: the default partition is detached,
+     * the year is created and filled from it, and the default is attached again,
+     * all in one transaction that keeps blood_donations locked throughout.
+     */
+    @Transactional
+    @Override
+    public long createPartition(int year) {
+        String partition = partition(year);
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = LocalDate.of(year + 1, 1, 1);
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(DEFAULT_HAS_ROWS, Boolean.class, from, to))) {
+            jdbcTemplate.execute(CREATE_PARTITION.formatted(partition, from, to));
+            return 0;
+        }
+        jdbcTemplate.execute("ALTER TABLE blood_donations DETACH PARTITION " + DEFAULT_PARTITION);
+        jdbcTemplate.execute(CREATE_PARTITION.formatted(partition, from, to));
+        long moved = jdbcTemplate.update(MOVE_FROM_DEFAULT, from, to);
+        jdbcTemplate.execute("ALTER TABLE blood_donations ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+        return moved;
+    }
+
+    // DETACH PARTITION locks blood_donations only for the statement itself
+    @Override
+    public void detachPartition(int year) {
+        jdbcTemplate.execute("ALTER TABLE blood_donations DETACH PARTITION " + partition(year));
+    }
+
+    private static String partition(int year) {
+        if (year < 1000 || year > 9999) {
+            throw new IllegalArgumentException("partition year must have four digits, got " + year);
+        }
+        return PARTITION_PREFIX + year;
+    }
+}
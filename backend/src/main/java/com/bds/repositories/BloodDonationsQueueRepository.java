@@ -0,0 +1,17 @@
+package com.bds.repositories;
+
+import com.bds.dto.PendingDonation;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface BloodDonationsQueueRepository {
+
+    /**
+     * Marks up to {@code limit} of the oldest pending donations as claimed by the
+     * admin and returns them. Donations claimed longer than {@code lease} ago are
+     * handed out again, and rows another admin is claiming at the same moment are
+     * skipped, so concurrent callers always get disjoint batches.
+     */
+    List<PendingDonation> claimPending(Long adminId, int limit, Duration lease);
+}
@@ -0,0 +1,53 @@
+package com.bds.repositories;
+
+import com.bds.dto.PendingDonation;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+public class BloodDonationsQueueRepositoryImpl implements BloodDonationsQueueRepository {
+
+    // SKIP LOCKED passes over rows a concurrent claim (or confirmation) holds
+    // instead of queueing behind it; the claim itself is stored in the row, so
+    // the batch stays disjoint after this transaction commits.
+    static final String CLAIM_PENDING = """
+            WITH claimable AS (
+                SELECT id, donation_date
+                FROM blood_donations
+                WHERE status IN ('INITIATED', 'CLAIMED')
+                  AND (status = 'INITIATED' OR claimed_at < now() - make_interval(secs => ?))
+                ORDER BY donation_date, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE blood_donations bd
+            SET status = 'CLAIMED', claimed_by = ?, claimed_at = now()
+            FROM claimable c
+            WHERE bd.id = c.id AND bd.donation_date = c.donation_date
+            RETURNING bd.id, bd.donor_id, bd.units, bd.donation_date
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BloodDonationsQueueRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<PendingDonation> claimPending(Long adminId, int limit, Duration lease) {
+        List<PendingDonation> claimed = jdbcTemplate.query(CLAIM_PENDING,
+                (rs, rowNum) -> new PendingDonation(
+                        rs.getLong("id"),
+                        rs.getLong("donor_id"),
+                        rs.getInt("units"),
+                        rs.getObject("donation_date", LocalDate.class)),
+                (double) lease.toMillis() / 1000, limit, adminId);
+        // RETURNING does not keep the order of the claimable rows
+        return claimed.stream()
+                .sorted(Comparator.comparing(PendingDonation::donationDate).thenComparing(PendingDonation::id))
+                .toList();
+    }
+}
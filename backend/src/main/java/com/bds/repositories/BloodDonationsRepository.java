@@ -1,33 +1,79 @@
 package com.bds.repositories;
 
-import com.bds.dto.BloodUnits;
+import com.bds.dto.DonationKey;
+import com.bds.dto.DonorBloodDonation;
 import com.bds.models.BloodDonations;
+import com.bds.models.DonationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BloodDonationsRepository extends JpaRepository<BloodDonations, Long> {
-
-    @Query(value = "SELECT u.bloodType AS bloodType, SUM(bd.units) AS totalUnits "
-            + "FROM blood_donations bd, users u WHERE bd.donor.id = u.id GROUP BY u.bloodType")
-    List<BloodUnits> countAvailableUnitsByBloodType();
+public interface BloodDonationsRepository
+        extends JpaRepository<BloodDonations, Long>, BloodDonationsBatchRepository, BloodDonationsPartitionRepository,
+        BloodDonationsQueueRepository {
 
     @Query(value = "SELECT count(bd.donor.id) = 1 FROM blood_donations bd WHERE bd.donor.id = :donorId "
             + "AND bd.donationDate = :donationDate")
     boolean existsBloodDonationsByDonorAndDonationDate(@Param("donorId") Long id,
                                                        @Param("donationDate") LocalDate donationDate);
 
+    @Transactional
+    @Query(value = "INSERT INTO blood_donations (donor_id, admin_id, units, donation_date, status) "
+            + "VALUES (:donorId, CAST(:adminId AS BIGINT), :units, :donationDate, "
+            + "CASE WHEN CAST(:adminId AS BIGINT) IS NULL THEN 'INITIATED' ELSE 'CONFIRMED' END) "
+            + "ON CONFLICT (donor_id, donation_date) DO NOTHING RETURNING id", nativeQuery = true)
+    Long insertIfAbsent(@Param("donorId") Long donorId,
+                        @Param("adminId") Long adminId,
+                        @Param("units") Integer units,
+                        @Param("donationDate") LocalDate donationDate);
+
+    @Transactional
+    @Query(value = "WITH confirmed AS ("
+            + "UPDATE blood_donations SET admin_id = :adminId, status = 'CONFIRMED', "
+            + "claimed_by = NULL, claimed_at = NULL "
+            + "WHERE id = :donationId AND units = :units "
+            + "AND (status = 'INITIATED' OR (status = 'CLAIMED' AND claimed_by = :adminId)) "
+            + "RETURNING donor_id"
+            + "), counted AS ("
+            + "UPDATE users SET donation_count = donation_count + 1 "
+            + "WHERE id IN (SELECT donor_id FROM confirmed)"
+            + ") SELECT donor_id FROM confirmed", nativeQuery = true)
+    Long confirmDonation(@Param("donationId") Long donationId,
+                        @Param("adminId") Long adminId,
+                        @Param("units") Integer units);
+
+    @Transactional
+    @Query(value = "UPDATE blood_donations SET admin_id = :adminId, status = 'REJECTED', "
+            + "claimed_by = NULL, claimed_at = NULL "
+            + "WHERE id = :donationId "
+            + "AND (status = 'INITIATED' OR (status = 'CLAIMED' AND claimed_by = :adminId)) "
+            + "RETURNING donor_id", nativeQuery = true)
+    Long rejectDonation(@Param("donationId") Long donationId,
+                        @Param("adminId") Long adminId);
+
+    @Query(value = "SELECT bd.donor.id AS donorId, bd.donationDate AS donationDate FROM blood_donations bd "
+            + "WHERE bd.donor.id IN :donorIds AND bd.donationDate BETWEEN :from AND :to")
+    List<DonationKey> findDonationKeys(@Param("donorIds") Collection<Long> donorIds,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
     @Query(value = "SELECT count(bd.id) = 1 FROM blood_donations bd WHERE bd.id = :donationId")
     boolean existsBloodDonationsByDonationId(@Param("donationId") Long donationId);
 
     @Query(value = "SELECT bd.units FROM blood_donations bd WHERE bd.id = :donationId")
     Integer findUnitsByDonationId(@Param("donationId") Long donationId);
 
-    @Query(value = "SELECT bd FROM blood_donations bd WHERE bd.donor.id = ?1")
-    List<BloodDonations> findByDonorId(Long donorId);
+    @Query(value = "SELECT bd.status FROM blood_donations bd WHERE bd.id = :donationId")
+    DonationStatus findStatusByDonationId(@Param("donationId") Long donationId);
+
+    @Query(value = "SELECT new com.bds.dto.DonorBloodDonation(bd.id, bd.units, bd.donationDate, bd.admin.id, bd.status) "
+            + "FROM blood_donations bd WHERE bd.donor.id = :donorId ORDER BY bd.donationDate, bd.id")
+    List<DonorBloodDonation> findDonationsByDonorId(@Param("donorId") Long donorId);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.bds.repositories;
+
+import com.bds.dto.InventorySnapshot;
+import com.bds.models.BloodType;
+
+import java.util.Map;
+
+public interface BloodInventoryLedgerRepository {
+
+    /**
+     * The snapshot with the highest ledger id; the opening balance has id 0.
+     */
+    InventorySnapshot findLatestSnapshot();
+
+    long findLastLedgerId();
+
+    /**
+     * Sum of the ledger entries after {@code afterId} up to and including
+     * {@code upToId}, per blood type.
+     */
+    Map<BloodType, Long> sumLedger(long afterId, long upToId);
+
+    void saveSnapshot(InventorySnapshot snapshot);
+}
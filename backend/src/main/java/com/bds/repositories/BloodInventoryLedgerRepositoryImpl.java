@@ -0,0 +1,67 @@
+package com.bds.repositories;
+
+import com.bds.dto.InventorySnapshot;
+import com.bds.models.BloodType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class BloodInventoryLedgerRepositoryImpl implements BloodInventoryLedgerRepository {
+
+    private static final String FIND_LATEST_SNAPSHOT = """
+            SELECT ledger_id, blood_type, units
+            FROM blood_inventory_snapshot
+            WHERE ledger_id = (SELECT MAX(ledger_id) FROM blood_inventory_snapshot)
+            """;
+
+    private static final String SUM_LEDGER = """
+            SELECT blood_type, SUM(units) AS units
+            FROM blood_inventory_ledger
+            WHERE id > ? AND id <= ?
+            GROUP BY blood_type
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BloodInventoryLedgerRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public InventorySnapshot findLatestSnapshot() {
+        long[] ledgerId = {0};
+        Map<BloodType, Long> units = new EnumMap<>(BloodType.class);
+        jdbcTemplate.query(FIND_LATEST_SNAPSHOT, rs -> {
+            ledgerId[0] = rs.getLong("ledger_id");
+            units.put(BloodType.valueOf(rs.getString("blood_type")), rs.getLong("units"));
+        });
+        return new InventorySnapshot(ledgerId[0], units);
+    }
+
+    @Override
+    public long findLastLedgerId() {
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM blood_inventory_ledger", Long.class);
+        return id == null ? 0 : id;
+    }
+
+    @Override
+    public Map<BloodType, Long> sumLedger(long afterId, long upToId) {
+        Map<BloodType, Long> units = new EnumMap<>(BloodType.class);
+        jdbcTemplate.query(SUM_LEDGER, rs -> {
+            units.put(BloodType.valueOf(rs.getString("blood_type")), rs.getLong("units"));
+        }, afterId, upToId);
+        return units;
+    }
+
+    @Override
+    public void saveSnapshot(InventorySnapshot snapshot) {
+        List<Object[]> rows = new ArrayList<>(snapshot.units().size());
+        snapshot.units().forEach((bloodType, units) ->
+                rows.add(new Object[]{snapshot.ledgerId(), bloodType.name(), units}));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO blood_inventory_snapshot (ledger_id, blood_type, units) VALUES (?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bds.repositories;
+
+import com.bds.dto.BloodUnits;
+import com.bds.models.BloodInventory;
+import com.bds.models.BloodType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface BloodInventoryRepository extends JpaRepository<BloodInventory, BloodType>, BloodInventoryLedgerRepository {
+
+    @Query(value = "SELECT bi.bloodType AS bloodType, bi.units AS totalUnits FROM blood_inventory bi")
+    List<BloodUnits> findAvailableUnits();
+
+    // Every change is appended to blood_inventory_ledger by the statement that
+    // makes it; no change leaves a blood type below zero units.
+    @Transactional
+    @Query(value = "WITH updated AS ("
+            + "UPDATE blood_inventory SET units = units + :units "
+            + "WHERE blood_type = (SELECT u.blood_type FROM users u WHERE u.id = :donorId) "
+            + "AND units + :units >= 0 RETURNING blood_type"
+            + "), logged AS ("
+            + "INSERT INTO blood_inventory_ledger (blood_type, entry_type, units) "
+            + "SELECT blood_type, :entryType, :units FROM updated"
+            + ") SELECT blood_type FROM updated", nativeQuery = true)
+    BloodType addDonorUnits(@Param("donorId") Long donorId,
+                            @Param("units") Integer units,
+                            @Param("entryType") String entryType);
+
+    @Transactional
+    @Modifying
+    @Query(value = "WITH updated AS ("
+            + "UPDATE blood_inventory SET units = units + :units "
+            + "WHERE blood_type = :bloodType AND units + :units >= 0 RETURNING blood_type"
+            + ") INSERT INTO blood_inventory_ledger (blood_type, entry_type, units) "
+            + "SELECT blood_type, :entryType, :units FROM updated", nativeQuery = true)
+    int addUnits(@Param("bloodType") String bloodType,
+                 @Param("units") Long units,
+                 @Param("entryType") String entryType);
+
+    // Concurrent removals of one blood type queue on its row, and each re-checks
+    // the units left once it gets the row.
+    @Transactional
+    @Query(value = "WITH updated AS ("
+            + "UPDATE blood_inventory SET units = units - :units "
+            + "WHERE blood_type = :bloodType AND units >= :units RETURNING blood_type, units"
+            + "), logged AS ("
+            + "INSERT INTO blood_inventory_ledger (blood_type, entry_type, units) "
+            + "SELECT blood_type, :entryType, 0 - :units FROM updated"
+            + ") SELECT units FROM updated", nativeQuery = true)
+    Long removeUnits(@Param("bloodType") String bloodType,
+                     @Param("units") Long units,
+                     @Param("entryType") String entryType);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT bi FROM blood_inventory bi")
+    List<BloodInventory> findAllForUpdate();
+}
@@ -0,0 +1,22 @@
+package com.bds.repositories;
+
+import com.bds.dto.EligibleDonor;
+import com.bds.models.BloodType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UsersEligibilityRepository {
+
+    interface DonorProfileHandler {
+        void accept(long id, BloodType bloodType, LocalDate nextEligibleDate, int donationCount);
+    }
+
+    List<EligibleDonor> findEligibleDonors(BloodType bloodType,
+                                           LocalDate on,
+                                           LocalDate afterNextEligibleDate,
+                                           long afterId,
+                                           int limit);
+
+    void forEachDonorProfile(DonorProfileHandler handler);
+}
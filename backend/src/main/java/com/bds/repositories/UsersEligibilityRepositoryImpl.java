@@ -0,0 +1,89 @@
+package com.bds.repositories;
+
+import com.bds.dto.EligibleDonor;
+import com.bds.models.BloodType;
+import com.bds.models.Users;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+
+public class UsersEligibilityRepositoryImpl implements UsersEligibilityRepository {
+
+    // Equality on role and blood_type plus a range on (next_eligible_date, id)
+    // is a single range scan of users_eligibility_idx, already in output order.
+    private static final String FIND_ELIGIBLE_DONORS = """
+            SELECT id, first_name, last_name, email, blood_type, last_donation_date, next_eligible_date
+            FROM users
+            WHERE role = 'DONOR'
+              AND blood_type = ?
+              AND next_eligible_date <= ?
+              AND (next_eligible_date, id) > (?, ?)
+            ORDER BY next_eligible_date, id
+            LIMIT ?
+            """;
+
+    private static final String DONOR_PROFILES = """
+            SELECT id, blood_type, next_eligible_date, donation_count
+            FROM users
+            WHERE role = 'DONOR'
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${users.stream.fetch-size:1000}")
+    private int fetchSize;
+
+    public UsersEligibilityRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EligibleDonor> findEligibleDonors(BloodType bloodType,
+                                                  LocalDate on,
+                                                  LocalDate afterNextEligibleDate,
+                                                  long afterId,
+                                                  int limit) {
+        return jdbcTemplate.query(
+                FIND_ELIGIBLE_DONORS,
+                (rs, rowNum) -> new EligibleDonor(
+                        rs.getLong("id"),
+                        rs.getString("first_name"),
+                        rs.getString("last_name"),
+                        rs.getString("email"),
+                        BloodType.valueOf(rs.getString("blood_type")),
+                        rs.getObject("last_donation_date", LocalDate.class),
+                        nullIfNeverDonated(rs.getObject("next_eligible_date", LocalDate.class))
+                ),
+                bloodType.name(), on, afterNextEligibleDate, afterId, limit
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachDonorProfile(DonorProfileHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(DONOR_PROFILES);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> handler.accept(
+                        rs.getLong("id"),
+                        BloodType.valueOf(rs.getString("blood_type")),
+                        rs.getObject("next_eligible_date", LocalDate.class),
+                        rs.getInt("donation_count")
+                )
+        );
+    }
+
+    private static LocalDate nullIfNeverDonated(LocalDate nextEligibleDate) {
+        return Users.NEVER_DONATED.equals(nextEligibleDate) ? null : nextEligibleDate;
+    }
+}
@@ -1,24 +1,69 @@
 package com.bds.repositories;
 
+import com.bds.dto.DonorBloodType;
 import com.bds.models.Role;
 import com.bds.models.Users;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface UsersRepository
-        extends JpaRepository<Users, Long> {
+        extends JpaRepository<Users, Long>, UsersStreamRepository, UsersEligibilityRepository {
 
     @Query(value = "SELECT u FROM users u WHERE u.role = ?1")
     List<Users> findByRoleIs(Role role);
 
+    @Query(value = "SELECT u FROM users u WHERE u.role = :role AND u.id > :after ORDER BY u.id")
+    List<Users> findPageByRole(@Param("role") Role role, @Param("after") Long after, Pageable pageable);
+
     @Query(value = "SELECT count(u.email) = 1 FROM users u WHERE u.email = :email")
     boolean existsUsersByEmail(@Param("email") String email);
 
     @Query(value = "SELECT u FROM users u WHERE u.email = :email")
     Users findUsersByEmail(@Param("email") String email);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT u.id AS id, u.bloodType AS bloodType FROM users u WHERE u.id IN :ids")
+    List<DonorBloodType> findBloodTypesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET "
+            + "last_donation_date = GREATEST(last_donation_date, :donationDate), "
+            + "next_eligible_date = GREATEST(next_eligible_date, :nextEligibleDate), "
+            + "donation_count = donation_count + CASE WHEN :confirmed THEN 1 ELSE 0 END "
+            + "WHERE id IN :donorIds", nativeQuery = true)
+    int recordDonations(@Param("donorIds") Collection<Long> donorIds,
+                        @Param("donationDate") LocalDate donationDate,
+                        @Param("nextEligibleDate") LocalDate nextEligibleDate,
+                        @Param("confirmed") boolean confirmed);
+
+    @Query(value = "SELECT id FROM users WHERE id = :donorId FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("donorId") Long donorId);
+
+    /**
+     * Recomputes eligibility from the donations that were not rejected; donors
+     * left without any go back to {@code neverDonated}. Callers lock the donor
+     * first, so a donation recorded concurrently is not lost.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET "
+            + "last_donation_date = d.last_donation_date, "
+            + "next_eligible_date = COALESCE("
+            + "CAST(d.last_donation_date + CAST(:deferralInterval AS INTERVAL) AS DATE), :neverDonated) "
+            + "FROM (SELECT max(donation_date) AS last_donation_date FROM blood_donations "
+            + "WHERE donor_id = :donorId AND status <> 'REJECTED') d "
+            + "WHERE users.id = :donorId", nativeQuery = true)
+    int resetEligibility(@Param("donorId") Long donorId,
+                         @Param("deferralInterval") String deferralInterval,
+                         @Param("neverDonated") LocalDate neverDonated);
+}
@@ -0,0 +1,11 @@
+package com.bds.repositories;
+
+import com.bds.models.Role;
+import com.bds.models.Users;
+
+import java.util.function.Consumer;
+
+public interface UsersStreamRepository {
+
+    void forEachByRole(Role role, Consumer<Users> action);
+}
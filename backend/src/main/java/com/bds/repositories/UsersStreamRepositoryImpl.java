@@ -0,0 +1,40 @@
+package com.bds.repositories;
+
+import com.bds.models.Role;
+import com.bds.models.Users;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class UsersStreamRepositoryImpl implements UsersStreamRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${users.stream.fetch-size:1000}")
+    private int fetchSize;
+
+    // The PostgreSQL driver only honours the fetch size inside a transaction, and
+    // detaching every row after it is handed over keeps the persistence context
+    // empty, so memory stays flat however many users are streamed.
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachByRole(Role role, Consumer<Users> action) {
+        try (Stream<Users> users = entityManager
+                .createQuery("SELECT u FROM users u WHERE u.role = :role ORDER BY u.id", Users.class)
+                .setParameter("role", role)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            users.forEach(user -> {
+                action.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
+}
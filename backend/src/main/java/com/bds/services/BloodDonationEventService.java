@@ -1,22 +1,25 @@
 package com.bds.services;
 
 import com.bds.dto.BloodDonationEventRequest;
+import com.bds.exception.ErrorCode;
 import com.bds.exception.RequestValidationException;
 import com.bds.models.BloodDonationEvent;
 import com.bds.models.BloodType;
 import com.bds.repositories.BloodDonationEventRepository;
 import com.bds.repositories.UsersRepository;
 import com.bds.validators.DtoValidator;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed(value = "bds.service", histogram = true)
 public class BloodDonationEventService {
 
     private final BloodDonationEventRepository bloodDonationEventRepository;
     private final UsersRepository usersRepository;
-    private final DtoValidator<BloodDonationEventRequest> validator;
+    private final DtoValidator validator;
 
-    public BloodDonationEventService(BloodDonationEventRepository bloodDonationEventRepository, UsersRepository usersRepository, DtoValidator<BloodDonationEventRequest> validator) {
+    public BloodDonationEventService(BloodDonationEventRepository bloodDonationEventRepository, UsersRepository usersRepository, DtoValidator validator) {
         this.bloodDonationEventRepository = bloodDonationEventRepository;
         this.usersRepository = usersRepository;
         this.validator = validator;
@@ -27,7 +30,7 @@ public class BloodDonationEventService {
 
         Long id = bloodDonationEventRequest.users().getId();
         if (!usersRepository.existsById(id)) {
-            throw new RequestValidationException("user with " + id + " does not exists");
+            throw new RequestValidationException(ErrorCode.UNKNOWN_USER, id);
         }
 
         BloodDonationEvent newEvent = new BloodDonationEvent(
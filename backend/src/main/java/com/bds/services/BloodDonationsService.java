@@ -1,43 +1,109 @@
 package com.bds.services;
 
 import com.bds.dto.*;
+import com.bds.events.DonationHistoryChangedEvent;
+import com.bds.exception.BadRequestException;
+import com.bds.exception.DomainException;
 import com.bds.exception.DuplicateResourceException;
+import com.bds.exception.ErrorCode;
 import com.bds.exception.RequestValidationException;
 import com.bds.exception.ResourceNotFoundException;
 import com.bds.models.BloodDonations;
 import com.bds.dto.BloodUnits;
+import com.bds.models.BloodType;
+import com.bds.models.DonationStatus;
+import com.bds.models.Users;
 import com.bds.repositories.BloodDonationsRepository;
 import com.bds.repositories.UsersRepository;
 import com.bds.validators.DtoValidator;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.*;
 
 @Service
+@Timed(value = "bds.service", histogram = true)
 public class BloodDonationsService {
 
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
     private final BloodDonationsRepository bloodDonationsRepository;
     private final UsersRepository usersRepository;
-    private final DtoValidator<Object> validator;
+    private final DtoValidator validator;
+    private final BloodInventoryService bloodInventoryService;
+    private final ResourceVersions resourceVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchRows;
+    private final Period deferralInterval;
+    private final ReplicaReads replicaReads;
+    private final int maxClaimBatch;
+    private final Duration claimLease;
+    private final SingleFlight<Versioned<List<BloodUnits>>> availableUnits;
 
-    public BloodDonationsService(BloodDonationsRepository bloodDonationsRepository, UsersRepository usersRepository, DtoValidator<Object> validator) {
+    public BloodDonationsService(BloodDonationsRepository bloodDonationsRepository, UsersRepository usersRepository, DtoValidator validator, BloodInventoryService bloodInventoryService,
+                                 ResourceVersions resourceVersions, ApplicationEventPublisher eventPublisher, ReplicaReads replicaReads,
+                                 @Value("${donations.batch.max-rows:10000}") int maxBatchRows,
+                                 @Value("${donations.deferral-interval:P56D}") Period deferralInterval,
+                                 @Value("${donations.available-units.stale-while-revalidate:PT0S}") Duration staleWhileRevalidate,
+                                 @Value("${donations.claims.max-batch:100}") int maxClaimBatch,
+                                 @Value("${donations.claims.lease:PT15M}") Duration claimLease) {
         this.bloodDonationsRepository = bloodDonationsRepository;
         this.usersRepository = usersRepository;
         this.validator = validator;
+        this.bloodInventoryService = bloodInventoryService;
+        this.resourceVersions = resourceVersions;
+        this.eventPublisher = eventPublisher;
+        this.replicaReads = replicaReads;
+        this.maxBatchRows = maxBatchRows;
+        this.deferralInterval = deferralInterval;
+        this.maxClaimBatch = maxClaimBatch;
+        this.claimLease = claimLease;
+        this.availableUnits = new SingleFlight<>(
+                () -> {
+                    // version first: the units read next are at least as new as it
+                    String eTag = resourceVersions.inventoryETag();
+                    return new Versioned<>(eTag, List.copyOf(bloodInventoryService.getAvailableUnits()));
+                },
+                staleWhileRevalidate
+        );
     }
 
+    /**
+     * Concurrent callers share one lookup; with
+     * {@code donations.available-units.stale-while-revalidate} set, results are
+     * also reused for that long, so a burst of requests after a shortage alert
+     * reaches the database at most once per window.
+     */
     public List<BloodUnits> countAvailableUnitsByBloodType() {
-        return bloodDonationsRepository.countAvailableUnitsByBloodType();
+        return availableUnits.get().body();
+    }
+
+    /**
+     * Available units with the ETag they were read at, which may be older than
+     * {@link #availableUnitsETag()} while a stale result is being served.
+     */
+    public Versioned<List<BloodUnits>> getAvailableUnits() {
+        return availableUnits.get();
+    }
+
+    public String availableUnitsETag() {
+        return resourceVersions.inventoryETag();
+    }
+
+    public String donationHistoryETag(Long donorId) {
+        return resourceVersions.donationHistoryETag(donorId);
     }
 
+    @Transactional
     public BloodDonations addBloodDonation(BloodDonationRequest bloodDonationRequest) {
         validator.validate(bloodDonationRequest);
-        if (bloodDonationsRepository.existsBloodDonationsByDonorAndDonationDate(
-                bloodDonationRequest.donor().getId(),
-                bloodDonationRequest.donationDate())
-        ) {
-            throw new DuplicateResourceException("donor or donation date already exists");
-        }
 
         BloodDonations newDonation = new BloodDonations(
                 bloodDonationRequest.units(),
@@ -45,39 +111,171 @@ public class BloodDonationsService {
                 bloodDonationRequest.donor(),
                 bloodDonationRequest.admin()
         );
-        bloodDonationsRepository.save(newDonation);
+        insertDonation(newDonation);
 
         return newDonation;
     }
 
-    public void confirmBloodDonation(Long donationId, ConfirmDonationRequest confirmDonationRequest) {
-            validator.validate(confirmDonationRequest);
-            BloodDonations savedBloodDonations = bloodDonationsRepository.findById(donationId)
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "donation id does not exists"
-                    ));
-
-            if (!bloodDonationsRepository.findUnitsByDonationId(donationId)
-                    .equals(confirmDonationRequest.units())) {
-                throw new RequestValidationException(
-                        "confirmed units does not match DONOR units"
-                );
+    @Transactional
+    public List<BloodDonationBatchResult> addBloodDonations(List<BloodDonationRequest> bloodDonationRequests) {
+        if (bloodDonationRequests.size() > maxBatchRows) {
+            throw new RequestValidationException(ErrorCode.BATCH_TOO_LARGE, maxBatchRows);
+        }
+
+        BloodDonationBatchResult[] results = new BloodDonationBatchResult[bloodDonationRequests.size()];
+        Map<DonationKeyValue, Integer> accepted = new LinkedHashMap<>();
+        Set<Long> userIds = new HashSet<>();
+
+        for (int i = 0; i < bloodDonationRequests.size(); i++) {
+            BloodDonationRequest request = bloodDonationRequests.get(i);
+            String violation = validator.firstViolationInFieldOrder(request);
+            if (violation == null && (request.donor() == null || request.donor().getId() == null)) {
+                violation = "Invalid donor: Empty donor id";
+            }
+            if (violation != null) {
+                results[i] = new BloodDonationBatchResult(i, BatchRowStatus.INVALID, null, Set.of(violation));
+                continue;
+            }
+
+            DonationKeyValue key = new DonationKeyValue(request.donor().getId(), request.donationDate());
+            if (accepted.putIfAbsent(key, i) != null) {
+                results[i] = duplicate(i);
+                continue;
+            }
+            userIds.add(request.donor().getId());
+            if (request.admin() != null && request.admin().getId() != null) {
+                userIds.add(request.admin().getId());
             }
+        }
+
+        Map<Long, BloodType> bloodTypes = findBloodTypes(userIds);
+        Set<DonationKeyValue> existing = findExistingDonations(accepted.keySet());
+
+        List<BloodDonations> newDonations = new ArrayList<>(accepted.size());
+        List<Integer> newDonationRows = new ArrayList<>(accepted.size());
+        Map<BloodType, Long> unitsByBloodType = new EnumMap<>(BloodType.class);
+        Map<DonationGroup, List<Long>> donorsByGroup = new TreeMap<>(DonationGroup.ORDER);
 
-            bloodDonationsRepository
-                    .save(savedBloodDonations);
+        for (Map.Entry<DonationKeyValue, Integer> entry : accepted.entrySet()) {
+            int row = entry.getValue();
+            BloodDonationRequest request = bloodDonationRequests.get(row);
+            Long adminId = request.admin() == null ? null : request.admin().getId();
+
+            if (!bloodTypes.containsKey(entry.getKey().donorId())
+                    || (adminId != null && !bloodTypes.containsKey(adminId))) {
+                results[row] = new BloodDonationBatchResult(row, BatchRowStatus.INVALID, null,
+                        Set.of("donor or admin does not exist"));
+                continue;
+            }
+            if (existing.contains(entry.getKey())) {
+                results[row] = duplicate(row);
+                continue;
+            }
+
+            newDonations.add(new BloodDonations(
+                    request.units(),
+                    request.donationDate(),
+                    usersRepository.getReferenceById(entry.getKey().donorId()),
+                    adminId == null ? null : usersRepository.getReferenceById(adminId)
+            ));
+            newDonationRows.add(row);
+            unitsByBloodType.merge(bloodTypes.get(entry.getKey().donorId()), request.units().longValue(), Long::sum);
+            donorsByGroup.computeIfAbsent(new DonationGroup(request.donationDate(), adminId != null),
+                            group -> new ArrayList<>())
+                    .add(entry.getKey().donorId());
+        }
+
+        try {
+            bloodDonationsRepository.persistInBatches(newDonations);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateResourceException(ErrorCode.CONCURRENT_DONATIONS);
+        }
+        bloodInventoryService.recordDonations(unitsByBloodType);
+        List<Long> donorIds = new ArrayList<>(newDonations.size());
+        donorsByGroup.forEach((group, donors) -> {
+            for (List<Long> chunk : chunks(donors)) {
+                recordEligibility(chunk, group.donationDate(), group.confirmed());
+            }
+            donorIds.addAll(donors);
+        });
+        if (!donorIds.isEmpty()) {
+            eventPublisher.publishEvent(new DonationHistoryChangedEvent(donorIds));
+        }
+
+        for (int i = 0; i < newDonations.size(); i++) {
+            int row = newDonationRows.get(i);
+            results[row] = new BloodDonationBatchResult(row, BatchRowStatus.CREATED, newDonations.get(i).getId(), Set.of());
+        }
+        return Arrays.asList(results);
     }
 
-    public void initiateBloodDonation(InitiateBloodDonationRequest initiateBloodDonationRequest) {
-        validator.validate(initiateBloodDonationRequest);
-        if (bloodDonationsRepository.existsBloodDonationsByDonorAndDonationDate(
-                initiateBloodDonationRequest.donor().getId(),
-                initiateBloodDonationRequest.donationDate()
-        )) {
-            throw new DuplicateResourceException("donor or donation date already exists");
+    @Transactional
+    public void confirmBloodDonation(Long donationId, ConfirmDonationRequest confirmDonationRequest) {
+        validator.validate(confirmDonationRequest);
+        Long donorId = bloodDonationsRepository.confirmDonation(
+                donationId,
+                confirmDonationRequest.adminId(),
+                confirmDonationRequest.units());
+        if (donorId != null) {
+            eventPublisher.publishEvent(DonationHistoryChangedEvent.of(donorId));
+            return;
         }
 
-        bloodDonationsRepository.save(
+        Integer units = bloodDonationsRepository.findUnitsByDonationId(donationId);
+        if (units == null) {
+            throw new ResourceNotFoundException(ErrorCode.DONATION_NOT_FOUND);
+        }
+        if (!units.equals(confirmDonationRequest.units())) {
+            throw new BadRequestException(ErrorCode.UNITS_MISMATCH);
+        }
+        throw notPending(donationId);
+    }
+
+    /**
+     * Rejects a pending donation and takes its units, which were counted when
+     * the donation was entered, back out of the blood inventory. Fails when
+     * those units have been dispensed in the meantime. The donor's eligibility
+     * is recomputed without the rejected donation.
+     */
+    @Transactional
+    public void rejectBloodDonation(Long donationId, RejectDonationRequest rejectDonationRequest) {
+        validator.validate(rejectDonationRequest);
+        Long donorId = bloodDonationsRepository.rejectDonation(donationId, rejectDonationRequest.adminId());
+        if (donorId == null) {
+            throw notPending(donationId);
+        }
+        Integer units = bloodDonationsRepository.findUnitsByDonationId(donationId);
+        bloodInventoryService.recordRejection(donorId, units);
+        usersRepository.lockById(donorId);
+        usersRepository.resetEligibility(donorId, deferralInterval.toString(), Users.NEVER_DONATED);
+        eventPublisher.publishEvent(DonationHistoryChangedEvent.of(donorId));
+    }
+
+    /**
+     * Hands the admin up to {@code n} of the oldest pending donations nobody else
+     * holds. A claim that is neither confirmed nor rejected within
+     * {@code donations.claims.lease} goes back to the queue.
+     */
+    @Transactional
+    public List<PendingDonation> claimPendingDonations(Long adminId, int n) {
+        if (n < 1 || n > maxClaimBatch) {
+            throw new RequestValidationException(ErrorCode.INVALID_LIMIT, maxClaimBatch);
+        }
+        if (!usersRepository.existsById(adminId)) {
+            throw new RequestValidationException(ErrorCode.UNKNOWN_USER, adminId);
+        }
+        List<PendingDonation> claimed = bloodDonationsRepository.claimPending(adminId, n, claimLease);
+        if (!claimed.isEmpty()) {
+            eventPublisher.publishEvent(new DonationHistoryChangedEvent(
+                    claimed.stream().map(PendingDonation::donorId).distinct().toList()));
+        }
+        return claimed;
+    }
+
+    @Transactional
+    public void initiateBloodDonation(InitiateBloodDonationRequest initiateBloodDonationRequest) {
+        validator.validate(initiateBloodDonationRequest);
+        insertDonation(
                 new BloodDonations(
                         initiateBloodDonationRequest.units(),
                         initiateBloodDonationRequest.donationDate(),
@@ -86,26 +284,107 @@ public class BloodDonationsService {
         );
     }
 
-    public List<BloodDonations> getBloodDonations(Long donorId) {
-        if(!usersRepository.findById(donorId).isPresent()) {
-            throw new ResourceNotFoundException("Donor with given id: " + donorId + " does not exist");
-        }
-
-        List<BloodDonations> bloodDonationsList =
-                bloodDonationsRepository.findByDonorId(donorId);
-        if (bloodDonationsList.isEmpty()) {
-            throw new ResourceNotFoundException("Donor with given id: " + donorId + " does not have donations");
-        }
-        return bloodDonationsList;
+    public List<DonorBloodDonation> getBloodDonations(Long donorId) {
+        return replicaReads.donationHistory(donorId, () -> {
+            List<DonorBloodDonation> bloodDonationsList =
+                    bloodDonationsRepository.findDonationsByDonorId(donorId);
+            if (bloodDonationsList.isEmpty()) {
+                if (!usersRepository.existsById(donorId)) {
+                    throw new ResourceNotFoundException(ErrorCode.DONOR_NOT_FOUND, donorId);
+                }
+                throw new ResourceNotFoundException(ErrorCode.DONOR_HAS_NO_DONATIONS, donorId);
+            }
+            return bloodDonationsList;
+        });
     }
 
+    @Transactional
     public void donorBloodDonationRequest(DonorBloodDonationRequest donorBloodDonationRequest) {
         validator.validate(donorBloodDonationRequest);
-        bloodDonationsRepository.save(
+        insertDonation(
                 new BloodDonations(
                         donorBloodDonationRequest.units(),
                         donorBloodDonationRequest.donationDate(),
                         donorBloodDonationRequest.donor())
         );
     }
+
+    private void insertDonation(BloodDonations donation) {
+        Long id = bloodDonationsRepository.insertIfAbsent(
+                donation.getDonor().getId(),
+                donation.getAdmin() == null ? null : donation.getAdmin().getId(),
+                donation.getUnits(),
+                donation.getDonationDate()
+        );
+        if (id == null) {
+            throw new DuplicateResourceException(ErrorCode.DONATION_EXISTS);
+        }
+        donation.setId(id);
+        bloodInventoryService.recordDonation(donation.getDonor().getId(), donation.getUnits());
+        recordEligibility(List.of(donation.getDonor().getId()), donation.getDonationDate(),
+                donation.getAdmin() != null);
+        eventPublisher.publishEvent(DonationHistoryChangedEvent.of(donation.getDonor().getId()));
+    }
+
+    private DomainException notPending(Long donationId) {
+        DonationStatus status = bloodDonationsRepository.findStatusByDonationId(donationId);
+        if (status == null) {
+            return new ResourceNotFoundException(ErrorCode.DONATION_NOT_FOUND);
+        }
+        return new DuplicateResourceException(switch (status) {
+            case REJECTED -> ErrorCode.DONATION_ALREADY_REJECTED;
+            case CLAIMED -> ErrorCode.DONATION_CLAIMED_BY_OTHER_ADMIN;
+            case INITIATED, CONFIRMED -> ErrorCode.DONATION_ALREADY_CONFIRMED;
+        });
+    }
+
+    private void recordEligibility(List<Long> donorIds, LocalDate donationDate, boolean confirmed) {
+        usersRepository.recordDonations(donorIds, donationDate, donationDate.plus(deferralInterval), confirmed);
+    }
+
+    private Map<Long, BloodType> findBloodTypes(Set<Long> userIds) {
+        Map<Long, BloodType> bloodTypes = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(userIds))) {
+            usersRepository.findBloodTypesByIdIn(chunk)
+                    .forEach(user -> bloodTypes.put(user.getId(), user.getBloodType()));
+        }
+        return bloodTypes;
+    }
+
+    private Set<DonationKeyValue> findExistingDonations(Set<DonationKeyValue> keys) {
+        Set<DonationKeyValue> existing = new HashSet<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        LocalDate from = keys.stream().map(DonationKeyValue::donationDate).min(LocalDate::compareTo).orElseThrow();
+        LocalDate to = keys.stream().map(DonationKeyValue::donationDate).max(LocalDate::compareTo).orElseThrow();
+        List<Long> donorIds = keys.stream().map(DonationKeyValue::donorId).distinct().toList();
+        for (List<Long> chunk : chunks(donorIds)) {
+            bloodDonationsRepository.findDonationKeys(chunk, from, to)
+                    .forEach(key -> existing.add(new DonationKeyValue(key.getDonorId(), key.getDonationDate())));
+        }
+        return existing;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static BloodDonationBatchResult duplicate(int row) {
+        return new BloodDonationBatchResult(row, BatchRowStatus.DUPLICATE, null,
+                Set.of("donor or donation date already exists"));
+    }
+
+    private record DonationKeyValue(Long donorId, LocalDate donationDate) {
+    }
+
+    // donors whose users rows get the same update
+    private record DonationGroup(LocalDate donationDate, boolean confirmed) {
+        static final Comparator<DonationGroup> ORDER = Comparator.comparing(DonationGroup::donationDate)
+                .thenComparing(DonationGroup::confirmed);
+    }
 }
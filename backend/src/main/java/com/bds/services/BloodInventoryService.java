@@ -0,0 +1,160 @@
+package com.bds.services;
+
+import com.bds.dto.BloodUnits;
+import com.bds.dto.BloodUnitsImpl;
+import com.bds.dto.DispenseBloodUnitsRequest;
+import com.bds.dto.InventorySnapshot;
+import com.bds.events.InventoryChangedEvent;
+import com.bds.exception.DuplicateResourceException;
+import com.bds.exception.ErrorCode;
+import com.bds.models.BloodInventory;
+import com.bds.models.BloodType;
+import com.bds.models.InventoryEntryType;
+import com.bds.repositories.BloodInventoryRepository;
+import com.bds.validators.DtoValidator;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Timed(value = "bds.service", histogram = true)
+public class BloodInventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(BloodInventoryService.class);
+
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final DtoValidator validator;
+    private final InventoryCache inventoryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReplicaReads replicaReads;
+
+    public BloodInventoryService(BloodInventoryRepository bloodInventoryRepository,
+                                 DtoValidator validator,
+                                 InventoryCache inventoryCache,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ReplicaReads replicaReads) {
+        this.bloodInventoryRepository = bloodInventoryRepository;
+        this.validator = validator;
+        this.inventoryCache = inventoryCache;
+        this.eventPublisher = eventPublisher;
+        this.replicaReads = replicaReads;
+    }
+
+    public List<BloodUnits> getAvailableUnits() {
+        if (inventoryCache.isReady()) {
+            return inventoryCache.getAvailableUnits();
+        }
+        return replicaReads.inventory(bloodInventoryRepository::findAvailableUnits);
+    }
+
+    @Transactional
+    public BloodType recordDonation(Long donorId, Integer units) {
+        BloodType bloodType = bloodInventoryRepository.addDonorUnits(
+                donorId, units, InventoryEntryType.DONATION.name());
+        if (bloodType != null) {
+            eventPublisher.publishEvent(InventoryChangedEvent.of(bloodType, units));
+        }
+        return bloodType;
+    }
+
+    /**
+     * Takes the units of a rejected donation back out; fails when they have
+     * already been dispensed.
+     */
+    @Transactional
+    public BloodType recordRejection(Long donorId, Integer units) {
+        BloodType bloodType = bloodInventoryRepository.addDonorUnits(
+                donorId, -units, InventoryEntryType.REJECTION.name());
+        if (bloodType == null) {
+            throw new DuplicateResourceException(ErrorCode.INSUFFICIENT_UNITS);
+        }
+        eventPublisher.publishEvent(InventoryChangedEvent.of(bloodType, -units));
+        return bloodType;
+    }
+
+    @Transactional
+    public void recordDonations(Map<BloodType, Long> unitsByBloodType) {
+        Map<BloodType, Long> deltas = new EnumMap<>(BloodType.class);
+        unitsByBloodType.forEach((bloodType, units) -> {
+            if (units != 0 && bloodInventoryRepository.addUnits(
+                    bloodType.name(), units, InventoryEntryType.DONATION.name()) == 1) {
+                deltas.put(bloodType, units);
+            }
+        });
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(deltas));
+        }
+    }
+
+    /**
+     * Takes units out of the inventory for a hospital, or because they expired
+     * or were discarded. Concurrent requests for the same blood type are applied
+     * one after another and never take it below zero.
+     *
+     * @return the units of the blood type left afterwards
+     */
+    @Transactional
+    public BloodUnits dispense(DispenseBloodUnitsRequest dispenseBloodUnitsRequest) {
+        validator.validate(dispenseBloodUnitsRequest);
+        BloodType bloodType = BloodType.valueOf(dispenseBloodUnitsRequest.bloodType());
+        long units = dispenseBloodUnitsRequest.units();
+
+        Long remaining = bloodInventoryRepository.removeUnits(
+                bloodType.name(), units, dispenseBloodUnitsRequest.reason());
+        if (remaining == null) {
+            throw new DuplicateResourceException(ErrorCode.INSUFFICIENT_UNITS);
+        }
+        eventPublisher.publishEvent(InventoryChangedEvent.of(bloodType, -units));
+        return new BloodUnitsImpl(bloodType.name(), remaining.intValue());
+    }
+
+    /**
+     * Locks every inventory row, which also waits out every ledger entry still
+     * being written, then checks the running balance against the latest
+     * snapshot plus the ledger entries after it. The result becomes the next
+     * snapshot, so each run only reads the entries since the previous one.
+     */
+    @Scheduled(
+            initialDelayString = "${inventory.reconciliation.interval:PT10M}",
+            fixedDelayString = "${inventory.reconciliation.interval:PT10M}"
+    )
+    @Transactional
+    public int reconcile() {
+        List<BloodInventory> inventory = bloodInventoryRepository.findAllForUpdate();
+
+        InventorySnapshot snapshot = bloodInventoryRepository.findLatestSnapshot();
+        long lastLedgerId = bloodInventoryRepository.findLastLedgerId();
+        Map<BloodType, Long> expected = new EnumMap<>(BloodType.class);
+        expected.putAll(snapshot.units());
+        if (lastLedgerId > snapshot.ledgerId()) {
+            bloodInventoryRepository.sumLedger(snapshot.ledgerId(), lastLedgerId)
+                    .forEach((bloodType, units) -> expected.merge(bloodType, units, Long::sum));
+        }
+
+        Map<BloodType, Long> corrections = new EnumMap<>(BloodType.class);
+        for (BloodInventory row : inventory) {
+            Long actual = expected.getOrDefault(row.getBloodType(), 0L);
+            if (!actual.equals(row.getUnits())) {
+                log.warn("blood inventory drift for {}: stored {} units, ledger sums to {}",
+                        row.getBloodType(), row.getUnits(), actual);
+                corrections.put(row.getBloodType(), actual - row.getUnits());
+                row.setUnits(actual);
+            }
+        }
+        if (lastLedgerId > snapshot.ledgerId()) {
+            bloodInventoryRepository.saveSnapshot(new InventorySnapshot(lastLedgerId, expected));
+        }
+        if (!corrections.isEmpty()) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(corrections));
+        }
+        return corrections.size();
+    }
+}
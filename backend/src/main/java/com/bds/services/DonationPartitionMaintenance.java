@@ -0,0 +1,116 @@
+package com.bds.services;
+
+import com.bds.events.DonationHistoryChangedEvent;
+import com.bds.repositories.BloodDonationsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.SortedSet;
+
+/**
+ * Keeps the yearly {@code blood_donations} partitions in shape: the partitions
+ * of the current year and {@code donations.partitions.years-ahead} years after
+ * it always exist, so new donations never fall into the default partition.
+ * Donations dated further ahead that already landed there are moved into their
+ * year's partition when it is created.
+ * <p>
+ * With {@code donations.partitions.retention-years} set, whole years older than
+ * that are detached instead of deleted row by row. The blood inventory is kept
+ * by its own ledger, so detaching does not change it.
+ */
+@Service
+public class DonationPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationPartitionMaintenance.class);
+
+    private final BloodDonationsRepository bloodDonationsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int yearsAhead;
+    private final int retentionYears;
+    private final Clock clock;
+
+    public DonationPartitionMaintenance(BloodDonationsRepository bloodDonationsRepository,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${donations.partitions.years-ahead:2}") int yearsAhead,
+                                        @Value("${donations.partitions.retention-years:0}") int retentionYears) {
+        this(bloodDonationsRepository, eventPublisher, yearsAhead, retentionYears, Clock.systemDefaultZone());
+    }
+
+    DonationPartitionMaintenance(BloodDonationsRepository bloodDonationsRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 int yearsAhead,
+                                 int retentionYears,
+                                 Clock clock) {
+        if (yearsAhead < 1) {
+            throw new IllegalArgumentException("donations.partitions.years-ahead must be greater than 0");
+        }
+        if (retentionYears < 0) {
+            throw new IllegalArgumentException("donations.partitions.retention-years must not be negative");
+        }
+        this.bloodDonationsRepository = bloodDonationsRepository;
+        this.eventPublisher = eventPublisher;
+        this.yearsAhead = yearsAhead;
+        this.retentionYears = retentionYears;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates missing future partitions, then detaches expired ones; a failing
+     * year is logged and retried on the next run.
+     *
+     * @return the number of partitions created plus the number detached
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${donations.partitions.maintenance-cron:0 30 3 * * *}")
+    public int maintain() {
+        LocalDate today = LocalDate.now(clock);
+        SortedSet<Integer> years = bloodDonationsRepository.findPartitionYears();
+        int changed = 0;
+
+        for (int year = today.getYear(); year <= today.getYear() + yearsAhead; year++) {
+            if (!years.contains(year)) {
+                try {
+                    long moved = bloodDonationsRepository.createPartition(year);
+                    if (moved > 0) {
+                        log.warn("created blood_donations partition for {} and moved {} rows into it from the default partition",
+                                year, moved);
+                    } else {
+                        log.info("created blood_donations partition for {}", year);
+                    }
+                    changed++;
+                } catch (DataAccessException e) {
+                    log.error("could not create blood_donations partition for {}", year, e);
+                }
+            }
+        }
+
+        if (retentionYears > 0) {
+            // a year expires once its last day is older than the retention period
+            int lastExpiredYear = today.minusYears(retentionYears).getYear() - 1;
+            int detached = 0;
+            for (int year : years.headSet(lastExpiredYear + 1)) {
+                try {
+                    bloodDonationsRepository.detachPartition(year);
+                    log.info("detached blood_donations partition for {}", year);
+                    detached++;
+                } catch (DataAccessException e) {
+                    log.error("could not detach blood_donations partition for {}", year, e);
+                }
+            }
+            if (detached > 0) {
+                eventPublisher.publishEvent(DonationHistoryChangedEvent.allDonors());
+            }
+            changed += detached;
+        }
+        return changed;
+    }
+}
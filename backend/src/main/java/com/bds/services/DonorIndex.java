@@ -0,0 +1,235 @@
+package com.bds.services;
+
+import com.bds.models.BloodType;
+import com.bds.models.Users;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, column-oriented snapshot of every donor: one primitive array per
+ * attribute, ordered by donor id, so a full ranking pass touches a few bytes per
+ * donor instead of a Users object graph.
+ */
+final class DonorIndex {
+
+    static final DonorIndex EMPTY = new Builder().build();
+
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MIN_CHUNK_SIZE = 16 * 1024;
+
+    private static final BloodType[] BLOOD_TYPES = BloodType.values();
+    private static final int NEVER_DONATED_DAY = (int) Users.NEVER_DONATED.toEpochDay();
+
+    private final long[] ids;
+    private final byte[] bloodTypes;
+    private final int[] nextEligibleDays;
+    private final int[] donationCounts;
+    private final int size;
+    private final Instant builtAt;
+
+    private DonorIndex(long[] ids, byte[] bloodTypes, int[] nextEligibleDays, int[] donationCounts, int size) {
+        this.ids = ids;
+        this.bloodTypes = bloodTypes;
+        this.nextEligibleDays = nextEligibleDays;
+        this.donationCounts = donationCounts;
+        this.size = size;
+        this.builtAt = Instant.now();
+    }
+
+    int size() {
+        return size;
+    }
+
+    Instant builtAt() {
+        return builtAt;
+    }
+
+    long id(int position) {
+        return ids[position];
+    }
+
+    BloodType bloodType(int position) {
+        return BLOOD_TYPES[bloodTypes[position]];
+    }
+
+    /**
+     * Next eligible date of the donor, or {@code null} for a donor who never
+     * donated; ranking keeps working on the stored {@link Users#NEVER_DONATED}.
+     */
+    LocalDate nextEligibleDate(int position) {
+        int days = nextEligibleDays[position];
+        return days == NEVER_DONATED_DAY ? null : LocalDate.ofEpochDay(days);
+    }
+
+    int donationCount(int position) {
+        return donationCounts[position];
+    }
+
+    /**
+     * Score of a compatible donor who is eligible on the event date:
+     * <ul>
+     *     <li>60 for the requested blood type, 40 for another compatible type and
+     *     20 for O negative donors giving to anyone else, to keep universal donors
+     *     for patients who have no alternative</li>
+     *     <li>3 per earlier donation, up to 10 donations, favouring proven donors</li>
+     *     <li>up to 10 for how long the donor has already been eligible, up to 180
+     *     days, favouring donors who have not been asked recently</li>
+     * </ul>
+     */
+    static int score(BloodType donor, BloodType recipient, int donationCount, long eligibleForDays) {
+        int compatibility = donor == recipient ? 60 : donor == BloodType.ONeg ? 20 : 40;
+        int history = Math.min(donationCount, 10) * 3;
+        int rested = (int) (Math.min(eligibleForDays, 180) * 10 / 180);
+        return compatibility + history + rested;
+    }
+
+    /**
+     * Ranks eligible, compatible donors in parallel chunks, each keeping only its
+     * best {@code limit} candidates in a primitive heap, then merges the chunks.
+     */
+    Ranking rank(BloodType recipient, LocalDate on, int limit, ForkJoinPool pool) {
+        boolean[] compatible = new boolean[BLOOD_TYPES.length];
+        for (BloodType donor : BLOOD_TYPES) {
+            compatible[donor.ordinal()] = donor.canDonateTo(recipient);
+        }
+        int day = (int) on.toEpochDay();
+
+        int chunks = Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, size / MIN_CHUNK_SIZE));
+        int chunkSize = (size + chunks - 1) / Math.max(chunks, 1);
+
+        ChunkResult[] results = pool.submit(() -> IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> rankChunk(
+                        chunk * chunkSize, Math.min(size, (chunk + 1) * chunkSize),
+                        recipient, compatible, day, limit))
+                .toArray(ChunkResult[]::new)
+        ).join();
+
+        int candidates = 0;
+        int merged = 0;
+        for (ChunkResult result : results) {
+            candidates += result.candidates();
+            merged += result.heap().length;
+        }
+        long[] all = new long[merged];
+        int offset = 0;
+        for (ChunkResult result : results) {
+            System.arraycopy(result.heap(), 0, all, offset, result.heap().length);
+            offset += result.heap().length;
+        }
+        Arrays.sort(all);
+
+        int count = Math.min(limit, all.length);
+        int[] positions = new int[count];
+        int[] scores = new int[count];
+        for (int i = 0; i < count; i++) {
+            long packed = all[all.length - 1 - i];
+            scores[i] = (int) (packed >>> 32);
+            positions[i] = Integer.MAX_VALUE - (int) packed;
+        }
+        return new Ranking(positions, scores, candidates);
+    }
+
+    private ChunkResult rankChunk(int from, int to, BloodType recipient, boolean[] compatible, int day, int limit) {
+        long[] heap = new long[Math.max(limit, 1)];
+        int heapSize = 0;
+        int candidates = 0;
+        for (int i = from; i < to; i++) {
+            byte bloodType = bloodTypes[i];
+            if (!compatible[bloodType] || nextEligibleDays[i] > day) {
+                continue;
+            }
+            candidates++;
+            if (limit == 0) {
+                continue;
+            }
+            int score = score(BLOOD_TYPES[bloodType], recipient, donationCounts[i], day - (long) nextEligibleDays[i]);
+            // higher score first, then lower position (lower donor id) on ties
+            long packed = ((long) score << 32) | (Integer.MAX_VALUE - i);
+            if (heapSize < limit) {
+                heap[heapSize] = packed;
+                siftUp(heap, heapSize++);
+            } else if (packed > heap[0]) {
+                heap[0] = packed;
+                siftDown(heap, heapSize);
+            }
+        }
+        return new ChunkResult(Arrays.copyOf(heap, heapSize), candidates);
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long value = heap[0];
+        int index = 0;
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (value <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    record Ranking(int[] positions, int[] scores, int candidates) {
+    }
+
+    private record ChunkResult(long[] heap, int candidates) {
+    }
+
+    static final class Builder {
+
+        private long[] ids = new long[1024];
+        private byte[] bloodTypes = new byte[1024];
+        private int[] nextEligibleDays = new int[1024];
+        private int[] donationCounts = new int[1024];
+        private int size;
+
+        Builder add(long id, BloodType bloodType, LocalDate nextEligibleDate, int donationCount) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                bloodTypes = Arrays.copyOf(bloodTypes, capacity);
+                nextEligibleDays = Arrays.copyOf(nextEligibleDays, capacity);
+                donationCounts = Arrays.copyOf(donationCounts, capacity);
+            }
+            ids[size] = id;
+            bloodTypes[size] = (byte) bloodType.ordinal();
+            nextEligibleDays[size] = (int) nextEligibleDate.toEpochDay();
+            donationCounts[size] = donationCount;
+            size++;
+            return this;
+        }
+
+        DonorIndex build() {
+            return new DonorIndex(
+                    Arrays.copyOf(ids, size),
+                    Arrays.copyOf(bloodTypes, size),
+                    Arrays.copyOf(nextEligibleDays, size),
+                    Arrays.copyOf(donationCounts, size),
+                    size
+            );
+        }
+    }
+}
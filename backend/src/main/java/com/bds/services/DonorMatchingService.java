@@ -0,0 +1,164 @@
+package com.bds.services;
+
+import com.bds.dto.DonorMatch;
+import com.bds.dto.DonorMatchesPage;
+import com.bds.exception.ErrorCode;
+import com.bds.exception.RequestValidationException;
+import com.bds.exception.ResourceNotFoundException;
+import com.bds.models.BloodDonationEvent;
+import com.bds.models.Users;
+import com.bds.repositories.BloodDonationEventRepository;
+import com.bds.repositories.UsersRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks donors for a blood donation event from an in-memory {@link DonorIndex}
+ * that is rebuilt periodically from {@code users} alone, so matches may lag new
+ * donors and donations by up to {@code matching.index.refresh-interval}.
+ */
+@Service
+@Timed(value = "bds.service", histogram = true)
+public class DonorMatchingService {
+
+    private static final Logger log = LoggerFactory.getLogger(DonorMatchingService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_WINDOW = 10_000;
+
+    private final BloodDonationEventRepository bloodDonationEventRepository;
+    private final UsersRepository usersRepository;
+    private final ForkJoinPool pool;
+    private volatile DonorIndex index = DonorIndex.EMPTY;
+
+    public DonorMatchingService(BloodDonationEventRepository bloodDonationEventRepository,
+                                UsersRepository usersRepository,
+                                @Value("${matching.parallelism:0}") int parallelism) {
+        this(bloodDonationEventRepository,
+                usersRepository,
+                new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors()));
+    }
+
+    DonorMatchingService(BloodDonationEventRepository bloodDonationEventRepository,
+                         UsersRepository usersRepository,
+                         ForkJoinPool pool) {
+        this.bloodDonationEventRepository = bloodDonationEventRepository;
+        this.usersRepository = usersRepository;
+        this.pool = pool;
+    }
+
+    /**
+     * Builds the first index off the startup thread; until it is done there
+     * are no matches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        pool.execute(() -> {
+            try {
+                refreshIndex();
+            } catch (RuntimeException e) {
+                log.error("donor matching index could not be built", e);
+            }
+        });
+    }
+
+    @Scheduled(
+            initialDelayString = "${matching.index.refresh-interval:PT5M}",
+            fixedDelayString = "${matching.index.refresh-interval:PT5M}"
+    )
+    public void refreshIndex() {
+        long started = System.nanoTime();
+        DonorIndex.Builder builder = new DonorIndex.Builder();
+        usersRepository.forEachDonorProfile(builder::add);
+        index = builder.build();
+        log.info("donor matching index rebuilt with {} donors in {} ms",
+                index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public DonorMatchesPage getMatches(Long eventId, Integer page, Integer size) {
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageNumber < 0) {
+            throw new RequestValidationException(ErrorCode.INVALID_PAGE);
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new RequestValidationException(ErrorCode.INVALID_PAGE_SIZE, MAX_PAGE_SIZE);
+        }
+        long window = (long) (pageNumber + 1) * pageSize;
+        if (window > MAX_WINDOW) {
+            throw new RequestValidationException(ErrorCode.MATCH_WINDOW_EXCEEDED, MAX_WINDOW);
+        }
+
+        BloodDonationEvent event = bloodDonationEventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.DONATION_EVENT_NOT_FOUND));
+
+        DonorIndex snapshot = index;
+        DonorIndex.Ranking ranking = snapshot.rank(event.getBlood_type(), event.getEventDate(), (int) window, pool);
+
+        int from = Math.min(pageNumber * pageSize, ranking.positions().length);
+        int[] positions = Arrays.copyOfRange(ranking.positions(), from, ranking.positions().length);
+        int[] scores = Arrays.copyOfRange(ranking.scores(), from, ranking.scores().length);
+
+        List<Long> ids = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            ids.add(snapshot.id(position));
+        }
+        Map<Long, Users> donors = usersRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Users::getId, Function.identity()));
+
+        List<DonorMatch> matches = new ArrayList<>(positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            Users donor = donors.get(ids.get(i));
+            if (donor == null) {
+                // deleted since the index was built
+                continue;
+            }
+            int position = positions[i];
+            matches.add(new DonorMatch(
+                    donor.getId(),
+                    donor.getFirstName(),
+                    donor.getLastName(),
+                    donor.getEmail(),
+                    snapshot.bloodType(position),
+                    scores[i],
+                    snapshot.bloodType(position) == event.getBlood_type(),
+                    snapshot.nextEligibleDate(position),
+                    snapshot.donationCount(position)
+            ));
+        }
+
+        return new DonorMatchesPage(
+                event.getId(),
+                event.getBlood_type(),
+                event.getEventDate(),
+                event.getUnits(),
+                ranking.candidates(),
+                pageNumber,
+                pageSize,
+                matches
+        );
+    }
+
+    DonorIndex index() {
+        return index;
+    }
+
+    void setIndex(DonorIndex index) {
+        this.index = index;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bds.services;
+
+import com.bds.dto.ImportFormat;
+import com.bds.dto.ImportJobPhase;
+import com.bds.dto.ImportJobStatus;
+import com.bds.dto.ImportKind;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a single import, updated by the worker thread and read by the
+ * progress endpoint.
+ */
+class ImportJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final ImportKind kind;
+    private final ImportFormat format;
+    private final Instant startedAt = Instant.now();
+
+    final AtomicLong rowsRead = new AtomicLong();
+    final AtomicLong rowsMerged = new AtomicLong();
+    final AtomicLong rowsRejected = new AtomicLong();
+
+    private volatile ImportJobPhase phase = ImportJobPhase.QUEUED;
+    private volatile long copyStartedNanos;
+    private volatile long copyFinishedNanos;
+    private volatile long mergeStartedNanos;
+    private volatile long mergeFinishedNanos;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    ImportJob(ImportKind kind, ImportFormat format) {
+        this.kind = kind;
+        this.format = format;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    ImportKind getKind() {
+        return kind;
+    }
+
+    ImportFormat getFormat() {
+        return format;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void copying() {
+        copyStartedNanos = System.nanoTime();
+        phase = ImportJobPhase.COPYING;
+    }
+
+    void merging() {
+        long now = System.nanoTime();
+        copyFinishedNanos = now;
+        mergeStartedNanos = now;
+        phase = ImportJobPhase.MERGING;
+    }
+
+    void completed() {
+        mergeFinishedNanos = System.nanoTime();
+        finishedAt = Instant.now();
+        phase = ImportJobPhase.COMPLETED;
+    }
+
+    void failed(String error) {
+        long now = System.nanoTime();
+        if (copyStartedNanos != 0 && copyFinishedNanos == 0) {
+            copyFinishedNanos = now;
+        }
+        if (mergeStartedNanos != 0 && mergeFinishedNanos == 0) {
+            mergeFinishedNanos = now;
+        }
+        this.error = error;
+        finishedAt = Instant.now();
+        phase = ImportJobPhase.FAILED;
+    }
+
+    ImportJobStatus status() {
+        long merged = rowsMerged.get();
+        long rejected = rowsRejected.get();
+        return new ImportJobStatus(
+                id,
+                kind,
+                format,
+                phase,
+                rowsRead.get(),
+                merged,
+                rejected,
+                rowsPerSecond(rowsRead.get(), copyStartedNanos, copyFinishedNanos),
+                rowsPerSecond(merged + rejected, mergeStartedNanos, mergeFinishedNanos),
+                startedAt,
+                finishedAt,
+                error
+        );
+    }
+
+    private static double rowsPerSecond(long rows, long startedNanos, long finishedNanos) {
+        if (startedNanos == 0) {
+            return 0;
+        }
+        long elapsed = (finishedNanos == 0 ? System.nanoTime() : finishedNanos) - startedNanos;
+        return elapsed <= 0 ? 0 : rows * 1_000_000_000d / elapsed;
+    }
+}
@@ -0,0 +1,420 @@
+package com.bds.services;
+
+import com.bds.dto.ImportFormat;
+import com.bds.dto.ImportJobStatus;
+import com.bds.dto.ImportKind;
+import com.bds.dto.ImportReject;
+import com.bds.dto.UsersRegistrationRequest;
+import com.bds.events.DonationHistoryChangedEvent;
+import com.bds.exception.ErrorCode;
+import com.bds.exception.RequestValidationException;
+import com.bds.exception.ResourceNotFoundException;
+import com.bds.models.BloodType;
+import com.bds.validators.DtoValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads historical users and blood donations. Each job streams its source through
+ * {@code COPY} into an unlogged staging table of its own, then merges the staging
+ * rows into the live tables in line-number chunks, one transaction per chunk, so
+ * neither the application nor a single transaction ever holds the whole file.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String USERS_MERGE = """
+            WITH chunk AS (
+                SELECT * FROM %s WHERE line_no BETWEEN ? AND ?
+            ), chosen AS (
+                SELECT DISTINCT ON (email) line_no, first_name, last_name, email, role, blood_type
+                FROM chunk
+                WHERE reject_reason IS NULL
+                ORDER BY email, line_no
+            ), inserted AS (
+                INSERT INTO users (first_name, last_name, email, role, blood_type)
+                SELECT first_name, last_name, email, role, blood_type FROM chosen
+                ON CONFLICT ON CONSTRAINT users_email_unique DO NOTHING
+                RETURNING email
+            ), merged AS (
+                SELECT ch.line_no FROM inserted i JOIN chosen ch ON ch.email = i.email
+            ), rejected AS (
+                INSERT INTO import_reject (job_id, line_no, reason, line)
+                SELECT ?, c.line_no, COALESCE(c.reject_reason, 'email already exists'), c.line
+                FROM chunk c
+                WHERE NOT EXISTS (SELECT 1 FROM merged m WHERE m.line_no = c.line_no)
+                RETURNING 1
+            )
+            SELECT (SELECT count(*) FROM merged) AS merged, (SELECT count(*) FROM rejected) AS rejected
+            """;
+
+    private static final String BLOOD_DONATIONS_MERGE = """
+            WITH chunk AS (
+                SELECT * FROM %s WHERE line_no BETWEEN ? AND ?
+            ), resolved AS (
+                SELECT c.line_no, d.id AS donor_id, d.blood_type, a.id AS admin_id, c.units, c.donation_date
+                FROM chunk c
+                JOIN users d ON d.email = c.donor_email
+                LEFT JOIN users a ON a.email = c.admin_email
+                WHERE c.reject_reason IS NULL
+                  AND (c.admin_email IS NULL OR a.id IS NOT NULL)
+            ), chosen AS (
+                SELECT DISTINCT ON (donor_id, donation_date) *
+                FROM resolved
+                ORDER BY donor_id, donation_date, line_no
+            ), inserted AS (
+                INSERT INTO blood_donations (donor_id, admin_id, units, donation_date, status)
+                SELECT donor_id, admin_id, units, donation_date,
+                       CASE WHEN admin_id IS NULL THEN 'INITIATED' ELSE 'CONFIRMED' END
+                FROM chosen
+                ON CONFLICT (donor_id, donation_date) DO NOTHING
+                RETURNING donor_id, admin_id, donation_date
+            ), merged AS (
+                SELECT ch.line_no, ch.blood_type, ch.units
+                FROM inserted i
+                JOIN chosen ch ON ch.donor_id = i.donor_id AND ch.donation_date = i.donation_date
+            ), eligibility AS (
+                UPDATE users u
+                SET last_donation_date = GREATEST(u.last_donation_date, x.last_donation_date),
+                    next_eligible_date = GREATEST(u.next_eligible_date,
+                                                  CAST(x.last_donation_date + CAST(? AS INTERVAL) AS DATE)),
+                    donation_count = u.donation_count + x.confirmed
+                FROM (
+                    -- rows with an admin are inserted confirmed
+                    SELECT donor_id, MAX(donation_date) AS last_donation_date, count(admin_id) AS confirmed
+                    FROM inserted
+                    GROUP BY donor_id
+                ) x
+                WHERE u.id = x.donor_id
+            ), rejected AS (
+                INSERT INTO import_reject (job_id, line_no, reason, line)
+                SELECT ?, c.line_no,
+                       CASE
+                           WHEN c.reject_reason IS NOT NULL THEN c.reject_reason
+                           WHEN r.line_no IS NULL THEN 'donor or admin does not exist'
+                           ELSE 'donor or donation date already exists'
+                       END,
+                       c.line
+                FROM chunk c
+                LEFT JOIN resolved r ON r.line_no = c.line_no
+                WHERE NOT EXISTS (SELECT 1 FROM merged m WHERE m.line_no = c.line_no)
+                RETURNING 1
+            )
+            SELECT NULL AS blood_type, 0 AS donations, 0 AS units, (SELECT count(*) FROM rejected) AS rejected
+            UNION ALL
+            SELECT blood_type, count(*), sum(units), 0 FROM merged GROUP BY blood_type
+            """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BloodInventoryService bloodInventoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DtoValidator validator;
+    private final ObjectMapper objectMapper;
+    private final Path localDirectory;
+    private final int mergeChunkRows;
+    private final Duration jobRetention;
+    private final Period deferralInterval;
+    private final ExecutorService executor;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ImportService(DataSource dataSource,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         BloodInventoryService bloodInventoryService,
+                         ApplicationEventPublisher eventPublisher,
+                         DtoValidator validator,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${imports.local-directory:}") String localDirectory,
+                         @Value("${imports.merge-chunk-rows:500000}") int mergeChunkRows,
+                         @Value("${imports.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                         @Value("${imports.job-retention:PT24H}") Duration jobRetention,
+                         @Value("${donations.deferral-interval:P56D}") Period deferralInterval) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bloodInventoryService = bloodInventoryService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.localDirectory = localDirectory.isBlank()
+                ? null
+                : Path.of(localDirectory).toAbsolutePath().normalize();
+        this.mergeChunkRows = mergeChunkRows;
+        this.jobRetention = jobRetention;
+        this.deferralInterval = deferralInterval;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs, runnable -> {
+            Thread thread = new Thread(runnable, "bds-import-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ImportJobStatus importUpload(ImportKind kind, ImportFormat format, InputStream body) {
+        Path copy;
+        try {
+            copy = Files.createTempFile("bds-import-", ".tmp");
+        } catch (IOException e) {
+            throw new IllegalStateException("could not store uploaded import file", e);
+        }
+        long size;
+        try {
+            size = Files.copy(body, copy, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(copy);
+            throw new IllegalStateException("could not store uploaded import file", e);
+        }
+        if (size == 0) {
+            deleteQuietly(copy);
+            throw new RequestValidationException(ErrorCode.IMPORT_FILE_EMPTY);
+        }
+        return submit(kind, format, copy, true);
+    }
+
+    public ImportJobStatus importLocalFile(ImportKind kind, ImportFormat format, String path) {
+        if (localDirectory == null) {
+            throw new RequestValidationException(ErrorCode.LOCAL_IMPORTS_DISABLED);
+        }
+        Path file = localDirectory.resolve(path).toAbsolutePath().normalize();
+        if (!file.startsWith(localDirectory)) {
+            throw new RequestValidationException(ErrorCode.IMPORT_FILE_OUTSIDE_DIRECTORY);
+        }
+        // symlinks inside the directory may point anywhere, so check where they really lead
+        Path realFile;
+        try {
+            realFile = file.toRealPath();
+            if (!realFile.startsWith(localDirectory.toRealPath())) {
+                throw new RequestValidationException(ErrorCode.IMPORT_FILE_OUTSIDE_DIRECTORY);
+            }
+        } catch (IOException e) {
+            throw new ResourceNotFoundException(ErrorCode.IMPORT_FILE_NOT_FOUND);
+        }
+        if (!Files.isRegularFile(realFile) || !Files.isReadable(realFile)) {
+            throw new ResourceNotFoundException(ErrorCode.IMPORT_FILE_NOT_FOUND);
+        }
+        return submit(kind, format, realFile, false);
+    }
+
+    public ImportJobStatus getImport(UUID jobId) {
+        return findJob(jobId).status();
+    }
+
+    public List<ImportReject> getRejects(UUID jobId, long afterLineNo, int limit) {
+        findJob(jobId);
+        return jdbcTemplate.query(
+                "SELECT line_no, reason, line FROM import_reject " +
+                        "WHERE job_id = ? AND line_no > ? ORDER BY line_no LIMIT ?",
+                (rs, rowNum) -> new ImportReject(rs.getLong("line_no"), rs.getString("reason"), rs.getString("line")),
+                jobId, afterLineNo, Math.max(1, Math.min(limit, 1000))
+        );
+    }
+
+    private ImportJob findJob(UUID jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException(ErrorCode.IMPORT_JOB_NOT_FOUND);
+        }
+        return job;
+    }
+
+    private ImportJobStatus submit(ImportKind kind, ImportFormat format, Path file, boolean deleteAfterwards) {
+        Instant expired = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(expired));
+
+        ImportJob job = new ImportJob(kind, format);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, file, deleteAfterwards));
+        return job.status();
+    }
+
+    void run(ImportJob job, Path file, boolean deleteAfterwards) {
+        String stagingTable = "import_staging_" + job.getId().toString().replace("-", "");
+        try {
+            jdbcTemplate.execute("CREATE UNLOGGED TABLE " + stagingTable + " (line_no BIGINT NOT NULL, "
+                    + job.getKind().getColumnDefinitions() + ", reject_reason TEXT, line TEXT)");
+
+            job.copying();
+            long lastLineNo = copy(job, file, stagingTable);
+            counter(job, "copied").increment(job.rowsRead.get());
+
+            // lines arrive in order, so a BRIN index is enough for the range scans of the merge
+            jdbcTemplate.execute("CREATE INDEX ON " + stagingTable + " USING brin (line_no)");
+            jdbcTemplate.execute("ANALYZE " + stagingTable);
+
+            job.merging();
+            for (long from = 1; from <= lastLineNo; from += mergeChunkRows) {
+                long to = Math.min(lastLineNo, from + mergeChunkRows - 1);
+                long fromLineNo = from;
+                transactionTemplate.executeWithoutResult(status -> merge(job, stagingTable, fromLineNo, to));
+            }
+            job.completed();
+            log.info("import {} of {} completed: {} rows read, {} merged, {} rejected",
+                    job.getId(), job.getKind(), job.rowsRead.get(), job.rowsMerged.get(), job.rowsRejected.get());
+        } catch (Exception e) {
+            log.error("import {} of {} failed", job.getId(), job.getKind(), e);
+            job.failed(e.getMessage());
+        } finally {
+            try {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + stagingTable);
+            } catch (Exception e) {
+                log.warn("could not drop staging table {}", stagingTable, e);
+            }
+            if (deleteAfterwards) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("could not delete uploaded import file {}", file, e);
+        }
+    }
+
+    private long copy(ImportJob job, Path file, String stagingTable) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             BufferedReader source = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             StagingRowReader rows = new StagingRowReader(
+                     source,
+                     job.getFormat(),
+                     job.getKind(),
+                     rowValidator(job.getKind()),
+                     objectMapper,
+                     job.rowsRead)) {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyManager.copyIn("COPY " + stagingTable + " FROM STDIN", rows, COPY_BUFFER_SIZE);
+            return rows.lastLineNo();
+        }
+    }
+
+    private void merge(ImportJob job, String stagingTable, long fromLineNo, long toLineNo) {
+        if (job.getKind() == ImportKind.USERS) {
+            jdbcTemplate.query(USERS_MERGE.formatted(stagingTable), rs -> {
+                rs.next();
+                merged(job, rs.getLong("merged"), rs.getLong("rejected"));
+                return null;
+            }, fromLineNo, toLineNo, job.getId());
+            return;
+        }
+
+        Map<BloodType, Long> unitsByBloodType = new EnumMap<>(BloodType.class);
+        long[] counts = new long[2];
+        jdbcTemplate.query(BLOOD_DONATIONS_MERGE.formatted(stagingTable), rs -> {
+            String bloodType = rs.getString("blood_type");
+            if (bloodType == null) {
+                counts[1] += rs.getLong("rejected");
+            } else {
+                counts[0] += rs.getLong("donations");
+                unitsByBloodType.put(BloodType.valueOf(bloodType), rs.getLong("units"));
+            }
+        }, fromLineNo, toLineNo, deferralInterval.toString(), job.getId());
+
+        bloodInventoryService.recordDonations(unitsByBloodType);
+        if (counts[0] > 0) {
+            eventPublisher.publishEvent(DonationHistoryChangedEvent.allDonors());
+        }
+        merged(job, counts[0], counts[1]);
+    }
+
+    private void merged(ImportJob job, long merged, long rejected) {
+        job.rowsMerged.addAndGet(merged);
+        job.rowsRejected.addAndGet(rejected);
+        counter(job, "merged").increment(merged);
+        counter(job, "rejected").increment(rejected);
+    }
+
+    private Counter counter(ImportJob job, String outcome) {
+        return Counter.builder("bds.import.rows")
+                .description("Rows processed by historical imports")
+                .tag("kind", job.getKind().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private StagingRowReader.RowValidator rowValidator(ImportKind kind) {
+        if (kind == ImportKind.USERS) {
+            return this::rejectUser;
+        }
+        return ImportService::rejectBloodDonation;
+    }
+
+    private String rejectUser(String[] values) {
+        if (values[2] == null) {
+            return "Invalid email: Empty email";
+        }
+        return validator.firstViolationInFieldOrder(
+                new UsersRegistrationRequest(values[0], values[1], values[2], values[3], values[4])
+        );
+    }
+
+    private static String rejectBloodDonation(String[] values) {
+        if (values[0] == null) {
+            return "Invalid donor: Empty donor email";
+        }
+        try {
+            if (values[2] == null || Integer.parseInt(values[2]) < 1) {
+                return "invalid units amount: Must be greater than 0";
+            }
+        } catch (NumberFormatException e) {
+            return "invalid units amount: Must be greater than 0";
+        }
+        try {
+            // historical donations are in the past, so unlike BloodDonationRequest only the format is checked
+            values[3] = LocalDate.parse(values[3] == null ? "" : values[3]).toString();
+        } catch (DateTimeParseException e) {
+            return "Invalid date: Enter a date in format \"YYYY-MM-DD\"";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,187 @@
+package com.bds.services;
+
+import com.bds.dto.BloodUnits;
+import com.bds.dto.BloodUnitsImpl;
+import com.bds.events.InventoryChangedEvent;
+import com.bds.models.BloodType;
+import com.bds.repositories.BloodInventoryRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class InventoryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryCache.class);
+
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final boolean enabled;
+    private final EnumMap<BloodType, LongAdder> units = new EnumMap<>(BloodType.class);
+    private final AtomicLong appliedChanges = new AtomicLong();
+    // changes published by a transaction that has not completed, or completed
+    // and is still being applied
+    private final AtomicLong pendingChanges = new AtomicLong();
+    // held shared while changes are applied, exclusively while the cache is
+    // compared with the database and repaired
+    private final ReadWriteLock applyLock = new ReentrantReadWriteLock();
+    private final LongAdder drift = new LongAdder();
+    private volatile boolean ready;
+
+    public InventoryCache(BloodInventoryRepository bloodInventoryRepository,
+                          @Value("${inventory.cache.enabled:true}") boolean enabled,
+                          MeterRegistry meterRegistry) {
+        this.bloodInventoryRepository = bloodInventoryRepository;
+        this.enabled = enabled;
+        for (BloodType bloodType : BloodType.values()) {
+            units.put(bloodType, new LongAdder());
+        }
+        FunctionCounter.builder("bds.inventory.cache.drift", drift, LongAdder::sum)
+                .description("Blood types whose in-memory units differed from the database")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long driftDetected() {
+        return drift.sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!enabled) {
+            return;
+        }
+        if (syncWithDatabase() == null) {
+            log.warn("inventory cache not warmed: inventory kept changing while loading");
+            return;
+        }
+        ready = true;
+    }
+
+    /**
+     * Applies a change once the transaction that published it commits. The
+     * change counts as pending from the moment it is published, so a database
+     * read that may already see the commit is not trusted until it is applied.
+     */
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        pendingChanges.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply(event);
+                    }
+                } finally {
+                    pendingChanges.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    public long getUnits(BloodType bloodType) {
+        return units.get(bloodType).sum();
+    }
+
+    public List<BloodUnits> getAvailableUnits() {
+        List<BloodUnits> availableUnits = new ArrayList<>(units.size());
+        units.forEach((bloodType, adder) ->
+                availableUnits.add(new BloodUnitsImpl(bloodType.name(), Math.toIntExact(adder.sum()))));
+        return availableUnits;
+    }
+
+    @Scheduled(
+            initialDelayString = "${inventory.cache.verification-interval:PT1M}",
+            fixedDelayString = "${inventory.cache.verification-interval:PT1M}"
+    )
+    public int verify() {
+        if (!ready) {
+            warm();
+            return 0;
+        }
+        Map<BloodType, Long> corrections = syncWithDatabase();
+        if (corrections == null) {
+            return 0;
+        }
+        corrections.forEach((bloodType, correction) ->
+                log.warn("inventory cache drift for {}: cached units were off by {}", bloodType, -correction));
+        drift.add(corrections.size());
+        return corrections.size();
+    }
+
+    private void apply(InventoryChangedEvent event) {
+        applyLock.readLock().lock();
+        try {
+            event.deltas().forEach((bloodType, delta) -> units.get(bloodType).add(delta));
+            appliedChanges.incrementAndGet();
+        } finally {
+            applyLock.readLock().unlock();
+        }
+    }
+
+    // Only trusts a database read if no change was pending once it finished and
+    // none was applied between the read and the repair; otherwise an in-flight
+    // write would be reported as drift, or applied twice.
+    private Map<BloodType, Long> syncWithDatabase() {
+        long applied = appliedChanges.get();
+        Map<BloodType, Long> stored = new EnumMap<>(BloodType.class);
+        for (BloodType bloodType : BloodType.values()) {
+            stored.put(bloodType, 0L);
+        }
+        for (BloodUnits bloodUnits : bloodInventoryRepository.findAvailableUnits()) {
+            stored.put(bloodUnits.getBloodType(), bloodUnits.getTotalUnits().longValue());
+        }
+        if (pendingChanges.get() > 0) {
+            return null;
+        }
+
+        applyLock.writeLock().lock();
+        try {
+            if (appliedChanges.get() != applied) {
+                return null;
+            }
+            Map<BloodType, Long> corrections = new EnumMap<>(BloodType.class);
+            stored.forEach((bloodType, value) -> {
+                LongAdder adder = units.get(bloodType);
+                long correction = value - adder.sum();
+                if (correction != 0) {
+                    adder.add(correction);
+                    corrections.put(bloodType, correction);
+                }
+            });
+            return corrections;
+        } finally {
+            applyLock.writeLock().unlock();
+        }
+    }
+}
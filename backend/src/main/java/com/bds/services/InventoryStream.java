@@ -0,0 +1,372 @@
+package com.bds.services;
+
+import com.bds.dto.BloodUnits;
+import com.bds.dto.InventoryDelta;
+import com.bds.events.InventoryChangedEvent;
+import com.bds.models.BloodType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Pushes committed inventory changes to Server-Sent Events subscribers.
+ * <p>
+ * Every change is serialised once and handed to a small pool of sender
+ * threads, which write to at most one subscriber connection at a time each.
+ * A subscriber that cannot keep up does not queue events: changes that
+ * arrive while a write to it is still pending are merged per blood type and
+ * sent as one event. Every event carries the resulting units, so merged or
+ * repeated events leave clients with the same totals.
+ * <p>
+ * Changes are numbered before their units are read, and a snapshot carries the
+ * number of the last change it was read after, so both include every change
+ * up to their number. A subscriber never gets units for a blood type that are
+ * older than what it was already sent, whatever order events were read and
+ * offered in. A write that blocks longer than {@code inventory.stream.send-timeout}
+ * gets its subscriber evicted at the next heartbeat, and its sender thread is
+ * replaced until the write returns, so a stalled client cannot hold up others.
+ * <p>
+ * New subscribers get a {@code snapshot} event with all units, then
+ * {@code delta} events. The snapshot is repeated every heartbeat interval, which keeps idle
+ * connections open and repairs clients after changes that raise no event.
+ */
+@Component
+public class InventoryStream {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryStream.class);
+
+    private static final String SNAPSHOT = "snapshot";
+    private static final String DELTA = "delta";
+
+    private final BloodInventoryService bloodInventoryService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final LongSupplier nanoTime;
+    private final ThreadPoolExecutor executor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong changes = new AtomicLong();
+    private final Counter coalesced;
+    private final Counter evicted;
+
+    public InventoryStream(BloodInventoryService bloodInventoryService,
+                           ObjectMapper objectMapper,
+                           @Value("${inventory.stream.timeout:PT30M}") Duration timeout,
+                           @Value("${inventory.stream.send-threads:4}") int sendThreads,
+                           @Value("${inventory.stream.send-timeout:PT10S}") Duration sendTimeout,
+                           MeterRegistry meterRegistry) {
+        this(bloodInventoryService, objectMapper, timeout, sendThreads, sendTimeout, meterRegistry, System::nanoTime);
+    }
+
+    InventoryStream(BloodInventoryService bloodInventoryService,
+                    ObjectMapper objectMapper,
+                    Duration timeout,
+                    int sendThreads,
+                    Duration sendTimeout,
+                    MeterRegistry meterRegistry,
+                    LongSupplier nanoTime) {
+        this.bloodInventoryService = bloodInventoryService;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.nanoTime = nanoTime;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(sendThreads, sendThreads, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "bds-inventory-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("bds.inventory.stream.subscribers", subscribers, Set::size)
+                .description("Open inventory change streams")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("bds.inventory.stream.coalesced")
+                .description("Inventory changes merged into a later event for a slow subscriber")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("bds.inventory.stream.evicted")
+                .description("Subscribers dropped because a write to them stalled")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.offerSnapshot(snapshot());
+        return emitter;
+    }
+
+    // after InventoryCache has applied the change, so the units sent include it
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (subscribers.isEmpty() || event.deltas().isEmpty()) {
+            return;
+        }
+        long version = changes.incrementAndGet();
+        Map<BloodType, Long> units = availableUnits();
+        Map<BloodType, InventoryDelta> deltas = new EnumMap<>(BloodType.class);
+        event.deltas().forEach((bloodType, delta) ->
+                deltas.put(bloodType, new InventoryDelta(bloodType, delta, units.getOrDefault(bloodType, 0L))));
+        String json = serialize(deltas.values());
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerDeltas(version, deltas, json);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${inventory.stream.heartbeat-interval:PT15S}",
+            fixedDelayString = "${inventory.stream.heartbeat-interval:PT15S}"
+    )
+    public void heartbeat() {
+        evictStalled();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Snapshot snapshot = snapshot();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerSnapshot(snapshot);
+        }
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    private void evictStalled() {
+        long now = nanoTime.getAsLong();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.evictIfStalled(now)) {
+                subscribers.remove(subscriber);
+                evicted.increment();
+                log.debug("evicting stalled inventory stream subscriber");
+            }
+        }
+    }
+
+    private synchronized void resizeExecutor(int by) {
+        if (by > 0) {
+            executor.setMaximumPoolSize(executor.getMaximumPoolSize() + by);
+            executor.setCorePoolSize(executor.getCorePoolSize() + by);
+        } else {
+            executor.setCorePoolSize(executor.getCorePoolSize() + by);
+            executor.setMaximumPoolSize(executor.getMaximumPoolSize() + by);
+        }
+    }
+
+    private Snapshot snapshot() {
+        long version = changes.get();
+        Map<BloodType, Long> units = availableUnits();
+        List<InventoryDelta> snapshot = new ArrayList<>(units.size());
+        units.forEach((bloodType, total) -> snapshot.add(new InventoryDelta(bloodType, 0, total)));
+        return new Snapshot(version, serialize(snapshot));
+    }
+
+    private Map<BloodType, Long> availableUnits() {
+        Map<BloodType, Long> units = new EnumMap<>(BloodType.class);
+        for (BloodType bloodType : BloodType.values()) {
+            units.put(bloodType, 0L);
+        }
+        for (BloodUnits bloodUnits : bloodInventoryService.getAvailableUnits()) {
+            units.put(bloodUnits.getBloodType(), bloodUnits.getTotalUnits().longValue());
+        }
+        return units;
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("could not serialise inventory event", e);
+        }
+    }
+
+    private record Snapshot(long version, String json) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Map<BloodType, InventoryDelta> pendingDeltas = new EnumMap<>(BloodType.class);
+        private final Map<BloodType, Long> pendingVersions = new EnumMap<>(BloodType.class);
+        // the shared serialisation of the pending deltas, while they came from a single change
+        private String pendingDeltasJson;
+        private Snapshot pendingSnapshot;
+        private boolean scheduled;
+        // the newest change each blood type was sent with, only used by the draining thread
+        private final Map<BloodType, Long> sentVersions = new EnumMap<>(BloodType.class);
+        private boolean sending;
+        private long sendStarted;
+        private boolean evicted;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offerSnapshot(Snapshot snapshot) {
+            if (pendingSnapshot == null || snapshot.version() >= pendingSnapshot.version()) {
+                pendingSnapshot = snapshot;
+            }
+            schedule();
+        }
+
+        synchronized void offerDeltas(long version, Map<BloodType, InventoryDelta> deltas, String json) {
+            if (pendingDeltas.isEmpty()) {
+                pendingDeltas.putAll(deltas);
+                deltas.keySet().forEach(bloodType -> pendingVersions.put(bloodType, version));
+                pendingDeltasJson = json;
+            } else {
+                coalesced.increment();
+                deltas.forEach((bloodType, next) -> {
+                    InventoryDelta pending = pendingDeltas.get(bloodType);
+                    long pendingVersion = pendingVersions.getOrDefault(bloodType, Long.MIN_VALUE);
+                    pendingDeltas.put(bloodType, pending == null ? next : new InventoryDelta(bloodType,
+                            pending.delta() + next.delta(),
+                            version > pendingVersion ? next.units() : pending.units()));
+                    pendingVersions.put(bloodType, Math.max(version, pendingVersion));
+                });
+                pendingDeltasJson = null;
+            }
+            schedule();
+        }
+
+        synchronized boolean evictIfStalled(long now) {
+            if (!sending || evicted || now - sendStarted < sendTimeoutNanos) {
+                return false;
+            }
+            evicted = true;
+            // the stalled write keeps its thread until the container times it out
+            resizeExecutor(1);
+            return true;
+        }
+
+        private void schedule() {
+            if (!scheduled) {
+                scheduled = true;
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (drainPending()) {
+                    // keep going until nothing is pending
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away; the container completes the emitter
+                log.debug("dropping inventory stream subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                synchronized (this) {
+                    pendingSnapshot = null;
+                    pendingDeltas.clear();
+                    pendingVersions.clear();
+                    scheduled = false;
+                }
+            } finally {
+                if (isEvicted()) {
+                    resizeExecutor(-1);
+                    emitter.completeWithError(new IOException("inventory stream write stalled"));
+                }
+            }
+        }
+
+        private boolean drainPending() throws IOException {
+            Snapshot snapshot;
+            Map<BloodType, InventoryDelta> deltas;
+            Map<BloodType, Long> versions;
+            String deltasJson;
+            synchronized (this) {
+                if (evicted) {
+                    return false;
+                }
+                snapshot = pendingSnapshot;
+                deltas = pendingDeltas.isEmpty() ? null : new EnumMap<>(pendingDeltas);
+                versions = pendingVersions.isEmpty() ? null : new EnumMap<>(pendingVersions);
+                deltasJson = pendingDeltasJson;
+                pendingSnapshot = null;
+                pendingDeltas.clear();
+                pendingVersions.clear();
+                pendingDeltasJson = null;
+                if (snapshot == null && deltas == null) {
+                    scheduled = false;
+                    return false;
+                }
+            }
+            // a snapshot read before units the client already has would take them back
+            if (snapshot != null && sentVersions.values().stream().allMatch(sent -> sent <= snapshot.version())) {
+                send(SNAPSHOT, snapshot.json());
+                for (BloodType bloodType : BloodType.values()) {
+                    sentVersions.put(bloodType, snapshot.version());
+                }
+            }
+            if (deltas != null) {
+                // a delta already included in a snapshot the client was sent adds nothing
+                boolean stale = deltas.keySet().removeIf(bloodType ->
+                        versions.get(bloodType) <= sentVersions.getOrDefault(bloodType, Long.MIN_VALUE));
+                if (!deltas.isEmpty()) {
+                    send(DELTA, stale || deltasJson == null ? serialize(deltas.values()) : deltasJson);
+                    deltas.keySet().forEach(bloodType -> sentVersions.put(bloodType, versions.get(bloodType)));
+                }
+            }
+            return true;
+        }
+
+        private void send(String name, String json) throws IOException {
+            synchronized (this) {
+                sending = true;
+                sendStarted = nanoTime.getAsLong();
+            }
+            try {
+                emitter.send(SseEmitter.event().name(name).data(json));
+            } finally {
+                synchronized (this) {
+                    sending = false;
+                }
+            }
+        }
+
+        private synchronized boolean isEvicted() {
+            return evicted;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.bds.services;
+
+import com.bds.dto.ShortageAlert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class LoggingShortageNotifier implements ShortageNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingShortageNotifier.class);
+
+    @Override
+    public void notify(ShortageAlert alert) {
+        log.warn("blood shortage alert {} for {}: {} units (low-water {}, high-water {})",
+                alert.type(), alert.bloodType(), alert.units(), alert.lowWater(), alert.highWater());
+    }
+}
@@ -0,0 +1,48 @@
+package com.bds.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Runs the versioned reads behind the inventory and donation history ETags.
+ * They normally run in a read-only transaction, which goes to the read replica
+ * when one is configured. Data changed within
+ * {@code spring.datasource.replica.read-your-writes} is read from the primary
+ * instead, so a lagging replica never pairs a new ETag with an old body.
+ */
+@Component
+public class ReplicaReads {
+
+    private final ResourceVersions resourceVersions;
+    private final Duration maxLag;
+    private final TransactionTemplate replica;
+    private final TransactionTemplate primary;
+
+    public ReplicaReads(ResourceVersions resourceVersions,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${spring.datasource.replica.read-your-writes:PT5S}") Duration maxLag) {
+        this.resourceVersions = resourceVersions;
+        this.maxLag = maxLag;
+        this.replica = new TransactionTemplate(transactionManager);
+        this.replica.setReadOnly(true);
+        this.primary = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> List<T> inventory(Supplier<List<T>> query) {
+        return read(resourceVersions.inventoryChangedWithin(maxLag), query);
+    }
+
+    public <T> T donationHistory(Long donorId, Supplier<T> query) {
+        return read(resourceVersions.donationHistoryChangedWithin(donorId, maxLag), query);
+    }
+
+    private <T> T read(boolean changedRecently, Supplier<T> query) {
+        return (changedRecently ? primary : replica).execute(status -> query.get());
+    }
+}
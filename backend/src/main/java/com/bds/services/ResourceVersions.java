@@ -0,0 +1,109 @@
+package com.bds.services;
+
+import com.bds.events.DonationHistoryChangedEvent;
+import com.bds.events.InventoryChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Version counters behind the ETags of the inventory and donation history
+ * endpoints. Counters move only after the writing transaction commits, and
+ * readers take the version before they query, so a tag never claims newer
+ * data than the response it was sent with.
+ * <p>
+ * Donors share {@value #DONOR_STRIPES} counters, so a write may also change the
+ * tag of an unrelated donor; that costs a full response, never a stale one.
+ * Versions are kept in memory and only cover writes made through this instance;
+ * the boot epoch in every tag makes tags from before a restart miss.
+ * <p>
+ * When each counter last moved is kept as well, so reads of something that just
+ * changed can skip a read replica that may not have the change yet.
+ */
+@Component
+public class ResourceVersions {
+
+    static final int DONOR_STRIPES = 1 << 16;
+
+    private final String bootEpoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final InventoryCache inventoryCache;
+    private final AtomicLong inventory = new AtomicLong();
+    private final AtomicLong allDonors = new AtomicLong();
+    private final AtomicLongArray donors = new AtomicLongArray(DONOR_STRIPES);
+    private final LongSupplier nanoTime;
+    // nanoTime of the last change, 0 for never
+    private final AtomicLong inventoryChangedAt = new AtomicLong();
+    private final AtomicLong allDonorsChangedAt = new AtomicLong();
+    private final AtomicLongArray donorsChangedAt = new AtomicLongArray(DONOR_STRIPES);
+
+    public ResourceVersions(InventoryCache inventoryCache) {
+        this(inventoryCache, System::nanoTime);
+    }
+
+    ResourceVersions(InventoryCache inventoryCache, LongSupplier nanoTime) {
+        this.inventoryCache = inventoryCache;
+        this.nanoTime = nanoTime;
+    }
+
+    // after InventoryCache has applied the change, so a new tag never comes with old units
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        inventory.incrementAndGet();
+        inventoryChangedAt.set(now());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDonationHistoryChanged(DonationHistoryChangedEvent event) {
+        long now = now();
+        if (event.donorIds() == null) {
+            allDonors.incrementAndGet();
+            allDonorsChangedAt.set(now);
+            return;
+        }
+        for (Long donorId : event.donorIds()) {
+            int stripe = stripe(donorId);
+            donors.incrementAndGet(stripe);
+            donorsChangedAt.set(stripe, now);
+        }
+    }
+
+    public String inventoryETag() {
+        // the cache repairs drift without an event, so its corrections count as changes too
+        return "\"inventory-" + bootEpoch + "-" + (inventory.get() + inventoryCache.driftDetected()) + "\"";
+    }
+
+    public String donationHistoryETag(Long donorId) {
+        return "\"donations-" + bootEpoch + "-" + allDonors.get() + "-" + donors.get(stripe(donorId)) + "\"";
+    }
+
+    public boolean inventoryChangedWithin(Duration window) {
+        return changedWithin(inventoryChangedAt.get(), window);
+    }
+
+    public boolean donationHistoryChangedWithin(Long donorId, Duration window) {
+        return changedWithin(allDonorsChangedAt.get(), window)
+                || changedWithin(donorsChangedAt.get(stripe(donorId)), window);
+    }
+
+    private boolean changedWithin(long changedAt, Duration window) {
+        return changedAt != 0 && nanoTime.getAsLong() - changedAt < window.toNanos();
+    }
+
+    // never 0, which stands for "never changed"
+    private long now() {
+        long now = nanoTime.getAsLong();
+        return now == 0 ? 1 : now;
+    }
+
+    private static int stripe(Long donorId) {
+        long h = donorId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 48);
+    }
+}
@@ -0,0 +1,181 @@
+package com.bds.services;
+
+import com.bds.config.ShortageAlertProperties;
+import com.bds.config.ShortageAlertProperties.Threshold;
+import com.bds.dto.ShortageAlert;
+import com.bds.dto.ShortageAlertType;
+import com.bds.events.InventoryChangedEvent;
+import com.bds.models.BloodType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Raises shortage alerts from the running per blood type totals of
+ * {@link InventoryCache}: each committed inventory change is compared with the
+ * thresholds of the blood types it touched, without querying the database.
+ * <p>
+ * Alerts are kept for {@code GET /admin/shortage_alerts} and handed to the
+ * {@link ShortageNotifier} on a background thread, so a slow notifier never
+ * delays a donation write.
+ */
+@Service
+public class ShortageAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortageAlertService.class);
+
+    private static final int UNKNOWN = 0;
+    private static final int SUFFICIENT = 1;
+    private static final int SHORT = 2;
+
+    private final InventoryCache inventoryCache;
+    private final Map<BloodType, Threshold> thresholds;
+    private final ShortageNotifier notifier;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final int recentAlerts;
+    private final Map<BloodType, AtomicInteger> states = new EnumMap<>(BloodType.class);
+    private final Deque<ShortageAlert> recent = new ArrayDeque<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bds-shortage-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShortageAlertService(InventoryCache inventoryCache,
+                                ShortageAlertProperties properties,
+                                ShortageNotifier notifier,
+                                MeterRegistry meterRegistry) {
+        this(inventoryCache, properties, notifier, Clock.systemUTC(), meterRegistry);
+    }
+
+    ShortageAlertService(InventoryCache inventoryCache,
+                         ShortageAlertProperties properties,
+                         ShortageNotifier notifier,
+                         Clock clock,
+                         MeterRegistry meterRegistry) {
+        this.inventoryCache = inventoryCache;
+        this.thresholds = new EnumMap<>(BloodType.class);
+        this.thresholds.putAll(properties.thresholds());
+        this.notifier = notifier;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.recentAlerts = properties.recentAlerts();
+        for (BloodType bloodType : thresholds.keySet()) {
+            states.put(bloodType, new AtomicInteger(UNKNOWN));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // after InventoryCache has applied the change
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (!inventoryCache.isReady()) {
+            return;
+        }
+        for (BloodType bloodType : event.deltas().keySet()) {
+            evaluate(bloodType);
+        }
+    }
+
+    /**
+     * Evaluates every blood type once the cache is warm and periodically after
+     * that, which also covers cache drift repairs that raise no change event.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${inventory.alerts.evaluation-interval:PT1M}",
+            fixedDelayString = "${inventory.alerts.evaluation-interval:PT1M}"
+    )
+    public void evaluateAll() {
+        if (!inventoryCache.isReady()) {
+            return;
+        }
+        for (BloodType bloodType : thresholds.keySet()) {
+            evaluate(bloodType);
+        }
+    }
+
+    public List<ShortageAlert> getRecentAlerts() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    private void evaluate(BloodType bloodType) {
+        Threshold threshold = thresholds.get(bloodType);
+        if (threshold == null) {
+            return;
+        }
+        AtomicInteger state = states.get(bloodType);
+        while (true) {
+            int current = state.get();
+            // read after the state, so a stale count can not win the CAS over a newer evaluation
+            long units = inventoryCache.getUnits(bloodType);
+            int next = units < threshold.lowWater() ? SHORT
+                    : current == SHORT && units < threshold.highWater() ? SHORT
+                    : SUFFICIENT;
+            if (next == current) {
+                return;
+            }
+            if (state.compareAndSet(current, next)) {
+                if (next == SHORT) {
+                    raise(bloodType, ShortageAlertType.SHORTAGE, units, threshold);
+                } else if (current == SHORT) {
+                    raise(bloodType, ShortageAlertType.RECOVERED, units, threshold);
+                }
+                return;
+            }
+        }
+    }
+
+    private void raise(BloodType bloodType, ShortageAlertType type, long units, Threshold threshold) {
+        ShortageAlert alert = new ShortageAlert(
+                bloodType, type, units, threshold.lowWater(), threshold.highWater(), Instant.now(clock));
+        synchronized (recent) {
+            recent.addFirst(alert);
+            if (recent.size() > recentAlerts) {
+                recent.removeLast();
+            }
+        }
+        Counter.builder("bds.inventory.shortage.alerts")
+                .description("Blood shortage alerts raised")
+                .tag("blood_type", bloodType.name())
+                .tag("type", type.name())
+                .register(meterRegistry)
+                .increment();
+        executor.execute(() -> {
+            try {
+                notifier.notify(alert);
+            } catch (RuntimeException e) {
+                log.error("shortage notifier failed for {}", alert, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.bds.services;
+
+import com.bds.dto.ShortageAlert;
+
+/**
+ * Delivers shortage alerts outside the application. Called from a single
+ * background thread, one alert at a time, in the order alerts were raised.
+ */
+public interface ShortageNotifier {
+
+    void notify(ShortageAlert alert);
+}
@@ -0,0 +1,89 @@
+package com.bds.services;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Shares one load between concurrent callers: whoever arrives while a load is
+ * running waits for its result instead of starting another.
+ * <p>
+ * With a positive {@code staleWhileRevalidate} window, a result is reused for
+ * that long; after that the first caller reloads it while everyone else keeps
+ * getting the previous result, so at most one load starts per window.
+ */
+final class SingleFlight<T> {
+
+    private final Supplier<T> loader;
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+    private volatile Loaded<T> last;
+
+    SingleFlight(Supplier<T> loader, Duration staleWhileRevalidate) {
+        this(loader, staleWhileRevalidate, System::nanoTime);
+    }
+
+    SingleFlight(Supplier<T> loader, Duration staleWhileRevalidate, LongSupplier nanoTime) {
+        this.loader = loader;
+        this.windowNanos = staleWhileRevalidate.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    T get() {
+        Loaded<T> loaded = windowNanos > 0 ? last : null;
+        if (loaded != null && nanoTime.getAsLong() - loaded.at() < windowNanos) {
+            return loaded.value();
+        }
+
+        CompletableFuture<T> running = inFlight.get();
+        if (running == null) {
+            CompletableFuture<T> mine = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, mine)) {
+                return load(mine);
+            }
+            running = inFlight.get();
+        }
+        if (loaded != null) {
+            // stale, but someone is already revalidating it
+            return loaded.value();
+        }
+        return running == null ? get() : join(running);
+    }
+
+    private T load(CompletableFuture<T> mine) {
+        try {
+            T value = loader.get();
+            if (windowNanos > 0) {
+                last = new Loaded<>(value, nanoTime.getAsLong());
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Loaded<T>(T value, long at) {
+    }
+}
@@ -0,0 +1,248 @@
+package com.bds.services;
+
+import com.bds.dto.ImportFormat;
+import com.bds.dto.ImportKind;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns CSV or NDJSON source lines into PostgreSQL COPY text rows of the form
+ * {@code line_no, <kind columns>, reject_reason, line}, one source line at a time.
+ * Lines that cannot be parsed or validated are not dropped: they are emitted with
+ * empty columns and a reject reason so the merge step can report them.
+ */
+class StagingRowReader extends Reader {
+
+    interface RowValidator {
+        /**
+         * Validates and normalizes {@code values} in place.
+         *
+         * @return the reject reason, or {@code null} if the row is valid
+         */
+        String reject(String[] values);
+    }
+
+    private static final String NULL = "\\N";
+
+    private final BufferedReader source;
+    private final ImportFormat format;
+    private final ImportKind kind;
+    private final RowValidator validator;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong rowsRead;
+
+    private final StringBuilder row = new StringBuilder(256);
+    private int position;
+    private long lineNo;
+    private boolean headerChecked;
+    private boolean eof;
+
+    StagingRowReader(BufferedReader source,
+                     ImportFormat format,
+                     ImportKind kind,
+                     RowValidator validator,
+                     ObjectMapper objectMapper,
+                     AtomicLong rowsRead) {
+        this.source = source;
+        this.format = format;
+        this.kind = kind;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.rowsRead = rowsRead;
+    }
+
+    long lastLineNo() {
+        return lineNo;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int written = 0;
+        while (written < length) {
+            if (position == row.length() && !nextRow()) {
+                break;
+            }
+            int count = Math.min(length - written, row.length() - position);
+            row.getChars(position, position + count, buffer, offset + written);
+            position += count;
+            written += count;
+        }
+        return written == 0 ? -1 : written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private boolean nextRow() throws IOException {
+        row.setLength(0);
+        position = 0;
+        while (!eof) {
+            String line = source.readLine();
+            if (line == null) {
+                eof = true;
+                break;
+            }
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!headerChecked) {
+                headerChecked = true;
+                if (isHeader(line)) {
+                    continue;
+                }
+            }
+            rowsRead.incrementAndGet();
+            appendRow(line);
+            return true;
+        }
+        return false;
+    }
+
+    private void appendRow(String line) {
+        String[] values;
+        String reason;
+        try {
+            values = format == ImportFormat.CSV ? csvValues(line) : jsonValues(line);
+            reason = validator.reject(values);
+        } catch (IllegalArgumentException e) {
+            values = null;
+            reason = e.getMessage();
+        }
+
+        row.append(lineNo);
+        int columns = kind.getColumns().size();
+        for (int i = 0; i < columns; i++) {
+            row.append('\t');
+            appendValue(reason == null ? values[i] : null);
+        }
+        row.append('\t');
+        appendValue(reason);
+        row.append('\t');
+        appendValue(reason == null ? null : line);
+        row.append('\n');
+    }
+
+    private void appendValue(String value) {
+        if (value == null) {
+            row.append(NULL);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> row.append("\\\\");
+                case '\t' -> row.append("\\t");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                default -> row.append(c);
+            }
+        }
+    }
+
+    private boolean isHeader(String line) {
+        if (format != ImportFormat.CSV) {
+            return false;
+        }
+        try {
+            String[] values = parseCsv(line);
+            List<String> columns = kind.getColumns();
+            if (values.length != columns.size()) {
+                return false;
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null || !values[i].trim().equalsIgnoreCase(columns.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String[] csvValues(String line) {
+        String[] values = parseCsv(line);
+        int expected = kind.getColumns().size();
+        if (values.length != expected) {
+            throw new IllegalArgumentException(
+                    "expected " + expected + " fields but found " + values.length
+            );
+        }
+        return values;
+    }
+
+    private String[] jsonValues(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("malformed JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        List<String> fields = kind.getJsonFields();
+        String[] values = new String[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            JsonNode value = node.get(fields.get(i));
+            values[i] = value == null || value.isNull() ? null : emptyToNull(value.asText());
+        }
+        return values;
+    }
+
+    /**
+     * Splits a single RFC 4180 record. Quoted fields may contain commas and
+     * doubled quotes; records spanning several lines are rejected.
+     */
+    static String[] parseCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && value.isEmpty() && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                values.add(wasQuoted ? value.toString() : emptyToNull(value.toString().trim()));
+                value.setLength(0);
+                wasQuoted = false;
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        values.add(wasQuoted ? value.toString() : emptyToNull(value.toString().trim()));
+        return values.toArray(new String[0]);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -1,36 +1,110 @@
 package com.bds.services;
 
+import com.bds.dto.EligibleDonor;
+import com.bds.dto.EligibleDonorsPage;
+import com.bds.dto.UsersPage;
 import com.bds.dto.UsersRegistrationRequest;
 import com.bds.exception.DuplicateResourceException;
+import com.bds.exception.ErrorCode;
+import com.bds.exception.RequestValidationException;
 import com.bds.exception.ResourceNotFoundException;
 import com.bds.models.BloodType;
 import com.bds.models.Role;
 import com.bds.models.Users;
 import com.bds.repositories.UsersRepository;
 import com.bds.validators.DtoValidator;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Reads run in read-only transactions, which go to the read replica when
+ * {@code spring.datasource.replica.url} is set.
+ */
 @Service
+@Timed(value = "bds.service", histogram = true)
 public class UsersService {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UsersRepository usersRepository;
-    private final DtoValidator<Object> validator;
+    private final DtoValidator validator;
 
-    public UsersService(UsersRepository usersRepository, DtoValidator<Object> validator) {
+    public UsersService(UsersRepository usersRepository, DtoValidator validator) {
         this.usersRepository = usersRepository;
         this.validator = validator;
     }
 
-    public List<Users> getAllDonors() {
-        Role role = Role.DONOR;
-        return usersRepository.findByRoleIs(role);
+    @Transactional(readOnly = true)
+    public UsersPage getDonors(Long after, Integer limit) {
+        return getPage(Role.DONOR, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public UsersPage getAdmins(Long after, Integer limit) {
+        return getPage(Role.ADMIN, after, limit);
     }
 
-    public List<Users> getAllAdmins() {
-        Role role = Role.ADMIN;
-        return usersRepository.findByRoleIs(role);
+    public void forEachDonor(Consumer<Users> action) {
+        usersRepository.forEachByRole(Role.DONOR, action);
+    }
+
+    public void forEachAdmin(Consumer<Users> action) {
+        usersRepository.forEachByRole(Role.ADMIN, action);
+    }
+
+    private UsersPage getPage(Role role, Long after, Integer limit) {
+        int pageSize = pageSize(limit);
+        // one extra row tells whether there is a next page without a count query
+        List<Users> users = usersRepository.findPageByRole(
+                role, after == null ? 0L : after, PageRequest.of(0, pageSize + 1)
+        );
+        if (users.size() <= pageSize) {
+            return new UsersPage(users, null);
+        }
+        List<Users> page = users.subList(0, pageSize);
+        return new UsersPage(page, page.get(pageSize - 1).getId());
+    }
+
+    @Transactional(readOnly = true)
+    public EligibleDonorsPage getEligibleDonors(String bloodType, LocalDate on, String after, Integer limit) {
+        BloodType type;
+        try {
+            type = BloodType.valueOf(bloodType);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RequestValidationException(ErrorCode.INVALID_BLOOD_TYPE);
+        }
+        int pageSize = pageSize(limit);
+        LocalDate eligibleOn = on == null ? LocalDate.now() : on;
+
+        // the cursor is the (next_eligible_date, id) of the last donor on the previous page
+        LocalDate afterDate = LocalDate.MIN;
+        long afterId = 0L;
+        if (after != null) {
+            try {
+                int separator = after.indexOf('_');
+                afterDate = LocalDate.parse(after.substring(0, separator));
+                afterId = Long.parseLong(after.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new RequestValidationException(ErrorCode.INVALID_CURSOR, after);
+            }
+        }
+
+        List<EligibleDonor> donors = usersRepository.findEligibleDonors(
+                type, eligibleOn, afterDate, afterId, pageSize + 1
+        );
+        if (donors.size() <= pageSize) {
+            return new EligibleDonorsPage(donors, null);
+        }
+        List<EligibleDonor> page = donors.subList(0, pageSize);
+        EligibleDonor last = page.get(pageSize - 1);
+        return new EligibleDonorsPage(page, last.cursorDate() + "_" + last.id());
     }
 
     public Users registerNewUser(UsersRegistrationRequest usersRegistrationRequest) {
@@ -39,9 +113,7 @@ public class UsersService {
         if (validated) {
             String email = usersRegistrationRequest.email();
             if (usersRepository.existsUsersByEmail(email)) {
-                throw new DuplicateResourceException(
-                        "email already taken"
-                );
+                throw new DuplicateResourceException(ErrorCode.EMAIL_TAKEN);
             }
         }
 
@@ -56,11 +128,18 @@ public class UsersService {
         return newUser;
     }
 
+    private static int pageSize(Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new RequestValidationException(ErrorCode.INVALID_LIMIT, MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    @Transactional(readOnly = true)
     public Users findUserByEmail(String email) {
         if(!usersRepository.existsUsersByEmail(email)) {
-            throw new ResourceNotFoundException(
-                    "user does not exists"
-            );
+            throw new ResourceNotFoundException(ErrorCode.USER_NOT_FOUND);
         }
         return usersRepository.findUsersByEmail(email);
     }
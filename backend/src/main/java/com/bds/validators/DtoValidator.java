@@ -2,28 +2,103 @@ package com.bds.validators;
 
 import com.bds.exception.ObjectNotValidException;
 import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
 import org.springframework.stereotype.Component;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+/**
+ * Validates request records with the validator factory Spring configures, so no
+ * second factory is built and leaked per bean.
+ * <p>
+ * Whether a type declares any constraint at all is looked up once per class;
+ * requests without constraints skip validation.
+ * {@link #firstViolationInFieldOrder} picks a single reason deterministically,
+ * for batch and import rows that are rejected with one message that must come
+ * out the same on every run.
+ */
 @Component
-public class DtoValidator<Object> {
+public class DtoValidator {
 
-    private final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-    private final Validator validator = factory.getValidator();
+    private final Validator validator;
+    private final ClassValue<Boolean> constrained = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return validator.getConstraintsForClass(type).isBeanConstrained();
+        }
+    };
+    private final ClassValue<Map<String, Integer>> fieldOrder = new ClassValue<>() {
+        @Override
+        protected Map<String, Integer> computeValue(Class<?> type) {
+            Map<String, Integer> order = new HashMap<>();
+            RecordComponent[] components = type.getRecordComponents();
+            for (int i = 0; components != null && i < components.length; i++) {
+                order.put(components[i].getName(), i);
+            }
+            return order;
+        }
+    };
+
+    public DtoValidator(ValidatorFactory validatorFactory) {
+        this.validator = validatorFactory.getValidator();
+    }
 
     public boolean validate(Object requestToValidate) {
-        Set<ConstraintViolation<Object>> violations = validator.validate(requestToValidate);
-        if (!violations.isEmpty()) {
-            var errorMessages = violations
-                .stream()
-                .map(ConstraintViolation::getMessage)
-                .collect(Collectors.toSet());
+        Set<String> errorMessages = violations(requestToValidate);
+        if (!errorMessages.isEmpty()) {
             throw new ObjectNotValidException(errorMessages);
         }
         return true;
     }
+
+    public Set<String> violations(Object requestToValidate) {
+        if (!isConstrained(requestToValidate)) {
+            return Set.of();
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(requestToValidate);
+        if (violations.isEmpty()) {
+            return Set.of();
+        }
+        Iterator<ConstraintViolation<Object>> iterator = violations.iterator();
+        if (violations.size() == 1) {
+            return Set.of(iterator.next().getMessage());
+        }
+        Set<String> messages = new HashSet<>(violations.size() * 2);
+        while (iterator.hasNext()) {
+            messages.add(iterator.next().getMessage());
+        }
+        return messages;
+    }
+
+    /**
+     * Message of the violation on the earliest record component, or {@code null}
+     * when the request is valid. Ties on the same component go to the message
+     * that sorts first, so the same request always gets the same reason.
+     */
+    public String firstViolationInFieldOrder(Object requestToValidate) {
+        if (!isConstrained(requestToValidate)) {
+            return null;
+        }
+        Map<String, Integer> order = fieldOrder.get(requestToValidate.getClass());
+        return validator.validate(requestToValidate).stream()
+                .min(Comparator
+                        .<ConstraintViolation<Object>>comparingInt(violation ->
+                                order.getOrDefault(violation.getPropertyPath().toString(), Integer.MAX_VALUE))
+                        .thenComparing(violation -> violation.getPropertyPath().toString())
+                        .thenComparing(ConstraintViolation::getMessage))
+                .map(ConstraintViolation::getMessage)
+                .orElse(null);
+    }
+
+    private boolean isConstrained(Object requestToValidate) {
+        // null is left to the validator, which rejects it with an IllegalArgumentException
+        return requestToValidate == null || constrained.get(requestToValidate.getClass());
+    }
 }
@@ -0,0 +1,21 @@
+ALTER TABLE users
+ADD COLUMN last_donation_date DATE;
+
+-- donors who never gave are eligible on any date; a NOT NULL sentinel keeps
+-- "eligible on :on" a single index range instead of an OR IS NULL
+ALTER TABLE users
+ADD COLUMN next_eligible_date DATE NOT NULL DEFAULT DATE '1900-01-01';
+
+-- the deferral_interval placeholder is donations.deferral-interval (an ISO 8601
+-- period such as P56D), so the backfill agrees with every later write
+UPDATE users u
+SET last_donation_date = d.last_donation_date,
+    next_eligible_date = CAST(d.last_donation_date + CAST('${deferral_interval}' AS INTERVAL) AS DATE)
+FROM (
+    SELECT donor_id, MAX(donation_date) AS last_donation_date
+    FROM blood_donations
+    GROUP BY donor_id
+) d
+WHERE u.id = d.donor_id;
+
+CREATE INDEX IF NOT EXISTS users_eligibility_idx ON users (role, blood_type, next_eligible_date, id);
@@ -0,0 +1,66 @@
+-- blood_donations becomes a table range partitioned by donation_date, one
+-- partition per calendar year. Unique constraints on a partitioned table must
+-- include the partition key, so the primary key grows to (id, donation_date);
+-- blood_donations_unique already contains it and keeps its meaning.
+ALTER TABLE blood_donations RENAME TO blood_donations_heap;
+ALTER INDEX blood_donations_pkey RENAME TO blood_donations_heap_pkey;
+ALTER INDEX blood_donations_unique RENAME TO blood_donations_heap_unique;
+
+-- keep the sequence (and its INCREMENT BY 50) when the old table is dropped
+ALTER SEQUENCE blood_donations_id_seq OWNED BY NONE;
+
+CREATE TABLE blood_donations (
+    id BIGINT NOT NULL DEFAULT nextval('blood_donations_id_seq'),
+    donor_id BIGINT NOT NULL,
+    admin_id BIGINT,
+    units INTEGER NOT NULL,
+    donation_date DATE NOT NULL,
+    CONSTRAINT blood_donations_pkey PRIMARY KEY (id, donation_date),
+    CONSTRAINT blood_donations_unique UNIQUE (donor_id, donation_date),
+    CONSTRAINT fk_donor_id FOREIGN KEY (donor_id) REFERENCES users(id),
+    CONSTRAINT fk_admin_id FOREIGN KEY (admin_id) REFERENCES users(id)
+) PARTITION BY RANGE (donation_date);
+
+ALTER SEQUENCE blood_donations_id_seq OWNED BY blood_donations.id;
+
+-- Yearly partitions from the oldest donation (at most 50 years back, and at
+-- least 15 so imported histories land in their own year) to two years ahead;
+-- DonationPartitionMaintenance keeps creating the years after that. Dates
+-- outside every partition go to the default partition.
+DO $$
+DECLARE
+    current_year INTEGER := EXTRACT(YEAR FROM CURRENT_DATE);
+    first_year INTEGER;
+    last_year INTEGER;
+BEGIN
+    SELECT GREATEST(LEAST(COALESCE(EXTRACT(YEAR FROM MIN(donation_date)), current_year), current_year - 15),
+                    current_year - 50),
+           LEAST(GREATEST(COALESCE(EXTRACT(YEAR FROM MAX(donation_date)), current_year), current_year + 2),
+                 current_year + 10)
+    INTO first_year, last_year
+    FROM blood_donations_heap;
+
+    FOR y IN first_year..last_year LOOP
+        EXECUTE format(
+            'CREATE TABLE blood_donations_y%s PARTITION OF blood_donations FOR VALUES FROM (%L) TO (%L)',
+            y, make_date(y, 1, 1), make_date(y + 1, 1, 1));
+    END LOOP;
+END $$;
+
+CREATE TABLE blood_donations_default PARTITION OF blood_donations DEFAULT;
+
+INSERT INTO blood_donations (id, donor_id, admin_id, units, donation_date)
+SELECT id, donor_id, admin_id, units, donation_date
+FROM blood_donations_heap;
+
+DROP TABLE blood_donations_heap;
+
+ANALYZE blood_donations;
+
+-- Units of donations in detached partitions, per blood type of the donor.
+-- Inventory reconciliation adds them to the donations still attached, so
+-- retention never shows up as inventory drift.
+CREATE TABLE IF NOT EXISTS blood_donations_archived_units (
+    blood_type  TEXT PRIMARY KEY CHECK (blood_type in ('APos', 'ANeg', 'BPos', 'BNeg', 'ABPos', 'ABNeg', 'OPos', 'ONeg')),
+    units       BIGINT NOT NULL DEFAULT 0
+);
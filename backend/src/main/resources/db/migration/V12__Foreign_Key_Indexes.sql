@@ -0,0 +1,10 @@
+-- fk_donor_id lookups are served by blood_donations_unique (donor_id, donation_date)
+-- and users lookups by users_role_id_idx and users_email_unique; the remaining
+-- foreign keys had nothing behind them, so deleting or re-keying a user scanned
+-- every blood_donations partition and blood_donation_event.
+
+-- donations still waiting for an admin have no admin_id to look up
+CREATE INDEX IF NOT EXISTS blood_donations_admin_id_idx ON blood_donations (admin_id)
+WHERE admin_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS blood_donation_event_organizer_id_idx ON blood_donation_event (organizer_id);
@@ -0,0 +1,22 @@
+-- Donations carry an explicit lifecycle instead of being told apart by
+-- admin_id IS NULL. A constant default only touches the catalog, so the
+-- existing partitions are not rewritten; the pending rows are then backfilled.
+ALTER TABLE blood_donations
+    ADD COLUMN status TEXT NOT NULL DEFAULT 'CONFIRMED',
+    ADD COLUMN claimed_by BIGINT,
+    ADD COLUMN claimed_at TIMESTAMP WITH TIME ZONE,
+    ADD CONSTRAINT blood_donations_status_check
+        CHECK (status IN ('INITIATED', 'CLAIMED', 'CONFIRMED', 'REJECTED')),
+    ADD CONSTRAINT fk_claimed_by FOREIGN KEY (claimed_by) REFERENCES users(id);
+
+UPDATE blood_donations SET status = 'INITIATED' WHERE admin_id IS NULL;
+
+-- the admin work queue: only pending donations, in the order they are handed out
+CREATE INDEX IF NOT EXISTS blood_donations_pending_idx ON blood_donations (donation_date, id)
+WHERE status IN ('INITIATED', 'CLAIMED');
+
+-- claimed_by is only set while a donation is claimed
+CREATE INDEX IF NOT EXISTS blood_donations_claimed_by_idx ON blood_donations (claimed_by)
+WHERE claimed_by IS NOT NULL;
+
+ANALYZE blood_donations;
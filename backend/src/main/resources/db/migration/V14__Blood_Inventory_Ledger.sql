@@ -0,0 +1,39 @@
+-- Every change to blood_inventory is also appended to blood_inventory_ledger in
+-- the same statement: donations in, rejected donations, dispensed, expired and
+-- discarded units out. blood_inventory stays the running balance that reads are
+-- served from; reconciliation checks it against the latest snapshot plus the
+-- ledger entries after it, and then takes the next snapshot.
+ALTER TABLE blood_inventory
+    ADD CONSTRAINT blood_inventory_units_check CHECK (units >= 0);
+
+CREATE TABLE IF NOT EXISTS blood_inventory_ledger (
+    id          BIGSERIAL PRIMARY KEY,
+    blood_type  TEXT NOT NULL REFERENCES blood_inventory(blood_type),
+    entry_type  TEXT NOT NULL CHECK (entry_type IN ('DONATION', 'REJECTION', 'DISPENSE', 'EXPIRY', 'DISCARD')),
+    -- signed: only donations add units
+    units       BIGINT NOT NULL CHECK ((entry_type = 'DONATION') = (units > 0) AND units <> 0),
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE OR REPLACE FUNCTION blood_inventory_ledger_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'blood_inventory_ledger is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER blood_inventory_ledger_append_only
+BEFORE UPDATE OR DELETE ON blood_inventory_ledger
+FOR EACH STATEMENT EXECUTE FUNCTION blood_inventory_ledger_append_only();
+
+-- the balance of every blood type after all ledger entries up to ledger_id
+CREATE TABLE IF NOT EXISTS blood_inventory_snapshot (
+    ledger_id   BIGINT NOT NULL,
+    blood_type  TEXT NOT NULL REFERENCES blood_inventory(blood_type),
+    units       BIGINT NOT NULL,
+    taken_at    TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT blood_inventory_snapshot_pkey PRIMARY KEY (ledger_id, blood_type)
+);
+
+-- the inventory so far becomes the opening balance the ledger starts from
+INSERT INTO blood_inventory_snapshot (ledger_id, blood_type, units)
+SELECT 0, blood_type, units FROM blood_inventory;
@@ -0,0 +1,3 @@
+-- The blood inventory is kept by its own ledger since V14, so nothing reads the
+-- units of detached partitions any more.
+DROP TABLE IF EXISTS blood_donations_archived_units;
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS blood_inventory (
+    blood_type  TEXT PRIMARY KEY CHECK (blood_type in ('APos', 'ANeg', 'BPos', 'BNeg', 'ABPos', 'ABNeg', 'OPos', 'ONeg')),
+    units       BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO blood_inventory (blood_type, units)
+SELECT bt.blood_type, COALESCE(SUM(bd.units), 0)
+FROM (VALUES ('APos'), ('ANeg'), ('BPos'), ('BNeg'), ('ABPos'), ('ABNeg'), ('OPos'), ('ONeg')) AS bt(blood_type)
+LEFT JOIN users u ON u.blood_type = bt.blood_type
+LEFT JOIN blood_donations bd ON bd.donor_id = u.id
+GROUP BY bt.blood_type;
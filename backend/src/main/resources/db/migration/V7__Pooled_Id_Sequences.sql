@@ -0,0 +1,5 @@
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE blood_donations_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE blood_donation_event_id_seq INCREMENT BY 50;
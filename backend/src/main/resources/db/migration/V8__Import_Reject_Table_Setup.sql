@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS import_reject (
+    job_id   UUID NOT NULL,
+    line_no  BIGINT NOT NULL,
+    reason   TEXT NOT NULL,
+    line     TEXT
+);
+
+ALTER TABLE import_reject
+ADD CONSTRAINT import_reject_pk PRIMARY KEY (job_id, line_no);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS users_role_id_idx ON users (role, id);
@@ -8,6 +8,8 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.Map;
+
 
 @Testcontainers
 public abstract class AbstractTestcontainers {
@@ -20,7 +22,9 @@ public abstract class AbstractTestcontainers {
                         postgreSQLContainer.getJdbcUrl(),
                         postgreSQLContainer.getUsername(),
                         postgreSQLContainer.getPassword()
-                ).load();
+                )
+                .placeholders(Map.of("deferral_interval", "P56D"))
+                .load();
         flyway.migrate();
     }
 
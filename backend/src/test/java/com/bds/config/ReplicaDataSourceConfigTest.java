@@ -0,0 +1,173 @@
+package com.bds.config;
+
+import com.bds.dto.UsersPage;
+import com.bds.dto.UsersRegistrationRequest;
+import com.bds.models.BloodType;
+import com.bds.models.Role;
+import com.bds.models.Users;
+import com.bds.repositories.UsersRepository;
+import com.bds.services.UsersService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against a primary and a hot standby fed by streaming replication. Tests
+ * pause WAL replay on the standby, so whatever is written afterwards is only
+ * visible on the primary.
+ */
+@Testcontainers
+@SpringBootTest
+class ReplicaDataSourceConfigTest {
+
+    private static final String DATABASE = "bds-replica-test";
+
+    private static final String REPLICATION_SETUP = """
+            #!/bin/bash
+            set -e
+            psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" \\
+                -c "CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD 'replicator'"
+            echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
+            """;
+
+    private static final String STANDBY_START = """
+            until pg_basebackup -h primary -U replicator -D /tmp/standby -R -X stream; do sleep 1; done
+            chown -R postgres:postgres /tmp/standby && chmod 700 /tmp/standby
+            exec gosu postgres postgres -D /tmp/standby
+            """;
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    private static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15.3")
+            .withNetwork(network)
+            .withNetworkAliases("primary")
+            .withDatabaseName(DATABASE)
+            .withUsername("milos")
+            .withPassword("password")
+            .withCopyToContainer(Transferable.of(REPLICATION_SETUP), "/docker-entrypoint-initdb.d/replication.sh")
+            .withCommand("postgres", "-c", "wal_level=replica", "-c", "max_wal_senders=4", "-c", "fsync=off");
+
+    @Container
+    private static final GenericContainer<?> standby = new GenericContainer<>("postgres:15.3")
+            .withNetwork(network)
+            .dependsOn(primary)
+            .withEnv("PGPASSWORD", "replicator")
+            .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+            .withCommand("bash", "-c", STANDBY_START)
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1));
+
+    @DynamicPropertySource
+    private static void registerDataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.datasource.replica.url", ReplicaDataSourceConfigTest::standbyJdbcUrl);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UsersRepository usersRepository;
+    @Autowired
+    private UsersService usersService;
+
+    private JdbcTemplate standbyJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        standbyJdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                standbyJdbcUrl(), primary.getUsername(), primary.getPassword()));
+        standbyJdbcTemplate.execute("SELECT pg_wal_replay_pause()");
+    }
+
+    @AfterEach
+    void tearDown() {
+        standbyJdbcTemplate.execute("SELECT pg_wal_replay_resume()");
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void willRouteReadOnlyTransactionsToStandby() {
+        // Given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // When
+        Boolean readOnlyInRecovery = readOnly.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+        Boolean readWriteInRecovery = readWrite.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+
+        // Then
+        assertThat(readOnlyInRecovery).isTrue();
+        assertThat(readWriteInRecovery).isFalse();
+    }
+
+    @Test
+    void willReadDonorsFromStandby() {
+        // Given
+        Users donor = usersRepository.save(new Users(
+                "Ana", "Anic", UUID.randomUUID() + "@replica.bds.com", Role.DONOR, BloodType.APos));
+
+        // When
+        UsersPage page = usersService.getDonors(donor.getId() - 1, 1);
+
+        // Then
+        assertThat(page.users()).extracting(Users::getId).doesNotContain(donor.getId());
+    }
+
+    @Test
+    void willReadOwnWritesFromPrimary() {
+        // Given
+        String email = UUID.randomUUID() + "@replica.bds.com";
+        asClient("writer");
+        Users donor = usersService.registerNewUser(
+                new UsersRegistrationRequest("Ana", "Anic", email, "DONOR", "APos"));
+
+        // When
+        UsersPage writerPage = usersService.getDonors(donor.getId() - 1, 1);
+        asClient("reader");
+        UsersPage readerPage = usersService.getDonors(donor.getId() - 1, 1);
+
+        // Then
+        assertThat(writerPage.users()).extracting(Users::getEmail).containsExactly(email);
+        assertThat(readerPage.users()).extracting(Users::getEmail).doesNotContain(email);
+    }
+
+    private static void asClient(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReplicaRoutingDataSource.CLIENT_HEADER, client);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static String standbyJdbcUrl() {
+        return "jdbc:postgresql://" + standby.getHost() + ":"
+                + standby.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + DATABASE;
+    }
+}
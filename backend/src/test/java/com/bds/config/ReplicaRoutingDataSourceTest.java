@@ -0,0 +1,89 @@
+package com.bds.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final ReplicaRoutingDataSource underTest =
+            new ReplicaRoutingDataSource(Duration.ofSeconds(5), now::get);
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void willRouteByTransactionReadOnlyFlag() {
+        // Given
+        asClient("a");
+
+        // When
+        Object read = readOnly(true);
+        Object write = readOnly(false);
+
+        // Then
+        assertThat(read).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+        assertThat(write).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+    }
+
+    @Test
+    void willKeepWritingClientOnPrimaryWithinWindow() {
+        // Given
+        asClient("a");
+        readOnly(false);
+
+        // When
+        Object sameClient = readOnly(true);
+        asClient("b");
+        Object otherClient = readOnly(true);
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        asClient("a");
+        Object afterWindow = readOnly(true);
+
+        // Then
+        assertThat(sameClient).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+        assertThat(otherClient).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+        assertThat(afterWindow).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+    }
+
+    @Test
+    void willNotStickOutsideRequests() {
+        // Given
+        readOnly(false);
+
+        // When
+        Object read = readOnly(true);
+
+        // Then
+        assertThat(read).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+    }
+
+    private Object readOnly(boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        return underTest.determineCurrentLookupKey();
+    }
+
+    private static void asClient(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReplicaRoutingDataSource.CLIENT_HEADER, client);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -596,4 +596,14 @@ public class BloodDonationEventControllerTest {
                 .expectStatus()
                 .isEqualTo(HttpStatusCode.valueOf(406));
     }
+
+    @Test
+    void canNotGetMatchesForUnknownEvent() {
+        webTestClient.get()
+                .uri(donationEventURI + "/donation_event/{id}/matches", Long.MAX_VALUE)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
 }
@@ -1,7 +1,7 @@
 package com.bds.controllers;
 
 import com.bds.dto.*;
-import com.bds.models.BloodDonations;
+import com.bds.models.DonationStatus;
 import com.bds.models.Users;
 import com.github.javafaker.Faker;
 import com.github.javafaker.Name;
@@ -9,14 +9,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
@@ -151,26 +158,27 @@ public class BloodDonationsControllerTest {
                 .findFirst()
                 .orElseThrow();
 
-        List<BloodDonations> allBloodDonations = webTestClient.get()
+        List<DonorBloodDonation> allBloodDonations = webTestClient.get()
                 .uri(bloodDonationURI + "/donor/my_blood_donations/" + donorId)
                 .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus()
                 .isOk()
-                .expectBodyList(new ParameterizedTypeReference<BloodDonations>() {
+                .expectBodyList(new ParameterizedTypeReference<DonorBloodDonation>() {
                 })
                 .returnResult()
                 .getResponseBody();
 
-        BloodDonations expectedBloodDonation = new BloodDonations(
+        DonorBloodDonation expectedBloodDonation = new DonorBloodDonation(
+                null,
                 5,
                 LocalDate.now(),
-                donorUser,
-                adminUser
+                adminUser.getId(),
+                DonationStatus.CONFIRMED
         );
 
         assertThat(allBloodDonations)
-                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("Id")
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("id")
                 .contains(expectedBloodDonation);
 
         // make count available blood units request
@@ -194,7 +202,7 @@ public class BloodDonationsControllerTest {
                 .isEqualTo(
                         availableBloodUnits.stream()
                                 .filter(bloodType -> bloodType.getBloodType().equals(donorUser.getBloodType().toString()))
-                                .map(bloodUnits -> bloodUnits.getTotalUnits() + expectedBloodDonation.getUnits())
+                                .map(bloodUnits -> bloodUnits.getTotalUnits() + expectedBloodDonation.units())
                                 .findFirst()
                 );
     }
@@ -318,31 +326,33 @@ public class BloodDonationsControllerTest {
                 .findFirst()
                 .orElseThrow();
 
-        List<BloodDonations> allBloodDonations = webTestClient.get()
+        List<DonorBloodDonation> allBloodDonations = webTestClient.get()
                 .uri(bloodDonationURI + "/donor/my_blood_donations/" + donorId)
                 .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus()
                 .isOk()
-                .expectBodyList(new ParameterizedTypeReference<BloodDonations>() {
+                .expectBodyList(new ParameterizedTypeReference<DonorBloodDonation>() {
                 })
                 .returnResult()
                 .getResponseBody();
 
-        BloodDonations expectedBloodDonation = new BloodDonations(
+        DonorBloodDonation expectedBloodDonation = new DonorBloodDonation(
+                null,
                 11,
                 LocalDate.now(),
-                donorUser
+                null,
+                DonationStatus.INITIATED
         );
 
         assertThat(allBloodDonations)
-                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("Id")
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("id")
                 .contains(expectedBloodDonation);
 
         // confirm blood donation
         Long donationId = allBloodDonations.stream()
-                .filter(bd -> bd.getDonationDate().equals(LocalDate.now()) && bd.getDonor().equals(donorUser))
-                .map(BloodDonations::getId)
+                .filter(bd -> bd.donationDate().equals(LocalDate.now()))
+                .map(DonorBloodDonation::id)
                 .findFirst()
                 .orElseThrow();
 
@@ -351,6 +361,16 @@ public class BloodDonationsControllerTest {
                 11
         );
 
+        // confirming with other units than the donor gave is a bad request
+        webTestClient.patch()
+                .uri(bloodDonationURI + "/admin/confirm_blood_donation/" + donationId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(Mono.just(new ConfirmDonationRequest(adminUser.getId(), 12)), ConfirmDonationRequest.class)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+
         webTestClient.patch()
                 .uri(bloodDonationURI + "/admin/confirm_blood_donation/" + donationId)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -360,6 +380,16 @@ public class BloodDonationsControllerTest {
                 .expectStatus()
                 .isOk();
 
+        // confirming the same donation again is a conflict
+        webTestClient.patch()
+                .uri(bloodDonationURI + "/admin/confirm_blood_donation/" + donationId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(Mono.just(confirmDonationRequest), ConfirmDonationRequest.class)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatusCode.valueOf(409));
+
 
         // make count available blood units request
         List<BloodUnitsImpl> updatedAvailableBloodUnits = webTestClient.get()
@@ -382,7 +412,7 @@ public class BloodDonationsControllerTest {
                 .isEqualTo(
                         availableBloodUnits.stream()
                                 .filter(bloodType -> bloodType.getBloodType().equals(donorUser.getBloodType().toString()))
-                                .map(bloodUnits -> bloodUnits.getTotalUnits() + expectedBloodDonation.getUnits())
+                                .map(bloodUnits -> bloodUnits.getTotalUnits() + expectedBloodDonation.units())
                                 .findFirst()
                 );
     }
@@ -722,4 +752,238 @@ public class BloodDonationsControllerTest {
                 .expectStatus()
                 .isEqualTo(HttpStatusCode.valueOf(406));
     }
+
+    @Test
+    void concurrentIdenticalBloodDonationsYieldOneCreatedAndRestConflict() throws Exception {
+        // create faker user
+        Faker faker = new Faker();
+        Name fakerName = faker.name();
+
+        String firstName = fakerName.firstName();
+        String lastName = fakerName.lastName();
+        String email = fakerName.lastName() + UUID.randomUUID() + "@integrationTest.com";
+
+        // create admin registration request
+        UsersRegistrationRequest adminRequest = new UsersRegistrationRequest(
+                firstName,
+                lastName,
+                email + "---ADMIN",
+                "ADMIN",
+                "ABPos"
+        );
+
+        // register admin user
+        webTestClient.post()
+                .uri(bloodDonationURI + "/admin/register_user")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Mono.just(adminRequest), UsersRegistrationRequest.class)
+                .exchange()
+                .expectStatus()
+                .isCreated();
+
+        // create donor registration request
+        UsersRegistrationRequest donorRequest = new UsersRegistrationRequest(
+                firstName,
+                lastName,
+                email + "---DONOR",
+                "DONOR",
+                "OPos"
+        );
+
+        // register donor user
+        webTestClient.post()
+                .uri(bloodDonationURI + "/admin/register_user")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Mono.just(donorRequest), UsersRegistrationRequest.class)
+                .exchange()
+                .expectStatus()
+                .isCreated();
+
+        // get all admin users
+        List<Users> allAdmins = webTestClient.get()
+                .uri(bloodDonationURI + "/admin")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(new ParameterizedTypeReference<Users>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        // get admin user from users
+        Users adminUser = allAdmins.stream()
+                .filter(user -> user.getEmail().equals(adminRequest.email()))
+                .findFirst()
+                .orElseThrow();
+
+        // get all donor users
+        List<Users> allDonors = webTestClient.get()
+                .uri(bloodDonationURI + "/admin/donor")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(new ParameterizedTypeReference<Users>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        // get donor user from users
+        Users donorUser = allDonors.stream()
+                .filter(user -> user.getEmail().equals(donorRequest.email()))
+                .findFirst()
+                .orElseThrow();
+
+        // make identical blood donation requests
+        BloodDonationRequest bloodDonationRequest =
+                new BloodDonationRequest(
+                        2,
+                        LocalDate.now(),
+                        donorUser,
+                        adminUser
+                );
+
+        // send them all at once and collect response statuses
+        int parallelRequests = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(parallelRequests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatusCode>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < parallelRequests; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return webTestClient.post()
+                            .uri(bloodDonationURI + "/admin/enter_donation")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .body(Mono.just(bloodDonationRequest), BloodDonationRequest.class)
+                            .exchange()
+                            .returnResult(String.class)
+                            .getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<HttpStatusCode> statuses = new ArrayList<>();
+            for (Future<HttpStatusCode> response : responses) {
+                statuses.add(response.get());
+            }
+
+            // exactly one request wins, every other one is a conflict
+            assertThat(statuses)
+                    .filteredOn(status -> status.value() == 201)
+                    .hasSize(1);
+            assertThat(statuses)
+                    .filteredOn(status -> status.value() == 409)
+                    .hasSize(parallelRequests - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentDispensesNeverTakeUnitsBelowZero() throws Exception {
+        // bring ABNeg down to at most 4 units
+        long units = availableUnits("ABNeg");
+        if (units > 4) {
+            webTestClient.post()
+                    .uri(bloodDonationURI + "/admin/dispense_blood_units")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .body(Mono.just(new DispenseBloodUnitsRequest("ABNeg", (int) units - 4, "DISCARD")),
+                            DispenseBloodUnitsRequest.class)
+                    .exchange()
+                    .expectStatus()
+                    .isOk();
+        }
+        long left = availableUnits("ABNeg");
+
+        // ask for eight units more than are left, one unit per request, all at once
+        int parallelRequests = (int) left + 8;
+        DispenseBloodUnitsRequest dispenseRequest = new DispenseBloodUnitsRequest("ABNeg", 1, "DISPENSE");
+        ExecutorService executor = Executors.newFixedThreadPool(parallelRequests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatusCode>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < parallelRequests; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return webTestClient.post()
+                            .uri(bloodDonationURI + "/admin/dispense_blood_units")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .body(Mono.just(dispenseRequest), DispenseBloodUnitsRequest.class)
+                            .exchange()
+                            .returnResult(String.class)
+                            .getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<HttpStatusCode> statuses = new ArrayList<>();
+            for (Future<HttpStatusCode> response : responses) {
+                statuses.add(response.get());
+            }
+
+            // every unit left is dispensed once, every other request is a conflict
+            assertThat(statuses)
+                    .filteredOn(status -> status.value() == 200)
+                    .hasSize((int) left);
+            assertThat(statuses)
+                    .filteredOn(status -> status.value() == 409)
+                    .hasSize(8);
+            assertThat(availableUnits("ABNeg")).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long availableUnits(String bloodType) {
+        List<Map<String, Object>> bloodUnits = webTestClient.get()
+                .uri(bloodDonationURI + "/admin/available_blood_units")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(new ParameterizedTypeReference<Map<String, Object>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        return bloodUnits.stream()
+                .filter(units -> bloodType.equals(units.get("bloodType")))
+                .mapToLong(units -> ((Number) units.get("totalUnits")).longValue())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void canAnswerNotModifiedForUnchangedAvailableBloodUnits() {
+        String eTag = webTestClient.get()
+                .uri(bloodDonationURI + "/admin/available_blood_units")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        assertThat(eTag).isNotNull();
+
+        webTestClient.get()
+                .uri(bloodDonationURI + "/admin/available_blood_units")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody()
+                .isEmpty();
+    }
 }
@@ -0,0 +1,136 @@
+package com.bds.controllers;
+
+import com.bds.dto.ImportJobPhase;
+import com.bds.dto.ImportJobStatus;
+import com.bds.dto.ImportReject;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+public class ImportControllerTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    private static final String importURI = "api/v1/admin/import";
+
+    @Test
+    void canImportUsersAndDonationsAndReportRejects() throws InterruptedException {
+        String suffix = UUID.randomUUID() + "@importTest.com";
+        String donorEmail = "donor" + suffix;
+        String adminEmail = "admin" + suffix;
+
+        String users = "first_name,last_name,email,role,blood_type\n" +
+                "Ana,Anic," + donorEmail + ",DONOR,APos\n" +
+                "Marko,Markovic," + adminEmail + ",ADMIN,ONeg\n" +
+                "Ana,Anic," + donorEmail + ",DONOR,APos\n" +
+                "Petar,Petrovic,petar" + suffix + ",DONOR,Zero\n";
+
+        ImportJobStatus usersImport = awaitCompletion(upload("USERS", "CSV", users));
+
+        assertThat(usersImport.rowsRead()).isEqualTo(4);
+        assertThat(usersImport.rowsMerged()).isEqualTo(2);
+        assertThat(usersImport.rowsRejected()).isEqualTo(2);
+
+        String donations = "{\"donorEmail\":\"" + donorEmail + "\",\"adminEmail\":\"" + adminEmail + "\",\"units\":2,\"donationDate\":\"2019-05-01\"}\n" +
+                "{\"donorEmail\":\"" + donorEmail + "\",\"units\":1,\"donationDate\":\"2019-11-01\"}\n" +
+                "{\"donorEmail\":\"" + donorEmail + "\",\"units\":1,\"donationDate\":\"2019-11-01\"}\n" +
+                "{\"donorEmail\":\"unknown" + suffix + "\",\"units\":1,\"donationDate\":\"2019-11-01\"}\n" +
+                "{\"donorEmail\":\n";
+
+        ImportJobStatus donationsImport = awaitCompletion(upload("BLOOD_DONATIONS", "NDJSON", donations));
+
+        assertThat(donationsImport.rowsRead()).isEqualTo(5);
+        assertThat(donationsImport.rowsMerged()).isEqualTo(2);
+        assertThat(donationsImport.rowsRejected()).isEqualTo(3);
+
+        List<ImportReject> rejects = webTestClient.get()
+                .uri(importURI + "/{jobId}/rejects", donationsImport.jobId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(new ParameterizedTypeReference<ImportReject>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(rejects)
+                .extracting(ImportReject::lineNo, ImportReject::reason)
+                .containsExactly(
+                        tuple(3L, "donor or donation date already exists"),
+                        tuple(4L, "donor or admin does not exist"),
+                        tuple(5L, "malformed JSON")
+                );
+    }
+
+    @Test
+    void canNotImportEmptyBody() {
+        webTestClient.post()
+                .uri(uriBuilder -> uriBuilder.path(importURI)
+                        .queryParam("kind", "USERS")
+                        .build())
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(new byte[0])
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatusCode.valueOf(406));
+    }
+
+    @Test
+    void canNotGetUnknownImport() {
+        webTestClient.get()
+                .uri(importURI + "/{jobId}", UUID.randomUUID())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
+    private ImportJobStatus upload(String kind, String format, String content) {
+        return webTestClient.post()
+                .uri(uriBuilder -> uriBuilder.path(importURI)
+                        .queryParam("kind", kind)
+                        .queryParam("format", format)
+                        .build())
+                .contentType("CSV".equals(format) ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .bodyValue(content.getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus()
+                .isAccepted()
+                .expectBody(ImportJobStatus.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private ImportJobStatus awaitCompletion(ImportJobStatus job) throws InterruptedException {
+        ImportJobStatus status = job;
+        for (int i = 0; i < 100 && status.phase() != ImportJobPhase.COMPLETED && status.phase() != ImportJobPhase.FAILED; i++) {
+            Thread.sleep(100);
+            status = webTestClient.get()
+                    .uri(importURI + "/{jobId}", job.jobId())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody(ImportJobStatus.class)
+                    .returnResult()
+                    .getResponseBody();
+        }
+        assertThat(status.phase()).isEqualTo(ImportJobPhase.COMPLETED);
+        return status;
+    }
+}
@@ -0,0 +1,137 @@
+package com.bds.controllers;
+
+import com.bds.dto.BloodDonationRequest;
+import com.bds.dto.DonorBloodDonation;
+import com.bds.models.BloodType;
+import com.bds.models.Role;
+import com.bds.models.Users;
+import com.bds.repositories.UsersRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(
+        webEnvironment = RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+public class StatementCountControllerTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    UsersRepository usersRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private static final String bloodDonationURI = "api/v1";
+
+    private Statistics statistics;
+    private Users donor;
+    private Users admin;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = UUID.randomUUID() + "@statementCountTest.com";
+        donor = usersRepository.save(new Users("Ana", "Anic", "donor" + suffix, Role.DONOR, BloodType.ABNeg));
+        admin = usersRepository.save(new Users("Marko", "Markovic", "admin" + suffix, Role.ADMIN, BloodType.OPos));
+    }
+
+    @Test
+    void enterDonationUsesThreeStatements() {
+        statistics.clear();
+
+        enterDonation();
+
+        // INSERT ... ON CONFLICT DO NOTHING, the blood_inventory update and the donor eligibility update
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void donorBloodDonationsUseOneStatement() {
+        enterDonation();
+        statistics.clear();
+
+        webTestClient.get()
+                .uri(bloodDonationURI + "/donor/my_blood_donations/" + donor.getId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(DonorBloodDonation.class)
+                .hasSize(1);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void unknownDonorBloodDonationsUseTwoStatements() {
+        statistics.clear();
+
+        webTestClient.get()
+                .uri(bloodDonationURI + "/donor/my_blood_donations/" + (admin.getId() + 1_000_000))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void donorPageUsesOneStatement() {
+        statistics.clear();
+
+        webTestClient.get()
+                .uri(bloodDonationURI + "/admin/donor?after=" + (donor.getId() - 1) + "&limit=1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(Users.class)
+                .hasSize(1);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void availableBloodUnitsAreServedWithoutStatements() {
+        statistics.clear();
+
+        webTestClient.get()
+                .uri(bloodDonationURI + "/admin/available_blood_units")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private void enterDonation() {
+        webTestClient.post()
+                .uri(bloodDonationURI + "/admin/enter_donation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(Mono.just(new BloodDonationRequest(2, LocalDate.now(), donor, admin)), BloodDonationRequest.class)
+                .exchange()
+                .expectStatus()
+                .isCreated();
+    }
+}
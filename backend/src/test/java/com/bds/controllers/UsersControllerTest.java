@@ -10,11 +10,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -86,6 +89,57 @@ public class UsersControllerTest {
                 .contains(expectedUser);
     }
 
+    @Test
+    void canPageAndStreamDonors() {
+        // register three donors
+        String suffix = UUID.randomUUID() + "@integrationTest.com";
+        List<String> emails = List.of("first" + suffix, "second" + suffix, "third" + suffix);
+        emails.forEach(email -> webTestClient.post()
+                .uri(usersURI + "/register_user")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Mono.just(new UsersRegistrationRequest("Ana", "Anic", email, "DONOR", "OPos")),
+                        UsersRegistrationRequest.class)
+                .exchange()
+                .expectStatus()
+                .isCreated());
+
+        // page through donors two at a time following the next link
+        List<Users> paged = new ArrayList<>();
+        String next = usersURI + "/donor?limit=2";
+        while (next != null) {
+            EntityExchangeResult<List<Users>> page = webTestClient.get()
+                    .uri(next)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBodyList(Users.class)
+                    .returnResult();
+            assertThat(page.getResponseBody()).hasSizeLessThanOrEqualTo(2);
+            paged.addAll(page.getResponseBody());
+
+            String link = page.getResponseHeaders().getFirst(HttpHeaders.LINK);
+            next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        }
+
+        assertThat(paged).extracting(Users::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(paged).extracting(Users::getEmail).containsAll(emails);
+
+        // stream the same donors as NDJSON
+        String ndjson = webTestClient.get()
+                .uri(usersURI + "/donor")
+                .accept(MediaType.parseMediaType("application/x-ndjson"))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(ndjson.lines().filter(line -> line.contains(suffix))).hasSize(3);
+    }
+
     @Test
     void badFirstNameFormatTooShort() {
         // create registration request
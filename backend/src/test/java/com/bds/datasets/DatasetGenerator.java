@@ -0,0 +1,85 @@
+package com.bds.datasets;
+
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point of {@link SyntheticDataset}. From {@code backend}:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.bds.datasets.DatasetGenerator \
+ *     -Dexec.args="--size=MEDIUM --jdbc-url=jdbc:postgresql://localhost:5332/bds"
+ * </pre>
+ * With {@code --out=DIR} instead of {@code --jdbc-url} it writes users.copy and
+ * blood_donations.copy for {@code \copy ... FROM} in psql, with ids starting at 1.
+ */
+public class DatasetGenerator {
+
+    private static final String USAGE = """
+            usage: DatasetGenerator [--size=TINY|SMALL|MEDIUM|LARGE | --users=N --donations=N]
+                                    [--seed=N] [--as-of=YYYY-MM-DD]
+                                    (--jdbc-url=URL [--db-user=NAME] [--db-password=SECRET] | --out=DIR)
+            """;
+
+    public static void main(String[] args) throws IOException, SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                System.err.print(USAGE);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        DatasetSize size = DatasetSize.valueOf(options.getOrDefault("size", DatasetSize.TINY.name()));
+        SyntheticDataset dataset = new SyntheticDataset(
+                Long.parseLong(options.getOrDefault("users", String.valueOf(size.users()))),
+                Long.parseLong(options.getOrDefault("donations", String.valueOf(size.donations()))),
+                Long.parseLong(options.getOrDefault("seed", String.valueOf(SyntheticDataset.DEFAULT_SEED))),
+                LocalDate.parse(options.getOrDefault("as-of", SyntheticDataset.DEFAULT_AS_OF.toString()))
+        );
+
+        if (options.containsKey("jdbc-url")) {
+            SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                    options.get("jdbc-url"),
+                    options.getOrDefault("db-user", "milos"),
+                    options.getOrDefault("db-password", "password"),
+                    true);
+            try {
+                LoadedDataset loaded = dataset.load(dataSource);
+                System.out.printf("loaded %d users (%d admins) from id %d and %d donations from id %d in %d ms%n",
+                        loaded.users(), loaded.admins(), loaded.firstUserId(),
+                        loaded.donations(), loaded.firstDonationId(), loaded.elapsed().toMillis());
+            } finally {
+                dataSource.destroy();
+            }
+        } else if (options.containsKey("out")) {
+            Path directory = Files.createDirectories(Path.of(options.get("out")));
+            try (Writer out = writer(directory.resolve("users.copy"))) {
+                dataset.writeUsers(out, 1);
+            }
+            long donations;
+            try (Writer out = writer(directory.resolve("blood_donations.copy"))) {
+                donations = dataset.writeDonations(out, 1, 1);
+            }
+            System.out.printf("wrote %d users and %d donations to %s%n", dataset.users(), donations, directory);
+        } else {
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+    }
+
+    private static Writer writer(Path path) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8), 256 * 1024);
+    }
+}
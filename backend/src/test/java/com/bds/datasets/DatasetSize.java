@@ -0,0 +1,38 @@
+package com.bds.datasets;
+
+/**
+ * Preset dataset sizes. Each has about three donations per donor; integration
+ * tests and benchmarks pick one with {@code -Dbds.dataset.size=MEDIUM}.
+ */
+public enum DatasetSize {
+    TINY(10_000),
+    SMALL(100_000),
+    MEDIUM(1_000_000),
+    LARGE(10_000_000);
+
+    public static final String PROPERTY = "bds.dataset.size";
+
+    private static final int DONATIONS_PER_USER = 3;
+
+    private final long users;
+
+    DatasetSize(long users) {
+        this.users = users;
+    }
+
+    public long users() {
+        return users;
+    }
+
+    public long donations() {
+        return users * DONATIONS_PER_USER;
+    }
+
+    public static DatasetSize fromSystemProperty() {
+        return fromSystemProperty(TINY);
+    }
+
+    public static DatasetSize fromSystemProperty(DatasetSize defaultSize) {
+        return valueOf(System.getProperty(PROPERTY, defaultSize.name()));
+    }
+}
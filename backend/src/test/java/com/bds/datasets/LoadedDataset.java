@@ -0,0 +1,18 @@
+package com.bds.datasets;
+
+import java.time.Duration;
+
+/**
+ * What {@link SyntheticDataset#load} inserted. Users have ids
+ * {@code firstUserId .. firstUserId + users - 1}; admins are the users at
+ * offsets divisible by {@link SyntheticDataset#ADMIN_EVERY}.
+ */
+public record LoadedDataset(
+        long firstUserId,
+        long users,
+        long admins,
+        long firstDonationId,
+        long donations,
+        Duration elapsed
+) {
+}
@@ -0,0 +1,331 @@
+package com.bds.datasets;
+
+import com.bds.models.BloodType;
+import com.bds.models.Users;
+import com.github.javafaker.Faker;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic users and blood donations for scale tests. The same seed always
+ * produces the same rows, independent of row order, because every user's row and
+ * donations are drawn from a random stream of their own.
+ * <p>
+ * Rows are written in COPY text format and bulk loaded with {@code COPY ... FROM STDIN}.
+ */
+public class SyntheticDataset {
+
+    public static final long DEFAULT_SEED = 42;
+    public static final LocalDate DEFAULT_AS_OF = LocalDate.of(2024, 1, 1);
+
+    // one admin per hundred users, at offsets 0, 100, 200, ...
+    public static final int ADMIN_EVERY = 100;
+
+    static final int DEFERRAL_DAYS = 56;
+
+    private static final int HISTORY_DAYS = 10 * 365;
+    private static final int NAME_POOL_SIZE = 2048;
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+
+    // ABO/RhD frequencies per thousand of a typical donor population
+    private static final BloodType[] BLOOD_TYPES = {
+            BloodType.OPos, BloodType.APos, BloodType.BPos, BloodType.ONeg,
+            BloodType.ANeg, BloodType.ABPos, BloodType.BNeg, BloodType.ABNeg
+    };
+    private static final int[] BLOOD_TYPE_PER_MILLE = {374, 357, 85, 66, 63, 34, 15, 6};
+
+    private static final String USERS_COPY = "COPY users (id, first_name, last_name, email, role, blood_type, " +
+            "last_donation_date, next_eligible_date) FROM STDIN";
+    private static final String DONATIONS_COPY = "COPY blood_donations (id, donor_id, admin_id, units, donation_date, status) FROM STDIN";
+
+    // ids are handed out above everything Hibernate's pooled optimizer may still hold in memory
+    private static final String FIRST_FREE_ID = "SELECT GREATEST(COALESCE((SELECT MAX(id) FROM %s), 0), " +
+            "(SELECT last_value FROM %s) + 50) + 1";
+    private static final String INVENTORY_UPDATE = """
+            WITH added AS (
+                SELECT u.blood_type, SUM(d.units) AS units
+                FROM blood_donations d
+                JOIN users u ON u.id = d.donor_id
+                WHERE d.id >= ?
+                GROUP BY u.blood_type
+            ), updated AS (
+                UPDATE blood_inventory bi
+                SET units = bi.units + a.units
+                FROM added a
+                WHERE bi.blood_type = a.blood_type
+                RETURNING bi.blood_type
+            )
+            INSERT INTO blood_inventory_ledger (blood_type, entry_type, units)
+            SELECT a.blood_type, 'DONATION', a.units
+            FROM added a
+            JOIN updated u ON u.blood_type = a.blood_type
+            """;
+    private static final String DONATION_COUNT_UPDATE = """
+            UPDATE users u
+            SET donation_count = u.donation_count + d.donations
+            FROM (
+                SELECT donor_id, count(*) AS donations
+                FROM blood_donations
+                WHERE id >= ? AND status = 'CONFIRMED'
+                GROUP BY donor_id
+            ) d
+            WHERE u.id = d.donor_id
+            """;
+
+    private final long users;
+    private final long donations;
+    private final long seed;
+    private final LocalDate asOf;
+    private final double meanDonationsPerDonor;
+    private final String[] firstNames = new String[NAME_POOL_SIZE];
+    private final String[] lastNames = new String[NAME_POOL_SIZE];
+
+    public SyntheticDataset(long users, long donations, long seed, LocalDate asOf) {
+        if (users < 1) {
+            throw new IllegalArgumentException("users must be greater than 0");
+        }
+        if (donations < 0) {
+            throw new IllegalArgumentException("donations must not be negative");
+        }
+        this.users = users;
+        this.donations = donations;
+        this.seed = seed;
+        this.asOf = asOf;
+        long donors = users - admins();
+        this.meanDonationsPerDonor = donors == 0 ? 0 : (double) donations / donors;
+
+        Faker faker = new Faker(Locale.ENGLISH, new Random(seed));
+        for (int i = 0; i < NAME_POOL_SIZE; i++) {
+            firstNames[i] = clean(faker.name().firstName());
+            lastNames[i] = clean(faker.name().lastName());
+        }
+    }
+
+    public static SyntheticDataset of(DatasetSize size) {
+        return new SyntheticDataset(size.users(), size.donations(), DEFAULT_SEED, DEFAULT_AS_OF);
+    }
+
+    public long users() {
+        return users;
+    }
+
+    public long admins() {
+        return (users + ADMIN_EVERY - 1) / ADMIN_EVERY;
+    }
+
+    /**
+     * Donations requested; the generated count is a few percent lower, as donation
+     * histories are cut off ten years before the as-of date.
+     */
+    public long targetDonations() {
+        return donations;
+    }
+
+    /**
+     * Loads users and donations in one transaction, adds the donations to
+     * {@code blood_inventory} and its ledger and to the donors' donation counts,
+     * and moves the id sequences past the new rows.
+     * Other writers are blocked while it runs; a running backend's inventory
+     * cache picks the new units up at its next verification.
+     */
+    public LoadedDataset load(DataSource dataSource) throws SQLException, IOException {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOCK TABLE users, blood_donations IN SHARE ROW EXCLUSIVE MODE");
+            }
+            long firstUserId = firstFreeId(connection, "users", "users_id_seq");
+            long firstDonationId = firstFreeId(connection, "blood_donations", "blood_donations_id_seq");
+
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Writer out = copyWriter(pgConnection, USERS_COPY)) {
+                writeUsers(out, firstUserId);
+            }
+            long written;
+            try (Writer out = copyWriter(pgConnection, DONATIONS_COPY)) {
+                written = writeDonations(out, firstUserId, firstDonationId);
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(INVENTORY_UPDATE)) {
+                statement.setLong(1, firstDonationId);
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(DONATION_COUNT_UPDATE)) {
+                statement.setLong(1, firstDonationId);
+                statement.executeUpdate();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval('users_id_seq', " + (firstUserId + users + 50) + ")");
+                statement.execute("SELECT setval('blood_donations_id_seq', " + (firstDonationId + written + 50) + ")");
+            }
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE blood_donations");
+            }
+            return new LoadedDataset(firstUserId, users, admins(), firstDonationId, written,
+                    Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    /**
+     * Writes users as COPY text rows: id, first_name, last_name, email, role,
+     * blood_type, last_donation_date, next_eligible_date.
+     */
+    public void writeUsers(Writer out, long firstUserId) throws IOException {
+        StringBuilder row = new StringBuilder(128);
+        for (long offset = 0; offset < users; offset++) {
+            SplittableRandom random = random(offset);
+            long id = firstUserId + offset;
+            String firstName = firstNames[random.nextInt(NAME_POOL_SIZE)];
+            String lastName = lastNames[random.nextInt(NAME_POOL_SIZE)];
+            BloodType bloodType = bloodType(random);
+            boolean admin = isAdmin(offset);
+            LocalDate lastDonation = admin ? null : lastDonationDate(random);
+
+            row.setLength(0);
+            row.append(id).append('\t')
+                    .append(firstName).append('\t')
+                    .append(lastName).append('\t')
+                    .append(firstName.toLowerCase(Locale.ROOT)).append('.')
+                    .append(lastName.toLowerCase(Locale.ROOT)).append('.')
+                    .append(id).append("@dataset.bds.com").append('\t')
+                    .append(admin ? "ADMIN" : "DONOR").append('\t')
+                    .append(bloodType.name()).append('\t')
+                    .append(lastDonation == null ? "\\N" : lastDonation.toString()).append('\t')
+                    .append(lastDonation == null ? Users.NEVER_DONATED : lastDonation.plusDays(DEFERRAL_DAYS))
+                    .append('\n');
+            out.append(row);
+        }
+    }
+
+    /**
+     * Writes donations as COPY text rows: id, donor_id, admin_id, units,
+     * donation_date, status. Each donor's donations are at least the deferral
+     * interval apart, so {@code blood_donations_unique} holds.
+     *
+     * @return the number of donations written
+     */
+    public long writeDonations(Writer out, long firstUserId, long firstDonationId) throws IOException {
+        StringBuilder row = new StringBuilder(64);
+        long admins = admins();
+        long id = firstDonationId;
+        for (long offset = 0; offset < users; offset++) {
+            if (isAdmin(offset)) {
+                continue;
+            }
+            SplittableRandom random = random(offset);
+            // same draws as writeUsers, in the same order
+            random.nextInt(NAME_POOL_SIZE);
+            random.nextInt(NAME_POOL_SIZE);
+            bloodType(random);
+            LocalDate date = lastDonationDate(random);
+            if (date == null) {
+                continue;
+            }
+
+            long donorId = firstUserId + offset;
+            LocalDate earliest = asOf.minusDays(HISTORY_DAYS);
+            int count = donationCount(random);
+            for (int i = 0; i < count && !date.isBefore(earliest); i++) {
+                // the latest donation of one in fifty donors is still waiting for an admin
+                boolean pending = i == 0 && random.nextInt(50) == 0;
+                long adminId = firstUserId + random.nextLong(admins) * ADMIN_EVERY;
+                int units = random.nextInt(10) == 0 ? 2 : 1;
+
+                row.setLength(0);
+                row.append(id++).append('\t')
+                        .append(donorId).append('\t')
+                        .append(pending ? "\\N" : String.valueOf(adminId)).append('\t')
+                        .append(units).append('\t')
+                        .append(date).append('\t')
+                        .append(pending ? "INITIATED" : "CONFIRMED")
+                        .append('\n');
+                out.append(row);
+
+                date = date.minusDays(DEFERRAL_DAYS + random.nextInt(365));
+            }
+        }
+        return id - firstDonationId;
+    }
+
+    static boolean isAdmin(long offset) {
+        return offset % ADMIN_EVERY == 0;
+    }
+
+    private SplittableRandom random(long offset) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + offset);
+    }
+
+    private static BloodType bloodType(SplittableRandom random) {
+        int perMille = random.nextInt(1000);
+        for (int i = 0; i < BLOOD_TYPES.length; i++) {
+            perMille -= BLOOD_TYPE_PER_MILLE[i];
+            if (perMille < 0) {
+                return BLOOD_TYPES[i];
+            }
+        }
+        return BLOOD_TYPES[0];
+    }
+
+    // null when the donor has never donated
+    private LocalDate lastDonationDate(SplittableRandom random) {
+        double draw = random.nextDouble();
+        if (meanDonationsPerDonor == 0 || draw < neverDonatedShare()) {
+            return null;
+        }
+        return asOf.minusDays(random.nextInt(2 * 365));
+    }
+
+    // donors who donated at all give a geometric number of times, so a few
+    // regulars account for many donations, as in real donor populations
+    private int donationCount(SplittableRandom random) {
+        double mean = meanDonationsPerDonor / (1 - neverDonatedShare());
+        double p = 1 / mean;
+        return 1 + (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    private double neverDonatedShare() {
+        // a fifth of donors never donated, unless the requested mean needs more of them donating
+        return meanDonationsPerDonor >= 1.25 ? 0.2 : Math.max(0, 1 - meanDonationsPerDonor);
+    }
+
+    private long firstFreeId(Connection connection, String table, String sequence) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(FIRST_FREE_ID.formatted(table, sequence))) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static Writer copyWriter(PGConnection connection, String sql) throws SQLException {
+        return new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(connection, sql, COPY_BUFFER_SIZE), StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+    }
+
+    // names end up in emails and COPY rows, so keep letters only
+    private static String clean(String name) {
+        String letters = name.replaceAll("[^\\p{L}]", "");
+        return letters.length() < 2 ? "Ana" : letters;
+    }
+}
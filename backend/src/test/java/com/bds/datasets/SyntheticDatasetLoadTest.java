@@ -0,0 +1,45 @@
+package com.bds.datasets;
+
+import com.bds.AbstractTestcontainers;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticDatasetLoadTest extends AbstractTestcontainers {
+
+    @Test
+    void canBulkLoadDatasetOfConfiguredSize() throws SQLException, IOException {
+        // Given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgreSQLContainer.getJdbcUrl(),
+                postgreSQLContainer.getUsername(),
+                postgreSQLContainer.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        DatasetSize size = DatasetSize.fromSystemProperty();
+        Long inventoryBefore = jdbcTemplate.queryForObject("SELECT SUM(units) FROM blood_inventory", Long.class);
+
+        // When
+        LoadedDataset loaded = SyntheticDataset.of(size).load(dataSource);
+
+        // Then
+        assertThat(loaded.users()).isEqualTo(size.users());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE id >= ?", Long.class, loaded.firstUserId()))
+                .isEqualTo(size.users());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM blood_donations WHERE id >= ?", Long.class, loaded.firstDonationId()))
+                .isEqualTo(loaded.donations());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(units) FROM blood_inventory", Long.class))
+                .isEqualTo(inventoryBefore + jdbcTemplate.queryForObject(
+                        "SELECT SUM(units) FROM blood_donations WHERE id >= ?", Long.class, loaded.firstDonationId()));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT nextval('users_id_seq')", Long.class))
+                .isGreaterThan(loaded.firstUserId() + loaded.users());
+    }
+}
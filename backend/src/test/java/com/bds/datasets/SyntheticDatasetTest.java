@@ -0,0 +1,108 @@
+package com.bds.datasets;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SyntheticDatasetTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void sameSeedProducesSameRows() throws IOException {
+        // Given
+        SyntheticDataset first = new SyntheticDataset(2_000, 6_000, 7, AS_OF);
+        SyntheticDataset second = new SyntheticDataset(2_000, 6_000, 7, AS_OF);
+        SyntheticDataset otherSeed = new SyntheticDataset(2_000, 6_000, 8, AS_OF);
+
+        // When
+        String users = users(first);
+        String donations = donations(first);
+
+        // Then
+        assertThat(users(second)).isEqualTo(users);
+        assertThat(donations(second)).isEqualTo(donations);
+        assertThat(users(otherSeed)).isNotEqualTo(users);
+    }
+
+    @Test
+    void donationsAreUniquePerDonorAndDateAndMatchEligibility() throws IOException {
+        // Given
+        SyntheticDataset underTest = new SyntheticDataset(20_000, 60_000, 42, AS_OF);
+
+        // When
+        List<String[]> users = rows(users(underTest));
+        List<String[]> donations = rows(donations(underTest));
+
+        // Then
+        assertThat(users).hasSize(20_000);
+        assertThat(users.stream().filter(user -> user[4].equals("ADMIN"))).hasSize(200);
+        assertThat(users.stream().map(user -> user[3]).distinct()).hasSize(20_000);
+        assertThat((double) donations.size()).isCloseTo(60_000, within(60_000 * 0.05));
+
+        Set<String> donorDates = new HashSet<>();
+        for (String[] donation : donations) {
+            assertThat(donorDates.add(donation[1] + "/" + donation[4])).isTrue();
+        }
+
+        Map<String, String[]> usersById = users.stream().collect(Collectors.toMap(user -> user[0], Function.identity()));
+        Map<String, String> lastDonations = donations.stream().collect(Collectors.toMap(
+                donation -> donation[1], donation -> donation[4], (a, b) -> a.compareTo(b) > 0 ? a : b));
+        lastDonations.forEach((donorId, lastDonation) -> {
+            String[] donor = usersById.get(donorId);
+            assertThat(donor[4]).isEqualTo("DONOR");
+            assertThat(donor[6]).isEqualTo(lastDonation);
+            assertThat(donor[7]).isEqualTo(LocalDate.parse(lastDonation).plusDays(56).toString());
+        });
+        donations.stream()
+                .filter(donation -> !donation[2].equals("\\N"))
+                .forEach(admin -> assertThat(usersById.get(admin[2])[4]).isEqualTo("ADMIN"));
+        donations.forEach(donation -> assertThat(donation[5])
+                .isEqualTo(donation[2].equals("\\N") ? "INITIATED" : "CONFIRMED"));
+    }
+
+    @Test
+    void bloodTypesFollowPopulationFrequencies() throws IOException {
+        // Given
+        SyntheticDataset underTest = new SyntheticDataset(50_000, 0, 42, AS_OF);
+
+        // When
+        Map<String, Long> bloodTypes = rows(users(underTest)).stream()
+                .collect(Collectors.groupingBy(user -> user[5], Collectors.counting()));
+
+        // Then
+        assertThat(bloodTypes.get("OPos") / 50_000.0).isCloseTo(0.374, within(0.01));
+        assertThat(bloodTypes.get("ABNeg") / 50_000.0).isCloseTo(0.006, within(0.003));
+    }
+
+    private static String users(SyntheticDataset dataset) throws IOException {
+        StringWriter out = new StringWriter();
+        dataset.writeUsers(out, 1);
+        return out.toString();
+    }
+
+    private static String donations(SyntheticDataset dataset) throws IOException {
+        StringWriter out = new StringWriter();
+        dataset.writeDonations(out, 1, 1);
+        return out.toString();
+    }
+
+    private static List<String[]> rows(String copy) {
+        return Arrays.stream(copy.split("\n"))
+                .filter(line -> !line.isEmpty())
+                .map(line -> line.split("\t"))
+                .toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.bds.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiExceptionHandlerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ApiExceptionHandler underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new ApiExceptionHandler(meterRegistry);
+    }
+
+    @Test
+    void willCountEachOutcomeByExceptionAndStatus() {
+        // When
+        underTest.handleException(new DuplicateResourceException("duplicate"));
+        underTest.handleException(new ResourceNotFoundException("missing"));
+        underTest.handleException(new ResourceNotFoundException("missing"));
+        underTest.handleException(new BadRequestException(ErrorCode.UNITS_MISMATCH));
+        underTest.handleException(new RequestValidationException("invalid"));
+        underTest.handleException(new ObjectNotValidException(Set.of("invalid")));
+
+        // Then
+        assertThat(count("DuplicateResourceException", HttpStatus.CONFLICT)).isEqualTo(1);
+        assertThat(count("ResourceNotFoundException", HttpStatus.NOT_FOUND)).isEqualTo(2);
+        assertThat(count("BadRequestException", HttpStatus.BAD_REQUEST)).isEqualTo(1);
+        assertThat(count("RequestValidationException", HttpStatus.NOT_ACCEPTABLE)).isEqualTo(1);
+        assertThat(count("ObjectNotValidException", HttpStatus.NOT_ACCEPTABLE)).isEqualTo(1);
+    }
+
+    @Test
+    void willAnswerWithErrorCodeAndCatalogMessage() {
+        // Given
+        DuplicateResourceException duplicate = new DuplicateResourceException(ErrorCode.EMAIL_TAKEN);
+        ResourceNotFoundException notFound = new ResourceNotFoundException(ErrorCode.DONOR_NOT_FOUND, 7L);
+
+        // When
+        ResponseEntity<?> conflict = underTest.handleException(duplicate);
+        ResponseEntity<?> missing = underTest.handleException(notFound);
+
+        // Then
+        assertThat(duplicate.getStackTrace()).isEmpty();
+        assertThat(conflict.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat((ApiException) conflict.getBody())
+                .extracting(ApiException::errorCode, ApiException::message)
+                .containsExactly(ErrorCode.EMAIL_TAKEN, Set.of("email already taken"));
+        assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat((ApiException) missing.getBody())
+                .extracting(ApiException::errorCode, ApiException::message)
+                .containsExactly(ErrorCode.DONOR_NOT_FOUND, Set.of("Donor with given id: 7 does not exist"));
+    }
+
+    private double count(String exception, HttpStatus status) {
+        return meterRegistry.get("bds.api.errors")
+                .tag("exception", exception)
+                .tag("status", String.valueOf(status.value()))
+                .counter()
+                .count();
+    }
+}
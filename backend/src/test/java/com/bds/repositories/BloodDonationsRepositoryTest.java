@@ -1,9 +1,11 @@
 package com.bds.repositories;
 
 import com.bds.AbstractTestcontainers;
-import com.bds.dto.BloodUnits;
+import com.bds.dto.DonorBloodDonation;
+import com.bds.dto.PendingDonation;
 import com.bds.models.BloodDonations;
 import com.bds.models.BloodType;
+import com.bds.models.DonationStatus;
 import com.bds.models.Role;
 import com.bds.models.Users;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,12 +13,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.SortedSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -27,89 +33,13 @@ class BloodDonationsRepositoryTest extends AbstractTestcontainers {
     private BloodDonationsRepository underTest;
     @Autowired
     private UsersRepository usersRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @BeforeEach
     void setUp() {
     }
 
-    @Test
-    void countAvailableUnitsByBloodType() {
-        // Given
-        Users admin = new Users(
-                "m",
-                "b",
-                "m.b@gmail.com",
-                Role.ADMIN,
-                BloodType.APos
-        );
-
-        Users donor = new Users(
-                "n",
-                "s",
-                "n.s@gmail.com",
-                Role.DONOR,
-                BloodType.BNeg
-        );
-
-        usersRepository.saveAll(List.of(admin, donor));
-
-        BloodDonations bloodDonations = new BloodDonations(
-                3,
-                LocalDate.now(),
-                donor,
-                admin
-        );
-
-        underTest.saveAll(List.of(bloodDonations));
-
-        // When
-        List<BloodUnits> bloodUnits = underTest.countAvailableUnitsByBloodType();
-
-        // Then
-        assertThat(bloodUnits).allMatch(bu ->
-            bu.getBloodType().equals(BloodType.BNeg)
-                    && bu.getTotalUnits().equals(3));
-    }
-
-    @Test
-    void countAvailableUnitsByBloodTypeWhenNoBloodUnitIsPresent() {
-        // Given
-        Users admin = new Users(
-                "m",
-                "b",
-                "m.b@gmail.com",
-                Role.ADMIN,
-                BloodType.APos
-        );
-
-        Users donor = new Users(
-                "n",
-                "s",
-                "n.s@gmail.com",
-                Role.DONOR,
-                BloodType.BNeg
-        );
-
-        usersRepository.saveAll(List.of(admin, donor));
-
-        BloodDonations bloodDonations = new BloodDonations(
-                0,
-                LocalDate.now(),
-                donor,
-                admin
-        );
-
-        underTest.saveAll(List.of(bloodDonations));
-
-        // When
-        List<BloodUnits> bloodUnits = underTest.countAvailableUnitsByBloodType();
-
-        // Then
-        assertThat(bloodUnits).allMatch(bu ->
-                bu.getBloodType().equals(BloodType.BNeg)
-                        && bu.getTotalUnits().equals(0));
-    }
-
     @Test
     void existsBloodDonationsByDonorAndDonationDate() {
         // Given
@@ -485,7 +415,7 @@ class BloodDonationsRepositoryTest extends AbstractTestcontainers {
     }
 
     @Test
-    void findByDonorId() {
+    void findDonationsByDonorId() {
         // Given
         Users admin = new Users(
                 "m",
@@ -505,30 +435,44 @@ class BloodDonationsRepositoryTest extends AbstractTestcontainers {
         );
         usersRepository.save(donor);
 
-        BloodDonations bloodDonations = new BloodDonations(
-                3,
-                LocalDate.now(),
-                admin,
-                donor
-        );
-        underTest.save(bloodDonations);
+        LocalDate today = LocalDate.now();
+        underTest.save(new BloodDonations(3, today, donor, admin));
+        underTest.save(new BloodDonations(1, today.minusDays(60), donor));
 
         // When
-        Long id = usersRepository.findAll()
-                .stream()
-                .filter(bd -> bd.getEmail().equals("n.s@gmail.com"))
-                .map(Users::getId)
-                .findFirst()
-                .orElseThrow();
+        List<DonorBloodDonation> donationsByDonorId = underTest.findDonationsByDonorId(donor.getId());
 
-        List<BloodDonations> donationsByDonorId = underTest.findByDonorId(id);
+        // Then
+        assertThat(donationsByDonorId)
+                .extracting(DonorBloodDonation::units, DonorBloodDonation::donationDate, DonorBloodDonation::adminId,
+                        DonorBloodDonation::status)
+                .containsExactly(
+                        tuple(1, today.minusDays(60), null, DonationStatus.INITIATED),
+                        tuple(3, today, admin.getId(), DonationStatus.CONFIRMED));
+    }
+
+    @Test
+    void findDonationsByDonorIdWhenDonorIdNotPresent() {
+        // Given
+        Users donor = new Users(
+                "n",
+                "s",
+                "n.s@gmail.com",
+                Role.DONOR,
+                BloodType.BNeg
+        );
+        usersRepository.save(donor);
+        underTest.save(new BloodDonations(3, LocalDate.now(), donor));
+
+        // When
+        List<DonorBloodDonation> donationsByDonorId = underTest.findDonationsByDonorId(donor.getId() + 1);
 
         // Then
-        assertThat(donationsByDonorId).allMatch(d -> d.getId().equals(id));
+        assertThat(donationsByDonorId).isEmpty();
     }
 
     @Test
-    void findByDonorIdWhenDonorIdNotPresent() {
+    void insertIfAbsent() {
         // Given
         Users admin = new Users(
                 "m",
@@ -537,8 +481,31 @@ class BloodDonationsRepositoryTest extends AbstractTestcontainers {
                 Role.ADMIN,
                 BloodType.APos
         );
-        usersRepository.save(admin);
 
+        Users donor = new Users(
+                "n",
+                "s",
+                "n.s@gmail.com",
+                Role.DONOR,
+                BloodType.BNeg
+        );
+        usersRepository.saveAll(List.of(admin, donor));
+
+        LocalDate donationDate = LocalDate.now();
+
+        // When
+        Long firstId = underTest.insertIfAbsent(donor.getId(), admin.getId(), 2, donationDate);
+        Long secondId = underTest.insertIfAbsent(donor.getId(), null, 3, donationDate);
+
+        // Then
+        assertThat(firstId).isNotNull();
+        assertThat(secondId).isNull();
+        assertThat(underTest.findUnitsByDonationId(firstId)).isEqualTo(2);
+    }
+
+    @Test
+    void insertIfAbsentWithoutAdmin() {
+        // Given
         Users donor = new Users(
                 "n",
                 "s",
@@ -548,25 +515,229 @@ class BloodDonationsRepositoryTest extends AbstractTestcontainers {
         );
         usersRepository.save(donor);
 
-        BloodDonations bloodDonations = new BloodDonations(
-                3,
-                LocalDate.now(),
-                admin,
-                donor
+        // When
+        Long id = underTest.insertIfAbsent(donor.getId(), null, 1, LocalDate.now());
+
+        // Then
+        assertThat(id).isNotNull();
+        assertThat(underTest.existsBloodDonationsByDonationId(id)).isTrue();
+    }
+
+    @Test
+    void confirmDonation() {
+        // Given
+        Users admin = new Users(
+                "m",
+                "b",
+                "m.b@gmail.com",
+                Role.ADMIN,
+                BloodType.APos
         );
-        underTest.save(bloodDonations);
+
+        Users donor = new Users(
+                "n",
+                "s",
+                "n.s@gmail.com",
+                Role.DONOR,
+                BloodType.BNeg
+        );
+        usersRepository.saveAll(List.of(admin, donor));
+
+        Long donationId = underTest.insertIfAbsent(donor.getId(), null, 3, LocalDate.now());
 
         // When
-        Long id = usersRepository.findAll()
-                .stream()
-                .filter(bd -> bd.getEmail().equals("n.s@gmail.com"))
-                .map(Users::getId)
-                .findFirst()
-                .orElseThrow();
+        Long wrongUnits = underTest.confirmDonation(donationId, admin.getId(), 4);
+        Long confirmed = underTest.confirmDonation(donationId, admin.getId(), 3);
+        Long confirmedAgain = underTest.confirmDonation(donationId, admin.getId(), 3);
+        Long missing = underTest.confirmDonation(donationId + 1, admin.getId(), 3);
 
-        List<BloodDonations> donationsByDonorId = underTest.findByDonorId(id+1);
+        // Then
+        assertThat(wrongUnits).isNull();
+        assertThat(confirmed).isEqualTo(donor.getId());
+        assertThat(confirmedAgain).isNull();
+        assertThat(missing).isNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT donation_count FROM users WHERE id = ?", Integer.class, donor.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void rejectDonation() {
+        // Given
+        Users admin = new Users(
+                "m",
+                "b",
+                "m.b@gmail.com",
+                Role.ADMIN,
+                BloodType.APos
+        );
+
+        Users donor = new Users(
+                "n",
+                "s",
+                "n.s@gmail.com",
+                Role.DONOR,
+                BloodType.BNeg
+        );
+        usersRepository.saveAll(List.of(admin, donor));
+
+        Long donationId = underTest.insertIfAbsent(donor.getId(), null, 3, LocalDate.now());
+
+        // When
+        Long rejected = underTest.rejectDonation(donationId, admin.getId());
+        Long confirmed = underTest.confirmDonation(donationId, admin.getId(), 3);
 
         // Then
-        assertThat(donationsByDonorId).isEmpty();
+        assertThat(rejected).isEqualTo(donor.getId());
+        assertThat(confirmed).isNull();
+        assertThat(underTest.findStatusByDonationId(donationId)).isEqualTo(DonationStatus.REJECTED);
+    }
+
+    @Test
+    void claimPendingHandsOutDisjointBatches() {
+        // Given
+        Users first = new Users(
+                "m",
+                "b",
+                "m.b@gmail.com",
+                Role.ADMIN,
+                BloodType.APos
+        );
+
+        Users second = new Users(
+                "j",
+                "j",
+                "j.j@gmail.com",
+                Role.ADMIN,
+                BloodType.APos
+        );
+
+        Users donor = new Users(
+                "n",
+                "s",
+                "n.s@gmail.com",
+                Role.DONOR,
+                BloodType.BNeg
+        );
+        usersRepository.saveAll(List.of(first, second, donor));
+
+        LocalDate today = LocalDate.now();
+        List<Long> pending = List.of(
+                underTest.insertIfAbsent(donor.getId(), null, 1, today.minusDays(2)),
+                underTest.insertIfAbsent(donor.getId(), null, 1, today.minusDays(1)),
+                underTest.insertIfAbsent(donor.getId(), null, 1, today));
+        underTest.insertIfAbsent(donor.getId(), first.getId(), 1, today.minusDays(3));
+
+        // When
+        List<PendingDonation> firstBatch = underTest.claimPending(first.getId(), 2, Duration.ofMinutes(15));
+        List<PendingDonation> secondBatch = underTest.claimPending(second.getId(), 2, Duration.ofMinutes(15));
+
+        // Then
+        assertThat(firstBatch).extracting(PendingDonation::id).containsExactly(pending.get(0), pending.get(1));
+        assertThat(secondBatch).extracting(PendingDonation::id).containsExactly(pending.get(2));
+        assertThat(underTest.findStatusByDonationId(pending.get(0))).isEqualTo(DonationStatus.CLAIMED);
+    }
+
+    @Test
+    void onlyTheClaimingAdminCanConfirmOrRejectClaimedDonation() {
+        // Given
+        Users first = new Users(
+                "m",
+                "b",
+                "m.b@gmail.com",
+                Role.ADMIN,
+                BloodType.APos
+        );
+
+        Users second = new Users(
+                "j",
+                "j",
+                "j.j@gmail.com",
+                Role.ADMIN,
+                BloodType.APos
+        );
+
+        Users donor = new Users(
+                "n",
+                "s",
+                "n.s@gmail.com",
+                Role.DONOR,
+                BloodType.BNeg
+        );
+        usersRepository.saveAll(List.of(first, second, donor));
+
+        Long donationId = underTest.insertIfAbsent(donor.getId(), null, 3, LocalDate.now());
+        underTest.claimPending(first.getId(), 1, Duration.ofMinutes(15));
+
+        // When
+        Long confirmedByOther = underTest.confirmDonation(donationId, second.getId(), 3);
+        Long rejectedByOther = underTest.rejectDonation(donationId, second.getId());
+        Long confirmedByClaimant = underTest.confirmDonation(donationId, first.getId(), 3);
+
+        // Then
+        assertThat(confirmedByOther).isNull();
+        assertThat(rejectedByOther).isNull();
+        assertThat(confirmedByClaimant).isEqualTo(donor.getId());
+        assertThat(underTest.findStatusByDonationId(donationId)).isEqualTo(DonationStatus.CONFIRMED);
+    }
+
+    @Test
+    void findPartitionYears() {
+        // Given
+        int year = LocalDate.now().getYear();
+
+        // When
+        underTest.createPartition(year + 5);
+        SortedSet<Integer> years = underTest.findPartitionYears();
+
+        // Then
+        assertThat(years).contains(year, year + 1, year + 2, year + 5);
+    }
+
+    @Test
+    void createPartitionMovesRowsOutOfDefaultPartition() {
+        // Given
+        Users donor = new Users(
+                "n",
+                "s",
+                "n.s@gmail.com",
+                Role.DONOR,
+                BloodType.BNeg
+        );
+        usersRepository.save(donor);
+
+        LocalDate donationDate = LocalDate.now().plusYears(8);
+        Long donationId = underTest.insertIfAbsent(donor.getId(), null, 2, donationDate);
+
+        // When
+        long moved = underTest.createPartition(donationDate.getYear());
+
+        // Then
+        assertThat(moved).isEqualTo(1);
+        assertThat(underTest.findPartitionYears()).contains(donationDate.getYear());
+        assertThat(underTest.existsBloodDonationsByDonationId(donationId)).isTrue();
+        assertThat(underTest.insertIfAbsent(donor.getId(), null, 2, donationDate.plusYears(1))).isNotNull();
+    }
+
+    @Test
+    void detachPartition() {
+        // Given
+        Users donor = new Users(
+                "n",
+                "s",
+                "n.s@gmail.com",
+                Role.DONOR,
+                BloodType.BNeg
+        );
+        usersRepository.save(donor);
+
+        LocalDate donationDate = LocalDate.now().minusYears(5);
+        Long donationId = underTest.insertIfAbsent(donor.getId(), null, 2, donationDate);
+
+        // When
+        underTest.detachPartition(donationDate.getYear());
+
+        // Then
+        assertThat(underTest.findPartitionYears()).doesNotContain(donationDate.getYear());
+        assertThat(underTest.existsBloodDonationsByDonationId(donationId)).isFalse();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,106 @@
+package com.bds.repositories;
+
+import com.bds.AbstractTestcontainers;
+import com.bds.dto.BloodUnits;
+import com.bds.dto.InventorySnapshot;
+import com.bds.models.BloodDonations;
+import com.bds.models.BloodType;
+import com.bds.models.Role;
+import com.bds.models.Users;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+class BloodInventoryRepositoryTest extends AbstractTestcontainers {
+
+    @Autowired
+    private BloodInventoryRepository underTest;
+    @Autowired
+    private BloodDonationsRepository bloodDonationsRepository;
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Test
+    void findAvailableUnitsReturnsOneRowPerBloodType() {
+        // Given
+
+        // When
+        List<BloodUnits> bloodUnits = underTest.findAvailableUnits();
+
+        // Then
+        assertThat(bloodUnits).hasSize(BloodType.values().length);
+    }
+
+    @Test
+    void addDonorUnits() {
+        // Given
+        Users donor = new Users(
+                "n",
+                "s",
+                "inventory.donor@gmail.com",
+                Role.DONOR,
+                BloodType.ABNeg
+        );
+        usersRepository.save(donor);
+        bloodDonationsRepository.save(new BloodDonations(4, LocalDate.now(), donor));
+
+        Long before = underTest.findById(BloodType.ABNeg).orElseThrow().getUnits();
+        long lastLedgerId = underTest.findLastLedgerId();
+
+        // When
+        BloodType bloodType = underTest.addDonorUnits(donor.getId(), 4, "DONATION");
+
+        // Then
+        assertThat(bloodType).isEqualTo(BloodType.ABNeg);
+        assertThat(underTest.findAvailableUnits())
+                .anyMatch(bu -> bu.getBloodType().equals(BloodType.ABNeg)
+                        && bu.getTotalUnits().equals(before.intValue() + 4));
+        assertThat(underTest.sumLedger(lastLedgerId, underTest.findLastLedgerId()))
+                .containsExactly(entry(BloodType.ABNeg, 4L));
+    }
+
+    @Test
+    void removeUnitsNeverGoesBelowZero() {
+        // Given
+        Long before = underTest.findById(BloodType.BPos).orElseThrow().getUnits();
+        underTest.addUnits("BPos", 3L, "DONATION");
+        long lastLedgerId = underTest.findLastLedgerId();
+
+        // When
+        Long tooMany = underTest.removeUnits("BPos", before + 4, "DISPENSE");
+        Long remaining = underTest.removeUnits("BPos", before + 3, "DISPENSE");
+
+        // Then
+        assertThat(tooMany).isNull();
+        assertThat(remaining).isZero();
+        assertThat(underTest.sumLedger(lastLedgerId, underTest.findLastLedgerId()))
+                .containsExactly(entry(BloodType.BPos, -(before + 3)));
+    }
+
+    @Test
+    void saveSnapshotBecomesLatestSnapshot() {
+        // Given
+        InventorySnapshot opening = underTest.findLatestSnapshot();
+        long lastLedgerId = underTest.findLastLedgerId() + 1;
+
+        // When
+        underTest.saveSnapshot(new InventorySnapshot(lastLedgerId, Map.of(BloodType.ONeg, 7L)));
+
+        // Then
+        assertThat(opening.units()).hasSize(BloodType.values().length);
+        assertThat(underTest.findLatestSnapshot())
+                .isEqualTo(new InventorySnapshot(lastLedgerId, Map.of(BloodType.ONeg, 7L)));
+    }
+}
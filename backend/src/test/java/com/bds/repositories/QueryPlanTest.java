@@ -0,0 +1,286 @@
+package com.bds.repositories;
+
+import com.bds.AbstractTestcontainers;
+import com.bds.datasets.DatasetSize;
+import com.bds.datasets.LoadedDataset;
+import com.bds.datasets.SyntheticDataset;
+import com.bds.models.Role;
+import com.bds.models.Users;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN (FORMAT JSON)} for the SQL Hibernate sends for every
+ * {@code @Query} of {@link BloodDonationsRepository} and {@link UsersRepository}
+ * against a synthetic dataset ({@code SMALL} unless {@code -Dbds.dataset.size}
+ * says otherwise), and fails when a hot query plans a sequential scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.bds.repositories.RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+class QueryPlanTest extends AbstractTestcontainers {
+
+    // below this a sequential scan is the cheapest plan for any query
+    private static final int MIN_PAGES_TO_CHECK = 64;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static JdbcTemplate jdbcTemplate;
+    private static LoadedDataset dataset;
+
+    @Autowired
+    private BloodDonationsRepository bloodDonationsRepository;
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @BeforeAll
+    static void loadDataset() throws SQLException, IOException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgreSQLContainer.getJdbcUrl(),
+                postgreSQLContainer.getUsername(),
+                postgreSQLContainer.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        dataset = SyntheticDataset.of(DatasetSize.fromSystemProperty(DatasetSize.SMALL)).load(dataSource);
+    }
+
+    @Test
+    void everyQueryHasPlanCase() {
+        // Given
+        Set<String> queries = new TreeSet<>();
+        queries.addAll(queryMethods(BloodDonationsRepository.class));
+        queries.addAll(queryMethods(UsersRepository.class));
+
+        // When
+        Set<String> cases = planCases().keySet();
+
+        // Then
+        assertThat(cases).containsExactlyInAnyOrderElementsOf(queries);
+    }
+
+    @Test
+    void hotQueriesDoNotScanLargeTables() {
+        // Given
+        Map<String, PlanCase> cases = planCases();
+        SoftAssertions softly = new SoftAssertions();
+
+        for (Map.Entry<String, PlanCase> entry : cases.entrySet()) {
+            // When
+            RecordingStatementInspector.drain();
+            entry.getValue().invocation().run();
+            List<String> statements = RecordingStatementInspector.drain();
+            assertThat(statements).as(entry.getKey()).isNotEmpty();
+            JsonNode plan = explain(statements.get(statements.size() - 1), entry.getValue().binds());
+
+            // Then
+            if (!entry.getValue().fullScan()) {
+                softly.assertThat(largeSeqScans(plan))
+                        .as("%s planned sequential scans:%n%s", entry.getKey(), plan.toPrettyString())
+                        .isEmpty();
+            }
+        }
+        softly.assertAll();
+    }
+
+    @Test
+    void claimingPendingDonationsUsesPendingIndex() {
+        // Given
+        long adminId = dataset.firstUserId();
+
+        // When
+        JsonNode plan = explain(BloodDonationsQueueRepositoryImpl.CLAIM_PENDING, List.of(900.0, 100, adminId));
+
+        // Then
+        assertThat(largeSeqScans(plan)).as("claim planned sequential scans:%n%s", plan.toPrettyString()).isEmpty();
+    }
+
+    @Test
+    void foreignKeyChecksUseIndexes() {
+        // Given
+        // the lookups PostgreSQL runs for every foreign key when a user is deleted
+        long userId = dataset.firstUserId();
+        Map<String, String> checks = Map.of(
+                "fk_donor_id", "SELECT 1 FROM blood_donations WHERE donor_id = ?",
+                "fk_admin_id", "SELECT 1 FROM blood_donations WHERE admin_id = ?",
+                "fk_claimed_by", "SELECT 1 FROM blood_donations WHERE claimed_by = ?",
+                "fk_organizer_id", "SELECT 1 FROM blood_donation_event WHERE organizer_id = ?"
+        );
+        SoftAssertions softly = new SoftAssertions();
+
+        checks.forEach((constraint, sql) -> {
+            // When
+            JsonNode plan = explain(sql, List.of(userId));
+
+            // Then
+            softly.assertThat(largeSeqScans(plan))
+                    .as("%s planned sequential scans:%n%s", constraint, plan.toPrettyString())
+                    .isEmpty();
+        });
+        softly.assertAll();
+    }
+
+    private Map<String, PlanCase> planCases() {
+        long adminId = dataset.firstUserId();
+        long donorId = dataset.firstUserId() + 1;
+        List<Long> donorIds = List.of(donorId, donorId + 1, donorId + 2);
+        long donationId = dataset.firstDonationId();
+        Map<String, Object> donation = jdbcTemplate.queryForMap(
+                "SELECT donor_id, donation_date, units FROM blood_donations WHERE id = ?", donationId);
+        long donationDonorId = ((Number) donation.get("donor_id")).longValue();
+        LocalDate donationDate = ((Date) donation.get("donation_date")).toLocalDate();
+        int units = ((Number) donation.get("units")).intValue();
+        String email = jdbcTemplate.queryForObject("SELECT email FROM users WHERE id = ?", String.class, donorId);
+        LocalDate from = donationDate.minusYears(1);
+        LocalDate to = donationDate.plusYears(1);
+        LocalDate newDate = LocalDate.of(2023, 6, 1);
+
+        Map<String, PlanCase> cases = new LinkedHashMap<>();
+        cases.put("BloodDonationsRepository.existsBloodDonationsByDonorAndDonationDate", new PlanCase(
+                () -> bloodDonationsRepository.existsBloodDonationsByDonorAndDonationDate(donationDonorId, donationDate),
+                List.of(donationDonorId, donationDate), false));
+        cases.put("BloodDonationsRepository.insertIfAbsent", new PlanCase(
+                () -> bloodDonationsRepository.insertIfAbsent(donorId, adminId, 1, newDate),
+                List.of(donorId, adminId, 1, newDate), false));
+        cases.put("BloodDonationsRepository.confirmDonation", new PlanCase(
+                () -> bloodDonationsRepository.confirmDonation(donationId, adminId, units),
+                List.of(adminId, donationId, units, adminId), false));
+        cases.put("BloodDonationsRepository.rejectDonation", new PlanCase(
+                () -> bloodDonationsRepository.rejectDonation(donationId, adminId),
+                List.of(adminId, donationId, adminId), false));
+        cases.put("BloodDonationsRepository.findDonationKeys", new PlanCase(
+                () -> bloodDonationsRepository.findDonationKeys(donorIds, from, to),
+                concat(donorIds, List.of(from, to)), false));
+        cases.put("BloodDonationsRepository.existsBloodDonationsByDonationId", new PlanCase(
+                () -> bloodDonationsRepository.existsBloodDonationsByDonationId(donationId),
+                List.of(donationId), false));
+        cases.put("BloodDonationsRepository.findUnitsByDonationId", new PlanCase(
+                () -> bloodDonationsRepository.findUnitsByDonationId(donationId),
+                List.of(donationId), false));
+        cases.put("BloodDonationsRepository.findStatusByDonationId", new PlanCase(
+                () -> bloodDonationsRepository.findStatusByDonationId(donationId),
+                List.of(donationId), false));
+        cases.put("BloodDonationsRepository.findDonationsByDonorId", new PlanCase(
+                () -> bloodDonationsRepository.findDonationsByDonorId(donationDonorId),
+                List.of(donationDonorId), false));
+        // admins are one user in a hundred; listing every donor reads the whole table anyway
+        cases.put("UsersRepository.findByRoleIs", new PlanCase(
+                () -> usersRepository.findByRoleIs(Role.ADMIN),
+                List.of(Role.ADMIN), false));
+        cases.put("UsersRepository.findPageByRole", new PlanCase(
+                () -> usersRepository.findPageByRole(Role.DONOR, donorId, PageRequest.of(0, 50)),
+                List.of(Role.DONOR, donorId, 50), false));
+        cases.put("UsersRepository.existsUsersByEmail", new PlanCase(
+                () -> usersRepository.existsUsersByEmail(email),
+                List.of(email), false));
+        cases.put("UsersRepository.findUsersByEmail", new PlanCase(
+                () -> usersRepository.findUsersByEmail(email),
+                List.of(email), false));
+        cases.put("UsersRepository.findBloodTypesByIdIn", new PlanCase(
+                () -> usersRepository.findBloodTypesByIdIn(donorIds),
+                donorIds, false));
+        cases.put("UsersRepository.recordDonations", new PlanCase(
+                () -> usersRepository.recordDonations(donorIds, newDate, newDate.plusDays(56), true),
+                concat(List.of(newDate, newDate.plusDays(56), true), donorIds), false));
+        cases.put("UsersRepository.lockById", new PlanCase(
+                () -> usersRepository.lockById(donationDonorId),
+                List.of(donationDonorId), false));
+        cases.put("UsersRepository.resetEligibility", new PlanCase(
+                () -> usersRepository.resetEligibility(donationDonorId, "P56D", Users.NEVER_DONATED),
+                List.of("P56D", Users.NEVER_DONATED, donationDonorId, donationDonorId), false));
+        return cases;
+    }
+
+    private static Set<String> queryMethods(Class<?> repository) {
+        Set<String> names = new TreeSet<>();
+        for (Method method : repository.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Query.class)) {
+                names.add(repository.getSimpleName() + "." + method.getName());
+            }
+        }
+        return names;
+    }
+
+    private static JsonNode explain(String sql, List<?> binds) {
+        StringBuilder explained = new StringBuilder("EXPLAIN (FORMAT JSON) ");
+        int bind = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                assertThat(bind).as("more placeholders than binds in %s", sql).isLessThan(binds.size());
+                explained.append(literal(binds.get(bind++)));
+            } else {
+                explained.append(c);
+            }
+        }
+        assertThat(bind).as("fewer placeholders than binds in %s", sql).isEqualTo(binds.size());
+        try {
+            return objectMapper.readTree(jdbcTemplate.queryForObject(explained.toString(), String.class))
+                    .get(0).get("Plan");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String literal(Object value) {
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        String text = value instanceof Enum<?> e ? e.name() : value.toString();
+        return "'" + text.replace("'", "''") + "'";
+    }
+
+    private static List<String> largeSeqScans(JsonNode plan) {
+        List<String> scans = new ArrayList<>();
+        collectSeqScans(plan, scans);
+        return scans.stream()
+                .filter(relation -> pages(relation) >= MIN_PAGES_TO_CHECK)
+                .toList();
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> scans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            scans.add(node.get("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, scans);
+        }
+    }
+
+    private static int pages(String relation) {
+        return jdbcTemplate.queryForObject(
+                "SELECT relpages FROM pg_class WHERE relname = ?", Integer.class, relation);
+    }
+
+    private static List<Object> concat(List<?> first, List<?> second) {
+        List<Object> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    private record PlanCase(Runnable invocation, List<?> binds, boolean fullScan) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.bds.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the SQL Hibernate prepares on the current thread, so tests can look at
+ * exactly what a repository method sends to the database.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        statements.get().add(sql);
+        return sql;
+    }
+
+    public static List<String> drain() {
+        List<String> recorded = List.copyOf(statements.get());
+        statements.get().clear();
+        return recorded;
+    }
+}
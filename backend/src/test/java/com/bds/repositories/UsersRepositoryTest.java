@@ -1,6 +1,7 @@
 package com.bds.repositories;
 
 import com.bds.AbstractTestcontainers;
+import com.bds.dto.EligibleDonor;
 import com.bds.models.BloodType;
 import com.bds.models.Role;
 import com.bds.models.Users;
@@ -9,11 +10,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -23,6 +30,9 @@ class UsersRepositoryTest extends AbstractTestcontainers {
     @Autowired
     private UsersRepository underTest;
 
+    @Autowired
+    private BloodDonationsRepository bloodDonationsRepository;
+
     @BeforeEach
     void setUp() {
     }
@@ -82,6 +92,38 @@ class UsersRepositoryTest extends AbstractTestcontainers {
         // Then
         assertThat(allUsers).isEmpty();//               allMatch(user -> user.getRole().equals(Role.ADMIN));
     }
+    @Test
+    void findPageByRole() {
+        // Given
+        Users first = underTest.save(new Users("milos", "bacetic", "milos.bacetic@gmail.com", Role.DONOR, BloodType.APos));
+        Users second = underTest.save(new Users("nemanja", "stanojevic", "nemanja.stanojevic@gmail.com", Role.DONOR, BloodType.BNeg));
+        Users third = underTest.save(new Users("ana", "anic", "ana.anic@gmail.com", Role.DONOR, BloodType.ONeg));
+        underTest.save(new Users("marko", "markovic", "marko.markovic@gmail.com", Role.ADMIN, BloodType.ONeg));
+
+        // When
+        List<Users> firstPage = underTest.findPageByRole(Role.DONOR, first.getId() - 1, PageRequest.of(0, 2));
+        List<Users> secondPage = underTest.findPageByRole(Role.DONOR, second.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(firstPage).extracting(Users::getId).containsExactly(first.getId(), second.getId());
+        assertThat(secondPage).extracting(Users::getId).containsExactly(third.getId());
+    }
+
+    @Test
+    void forEachByRole() {
+        // Given
+        underTest.save(new Users("milos", "bacetic", "milos.bacetic@gmail.com", Role.DONOR, BloodType.APos));
+        underTest.save(new Users("marko", "markovic", "marko.markovic@gmail.com", Role.ADMIN, BloodType.ONeg));
+        List<Users> streamed = new ArrayList<>();
+
+        // When
+        underTest.forEachByRole(Role.DONOR, streamed::add);
+
+        // Then
+        assertThat(streamed).isNotEmpty().allMatch(user -> user.getRole().equals(Role.DONOR));
+        assertThat(streamed).extracting(Users::getId).isSorted();
+    }
+
     @Test
     void existsUsersByEmail() {
         // Given
@@ -159,4 +201,97 @@ class UsersRepositoryTest extends AbstractTestcontainers {
         // Then
         assertThat(milos).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void recordDonationsMovesDonorOutOfEligibleRangeUntilDeferralEnds() {
+        // Given
+        LocalDate donationDate = LocalDate.of(2023, 3, 1);
+        Users donor = underTest.save(new Users("milos", "bacetic", "milos.bacetic@gmail.com", Role.DONOR, BloodType.ABNeg));
+        underTest.flush();
+
+        // When
+        int updated = underTest.recordDonations(List.of(donor.getId()), donationDate, donationDate.plusDays(56), true);
+        underTest.recordDonations(List.of(donor.getId()), donationDate.minusYears(1), donationDate.minusYears(1).plusDays(56), true);
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(underTest.findEligibleDonors(BloodType.ABNeg, donationDate.plusDays(55), LocalDate.MIN, 0L, 10))
+                .extracting(EligibleDonor::id)
+                .doesNotContain(donor.getId());
+        assertThat(underTest.findEligibleDonors(BloodType.ABNeg, donationDate.plusDays(56), LocalDate.MIN, 0L, 10))
+                .filteredOn(eligible -> eligible.id().equals(donor.getId()))
+                .singleElement()
+                .satisfies(eligible -> {
+                    assertThat(eligible.lastDonationDate()).isEqualTo(donationDate);
+                    assertThat(eligible.nextEligibleDate()).isEqualTo(donationDate.plusDays(56));
+                });
+    }
+
+    @Test
+    void donorProfilesCountConfirmedDonations() {
+        // Given
+        LocalDate donationDate = LocalDate.of(2023, 3, 1);
+        Users donor = underTest.save(new Users("milos", "bacetic", "milos.bacetic@gmail.com", Role.DONOR, BloodType.ABNeg));
+        underTest.flush();
+        underTest.recordDonations(List.of(donor.getId()), donationDate.minusYears(1), donationDate.minusYears(1).plusDays(56), true);
+        underTest.recordDonations(List.of(donor.getId()), donationDate, donationDate.plusDays(56), false);
+        Map<Long, Integer> counts = new HashMap<>();
+
+        // When
+        underTest.forEachDonorProfile((id, bloodType, nextEligibleDate, donationCount) -> counts.put(id, donationCount));
+
+        // Then
+        assertThat(counts).containsEntry(donor.getId(), 1);
+    }
+
+    @Test
+    void resetEligibilityIgnoresRejectedDonations() {
+        // Given
+        LocalDate earlier = LocalDate.of(2023, 1, 2);
+        LocalDate later = LocalDate.of(2023, 3, 1);
+        Users admin = underTest.save(new Users("jovan", "jovic", "jovan.jovic@gmail.com", Role.ADMIN, BloodType.APos));
+        Users donor = underTest.save(new Users("milos", "bacetic", "milos.bacetic@gmail.com", Role.DONOR, BloodType.ABNeg));
+        Users newDonor = underTest.save(new Users("ana", "anic", "ana.anic@gmail.com", Role.DONOR, BloodType.ABNeg));
+        underTest.flush();
+        bloodDonationsRepository.insertIfAbsent(donor.getId(), admin.getId(), 1, earlier);
+        Long rejected = bloodDonationsRepository.insertIfAbsent(donor.getId(), null, 1, later);
+        Long onlyDonation = bloodDonationsRepository.insertIfAbsent(newDonor.getId(), null, 1, later);
+        underTest.recordDonations(List.of(donor.getId(), newDonor.getId()), later, later.plusDays(56), false);
+        bloodDonationsRepository.rejectDonation(rejected, admin.getId());
+        bloodDonationsRepository.rejectDonation(onlyDonation, admin.getId());
+
+        // When
+        underTest.resetEligibility(donor.getId(), "P56D", Users.NEVER_DONATED);
+        underTest.resetEligibility(newDonor.getId(), "P56D", Users.NEVER_DONATED);
+
+        // Then
+        assertThat(underTest.findEligibleDonors(BloodType.ABNeg, earlier.plusDays(56), LocalDate.MIN, 0L, 10))
+                .filteredOn(eligible -> List.of(donor.getId(), newDonor.getId()).contains(eligible.id()))
+                .extracting(EligibleDonor::id, EligibleDonor::lastDonationDate, EligibleDonor::nextEligibleDate)
+                .containsExactly(
+                        tuple(newDonor.getId(), null, null),
+                        tuple(donor.getId(), earlier, earlier.plusDays(56)));
+    }
+
+    @Test
+    void findEligibleDonorsIncludesDonorsWhoNeverDonatedAndPagesByCursor() {
+        // Given
+        Users first = underTest.save(new Users("ana", "anic", "ana.anic@gmail.com", Role.DONOR, BloodType.ANeg));
+        Users second = underTest.save(new Users("iva", "ivic", "iva.ivic@gmail.com", Role.DONOR, BloodType.ANeg));
+        underTest.save(new Users("marko", "markovic", "marko.markovic@gmail.com", Role.ADMIN, BloodType.ANeg));
+        underTest.flush();
+
+        // When
+        List<EligibleDonor> firstPage = underTest.findEligibleDonors(BloodType.ANeg, LocalDate.now(), LocalDate.MIN, 0L, 1);
+        EligibleDonor last = firstPage.get(0);
+        List<EligibleDonor> secondPage = underTest.findEligibleDonors(
+                BloodType.ANeg, LocalDate.now(), last.cursorDate(), last.id(), 10);
+
+        // Then
+        assertThat(firstPage).extracting(EligibleDonor::id).containsExactly(first.getId());
+        assertThat(last.lastDonationDate()).isNull();
+        assertThat(last.nextEligibleDate()).isNull();
+        assertThat(secondPage).extracting(EligibleDonor::id).contains(second.getId()).doesNotContain(first.getId());
+        assertThat(secondPage).extracting(EligibleDonor::bloodType).containsOnly(BloodType.ANeg);
+    }
+}
@@ -34,7 +34,7 @@ class BloodDonationEventServiceTest {
     @Mock
     private UsersRepository usersRepository;
     @Mock
-    private DtoValidator<BloodDonationEventRequest> validator;
+    private DtoValidator validator;
 
     private BloodDonationEventService underTest;
 
@@ -1,34 +1,52 @@
 package com.bds.services;
 
+import com.bds.dto.BatchRowStatus;
+import com.bds.dto.BloodDonationBatchResult;
 import com.bds.dto.BloodDonationRequest;
 import com.bds.dto.ConfirmDonationRequest;
+import com.bds.dto.DonorBloodDonation;
 import com.bds.dto.DonorBloodDonationRequest;
+import com.bds.dto.DonationKey;
+import com.bds.dto.DonorBloodType;
 import com.bds.dto.InitiateBloodDonationRequest;
+import com.bds.dto.PendingDonation;
+import com.bds.dto.RejectDonationRequest;
+import com.bds.events.DonationHistoryChangedEvent;
+import com.bds.exception.BadRequestException;
 import com.bds.exception.DuplicateResourceException;
+import com.bds.exception.ErrorCode;
 import com.bds.exception.RequestValidationException;
 import com.bds.exception.ResourceNotFoundException;
 import com.bds.models.BloodDonations;
 import com.bds.models.BloodType;
+import com.bds.models.DonationStatus;
 import com.bds.models.Role;
 import com.bds.models.Users;
 import com.bds.repositories.BloodDonationsRepository;
 import com.bds.repositories.UsersRepository;
 import com.bds.validators.DtoValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.Period;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -41,12 +59,22 @@ class BloodDonationsServiceTest {
     @Mock
     private UsersRepository usersRepository;
     @Mock
-    private DtoValidator<Object> validator;
+    private DtoValidator validator;
+    @Mock
+    private BloodInventoryService bloodInventoryService;
+    @Mock
+    private ResourceVersions resourceVersions;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
     private BloodDonationsService underTest;
 
     @BeforeEach
     void setUp() {
-        underTest = new BloodDonationsService(bloodDonationsRepository, usersRepository, validator);
+        underTest = new BloodDonationsService(bloodDonationsRepository, usersRepository, validator, bloodInventoryService,
+                resourceVersions, eventPublisher, new ReplicaReads(resourceVersions, transactionManager, Duration.ofSeconds(5)),
+                3, Period.ofDays(56), Duration.ZERO, 100, Duration.ofMinutes(15));
     }
 
     @Test
@@ -57,7 +85,7 @@ class BloodDonationsServiceTest {
         underTest.countAvailableUnitsByBloodType();
 
         // Then
-        verify(bloodDonationsRepository).countAvailableUnitsByBloodType();
+        verify(bloodInventoryService).getAvailableUnits();
     }
 
     @Test
@@ -67,6 +95,7 @@ class BloodDonationsServiceTest {
                 5,
                 LocalDate.now(),
                  new Users(
+                2L,
                 "milos",
                 "bacetic",
                 "milos@gmail.com",
@@ -74,6 +103,7 @@ class BloodDonationsServiceTest {
                 BloodType.APos
                 ),
                 new Users(
+                1L,
                 "nemanja",
                 "nemanjic",
                 "nemanja@gmail.com",
@@ -82,34 +112,19 @@ class BloodDonationsServiceTest {
                 )
         );
 
-        BloodDonations newDonation = new BloodDonations(
-                bloodDonationRequest.units(),
-                bloodDonationRequest.donationDate(),
-                bloodDonationRequest.donor(),
-                bloodDonationRequest.admin()
-        );
-
-        given(bloodDonationsRepository.existsBloodDonationsByDonorAndDonationDate(
+        given(bloodDonationsRepository.insertIfAbsent(
                 bloodDonationRequest.donor().getId(),
+                bloodDonationRequest.admin().getId(),
+                bloodDonationRequest.units(),
                 bloodDonationRequest.donationDate()))
-                .willReturn(false);
+                .willReturn(10L);
 
         // When
-        underTest.addBloodDonation(bloodDonationRequest);
+        BloodDonations capturedBloodDonations = underTest.addBloodDonation(bloodDonationRequest);
 
         // Then
-        ArgumentCaptor<BloodDonations> bloodDonationsRequestCaptor =
-                ArgumentCaptor.forClass(
-                        BloodDonations.class
-                );
-
-        verify(bloodDonationsRepository).save(
-                bloodDonationsRequestCaptor.capture()
-        );
-
-        BloodDonations capturedBloodDonations =
-                bloodDonationsRequestCaptor.getValue();
-
+        assertThat(capturedBloodDonations.getId())
+                .isEqualTo(10L);
         assertThat(capturedBloodDonations.getDonationDate())
                 .isEqualTo(bloodDonationRequest.donationDate());
         assertThat(capturedBloodDonations.getUnits())
@@ -118,6 +133,16 @@ class BloodDonationsServiceTest {
                 .isEqualTo(bloodDonationRequest.donor());
         assertThat(capturedBloodDonations.getAdmin())
                 .isEqualTo(bloodDonationRequest.admin());
+        verify(bloodDonationsRepository, never()).existsBloodDonationsByDonorAndDonationDate(any(), any());
+        verify(bloodDonationsRepository, never()).save(any());
+        verify(bloodInventoryService).recordDonation(
+                bloodDonationRequest.donor().getId(),
+                bloodDonationRequest.units());
+        verify(usersRepository).recordDonations(
+                List.of(bloodDonationRequest.donor().getId()),
+                bloodDonationRequest.donationDate(),
+                bloodDonationRequest.donationDate().plusDays(56),
+                true);
     }
 
     @Test
@@ -142,10 +167,12 @@ class BloodDonationsServiceTest {
                 )
         );
 
-        given(bloodDonationsRepository.existsBloodDonationsByDonorAndDonationDate(
+        given(bloodDonationsRepository.insertIfAbsent(
                         bloodDonationRequest.donor().getId(),
+                        bloodDonationRequest.admin().getId(),
+                        bloodDonationRequest.units(),
                         bloodDonationRequest.donationDate()))
-                .willReturn(true);
+                .willReturn(null);
 
         // When
         // Then
@@ -154,6 +181,7 @@ class BloodDonationsServiceTest {
                 .hasMessage("donor or donation date already exists");
 
         verify(bloodDonationsRepository, never()).save(any());
+        verify(bloodInventoryService, never()).recordDonation(any(), any());
     }
 
     @Test
@@ -161,48 +189,23 @@ class BloodDonationsServiceTest {
         // Given
         Long donationId = 1L;
         Integer units = 5;
-        BloodDonations bloodDonations = new BloodDonations(
-                donationId,
-                units,
-                LocalDate.now(),
-                new Users(
-                        "nemanja",
-                        "nemanjic",
-                        "nemanja@gmail.com",
-                        Role.DONOR,
-                        BloodType.BNeg
-                ),
-                new Users(
-                        "milos",
-                        "bacetic",
-                        "milos@gmail.com",
-                        Role.ADMIN,
-                        BloodType.APos
-                )
-        );
 
         ConfirmDonationRequest confirmDonationRequest = new ConfirmDonationRequest(
                 1L,
                 units
         );
 
-        given(bloodDonationsRepository.findById(donationId)).willReturn(Optional.of(bloodDonations));
-        given(bloodDonationsRepository.findUnitsByDonationId(donationId))
-                .willReturn(confirmDonationRequest.units());
+        given(bloodDonationsRepository.confirmDonation(donationId, 1L, units)).willReturn(2L);
 
         // When
         underTest.confirmBloodDonation(donationId, confirmDonationRequest);
 
         // Then
-        ArgumentCaptor<BloodDonations> bloodDonationsArgumentCaptor =
-                ArgumentCaptor.forClass(BloodDonations.class);
-
-        verify(bloodDonationsRepository)
-                .save(bloodDonationsArgumentCaptor.capture());
-
-        BloodDonations captured = bloodDonationsArgumentCaptor.getValue();
-
-        assertThat(captured.getUnits()).isEqualTo(units);
+        verify(bloodDonationsRepository).confirmDonation(donationId, 1L, units);
+        verify(bloodDonationsRepository, never()).findById(any());
+        verify(bloodDonationsRepository, never()).findUnitsByDonationId(any());
+        verify(bloodDonationsRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(DonationHistoryChangedEvent.of(2L));
     }
 
     @Test
@@ -216,7 +219,8 @@ class BloodDonationsServiceTest {
                 units
         );
 
-        given(bloodDonationsRepository.findById(donationId)).willReturn(Optional.empty());
+        given(bloodDonationsRepository.confirmDonation(donationId, 1L, units)).willReturn(null);
+        given(bloodDonationsRepository.findUnitsByDonationId(donationId)).willReturn(null);
 
         // When
         // Then
@@ -228,51 +232,178 @@ class BloodDonationsServiceTest {
     }
 
     @Test
-    void confirmBloodDonationWillThrowRequestValidationException() {
+    void confirmBloodDonationWillThrowBadRequestExceptionWhenUnitsDiffer() {
     // Given
         Long donationId = 1L;
         Integer units = 5;
-        BloodDonations bloodDonations = new BloodDonations(
-                donationId,
-                units,
-                LocalDate.now(),
-                new Users(
-                        "n",
-                        "n",
-                        "n@gmail.com",
-                        Role.DONOR,
-                        BloodType.BNeg
-                ),
-                new Users(
-                        "m",
-                        "b",
-                        "m@gmail.com",
-                        Role.ADMIN,
-                        BloodType.APos
-                )
-        );
 
         ConfirmDonationRequest confirmDonationRequest = new ConfirmDonationRequest(
                 1L,
                 units
         );
 
-        given(bloodDonationsRepository.findById(donationId)).willReturn(Optional.of(bloodDonations));
+        given(bloodDonationsRepository.confirmDonation(donationId, 1L, units)).willReturn(null);
         given(bloodDonationsRepository.findUnitsByDonationId(donationId)).willReturn(confirmDonationRequest.units()+1);
 
         // Then
         assertThatThrownBy(() -> underTest.confirmBloodDonation(donationId, confirmDonationRequest))
-                .isInstanceOf(RequestValidationException.class)
+                .isInstanceOf(BadRequestException.class)
                 .hasMessage("confirmed units does not match DONOR units");
 
         verify(bloodDonationsRepository, never()).save(any());
     }
 
+    @Test
+    void confirmBloodDonationWillThrowDuplicateResourceExceptionWhenAlreadyConfirmed() {
+        // Given
+        Long donationId = 1L;
+        Integer units = 5;
+
+        ConfirmDonationRequest confirmDonationRequest = new ConfirmDonationRequest(
+                1L,
+                units
+        );
+
+        given(bloodDonationsRepository.confirmDonation(donationId, 1L, units)).willReturn(null);
+        given(bloodDonationsRepository.findUnitsByDonationId(donationId)).willReturn(units);
+        given(bloodDonationsRepository.findStatusByDonationId(donationId)).willReturn(DonationStatus.CONFIRMED);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.confirmBloodDonation(donationId, confirmDonationRequest))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("donation already confirmed");
+    }
+
+    @Test
+    void confirmBloodDonationWillThrowDuplicateResourceExceptionWhenRejected() {
+        // Given
+        Long donationId = 1L;
+        Integer units = 5;
+
+        ConfirmDonationRequest confirmDonationRequest = new ConfirmDonationRequest(1L, units);
+
+        given(bloodDonationsRepository.confirmDonation(donationId, 1L, units)).willReturn(null);
+        given(bloodDonationsRepository.findUnitsByDonationId(donationId)).willReturn(units);
+        given(bloodDonationsRepository.findStatusByDonationId(donationId)).willReturn(DonationStatus.REJECTED);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.confirmBloodDonation(donationId, confirmDonationRequest))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("donation already rejected");
+    }
+
+    @Test
+    void confirmBloodDonationWillThrowDuplicateResourceExceptionWhenClaimedByOtherAdmin() {
+        // Given
+        Long donationId = 1L;
+        Integer units = 5;
+
+        ConfirmDonationRequest confirmDonationRequest = new ConfirmDonationRequest(1L, units);
+
+        given(bloodDonationsRepository.confirmDonation(donationId, 1L, units)).willReturn(null);
+        given(bloodDonationsRepository.findUnitsByDonationId(donationId)).willReturn(units);
+        given(bloodDonationsRepository.findStatusByDonationId(donationId)).willReturn(DonationStatus.CLAIMED);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.confirmBloodDonation(donationId, confirmDonationRequest))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("donation is claimed by another admin")
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.DONATION_CLAIMED_BY_OTHER_ADMIN);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void willRejectBloodDonationAndTakeUnitsOutOfInventory() {
+        // Given
+        Long donationId = 1L;
+        RejectDonationRequest rejectDonationRequest = new RejectDonationRequest(1L);
+
+        given(bloodDonationsRepository.rejectDonation(donationId, 1L)).willReturn(2L);
+        given(bloodDonationsRepository.findUnitsByDonationId(donationId)).willReturn(3);
+
+        // When
+        underTest.rejectBloodDonation(donationId, rejectDonationRequest);
+
+        // Then
+        verify(bloodInventoryService).recordRejection(2L, 3);
+        verify(usersRepository).lockById(2L);
+        verify(usersRepository).resetEligibility(2L, "P56D", Users.NEVER_DONATED);
+        verify(eventPublisher).publishEvent(DonationHistoryChangedEvent.of(2L));
+    }
+
+    @Test
+    void rejectBloodDonationWillThrowDuplicateResourceExceptionWhenClaimedByOtherAdmin() {
+        // Given
+        Long donationId = 1L;
+        RejectDonationRequest rejectDonationRequest = new RejectDonationRequest(1L);
+
+        given(bloodDonationsRepository.rejectDonation(donationId, 1L)).willReturn(null);
+        given(bloodDonationsRepository.findStatusByDonationId(donationId)).willReturn(DonationStatus.CLAIMED);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.rejectBloodDonation(donationId, rejectDonationRequest))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("donation is claimed by another admin");
+        verify(bloodInventoryService, never()).recordRejection(any(), any());
+        verify(usersRepository, never()).resetEligibility(any(), any(), any());
+    }
+
+    @Test
+    void rejectBloodDonationWillThrowResourceNotFoundException() {
+        // Given
+        Long donationId = 1L;
+        RejectDonationRequest rejectDonationRequest = new RejectDonationRequest(1L);
+
+        given(bloodDonationsRepository.rejectDonation(donationId, 1L)).willReturn(null);
+        given(bloodDonationsRepository.findStatusByDonationId(donationId)).willReturn(null);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.rejectBloodDonation(donationId, rejectDonationRequest))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("donation id does not exists");
+        verify(bloodInventoryService, never()).recordDonation(any(), any());
+    }
+
+    @Test
+    void willClaimPendingDonations() {
+        // Given
+        List<PendingDonation> pending = List.of(
+                new PendingDonation(7L, 2L, 1, LocalDate.of(2023, 6, 1)),
+                new PendingDonation(8L, 3L, 2, LocalDate.of(2023, 6, 2)));
+
+        given(usersRepository.existsById(1L)).willReturn(true);
+        given(bloodDonationsRepository.claimPending(1L, 2, Duration.ofMinutes(15))).willReturn(pending);
+
+        // When
+        List<PendingDonation> claimed = underTest.claimPendingDonations(1L, 2);
+
+        // Then
+        assertThat(claimed).isEqualTo(pending);
+        verify(eventPublisher).publishEvent(new DonationHistoryChangedEvent(List.of(2L, 3L)));
+    }
+
+    @Test
+    void claimPendingDonationsWillThrowRequestValidationExceptionWhenBatchTooLarge() {
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.claimPendingDonations(1L, 101))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("limit must be between 1 and 100");
+        verify(bloodDonationsRepository, never()).claimPending(any(), anyInt(), any());
+    }
+
     @Test
     void willInitiateNewBloodDonation() {
         // Given
         InitiateBloodDonationRequest initiateBloodDonationRequest = new InitiateBloodDonationRequest(
                 new Users(
+                    1L,
                     "milos",
                     "bacetic",
                     "milos.bacetic@gmail.com",
@@ -283,25 +414,26 @@ class BloodDonationsServiceTest {
                 LocalDate.now()
         );
 
+        given(bloodDonationsRepository.insertIfAbsent(
+                initiateBloodDonationRequest.donor().getId(),
+                null,
+                initiateBloodDonationRequest.units(),
+                initiateBloodDonationRequest.donationDate()))
+                .willReturn(1L);
+
         // When
         underTest.initiateBloodDonation(initiateBloodDonationRequest);
 
         // Then
-        ArgumentCaptor<BloodDonations> bloodDonationsCaptor =
-                ArgumentCaptor.forClass(
-                        BloodDonations.class
-                );
-
-        verify(bloodDonationsRepository).save(
-                bloodDonationsCaptor.capture()
-        );
-
-        BloodDonations capturedBloodDonations =
-                bloodDonationsCaptor.getValue();
-
-        assertThat(capturedBloodDonations.getUnits()).isEqualTo(initiateBloodDonationRequest.units());
-        assertThat(capturedBloodDonations.getDonationDate()).isEqualTo(initiateBloodDonationRequest.donationDate());
-        assertThat(capturedBloodDonations.getDonor()).isEqualTo(initiateBloodDonationRequest.donor());
+        verify(bloodDonationsRepository).insertIfAbsent(
+                initiateBloodDonationRequest.donor().getId(),
+                null,
+                initiateBloodDonationRequest.units(),
+                initiateBloodDonationRequest.donationDate());
+        verify(bloodDonationsRepository, never()).save(any());
+        verify(bloodInventoryService).recordDonation(
+                initiateBloodDonationRequest.donor().getId(),
+                initiateBloodDonationRequest.units());
     }
 
     @Test
@@ -319,10 +451,12 @@ class BloodDonationsServiceTest {
                 LocalDate.now()
         );
 
-        given(bloodDonationsRepository.existsBloodDonationsByDonorAndDonationDate(
+        given(bloodDonationsRepository.insertIfAbsent(
                     initiateBloodDonationRequest.donor().getId(),
+                    null,
+                    initiateBloodDonationRequest.units(),
                     initiateBloodDonationRequest.donationDate()))
-                .willReturn(true);
+                .willReturn(null);
 
         // When
         // Then
@@ -330,23 +464,15 @@ class BloodDonationsServiceTest {
                 .isInstanceOf(DuplicateResourceException.class)
                 .hasMessage("donor or donation date already exists");
 
-        verify(bloodDonationsRepository, never()).save(any());
+        verify(bloodInventoryService, never()).recordDonation(any(), any());
     }
 
     @Test
     void willGetBloodDonations() {
         // Given
         Long donorId = 1L;
-        Users donor = new Users(
-                donorId,
-                "milos",
-                "bacetic",
-                "milos.bacetic@gmail.com",
-                Role.DONOR,
-                BloodType.APos
-        );
-
         Users admin = new Users(
+                2L,
                 "miki",
                 "mikic",
                 "miki.mikic@gmail.com",
@@ -354,27 +480,19 @@ class BloodDonationsServiceTest {
                 BloodType.ANeg
         );
 
-        BloodDonations bloodDonations = new BloodDonations(
-                1L,
-                3,
-                LocalDate.now(),
-                donor,
-                admin
+        List<DonorBloodDonation> bloodDonationsList = List.of(
+                new DonorBloodDonation(1L, 3, LocalDate.now(), admin.getId(), DonationStatus.CONFIRMED)
         );
 
-        List<BloodDonations> bloodDonationsList = new ArrayList<BloodDonations>();
-        bloodDonationsList.add(bloodDonations);
-
-        given(usersRepository.findById(donorId))
-                .willReturn(Optional.of(donor));
-        given(bloodDonationsRepository.findByDonorId(donorId))
+        given(bloodDonationsRepository.findDonationsByDonorId(donorId))
                 .willReturn(bloodDonationsList);
 
         // When
-        underTest.getBloodDonations(donorId);
+        List<DonorBloodDonation> bloodDonations = underTest.getBloodDonations(donorId);
 
         // Then
-        verify(bloodDonationsRepository).findByDonorId(donorId);
+        assertThat(bloodDonations).isEqualTo(bloodDonationsList);
+        verify(usersRepository, never()).existsById(any());
     }
 
     @Test
@@ -382,8 +500,10 @@ class BloodDonationsServiceTest {
         // Given
         Long donorId = 1l;
 
-        given(usersRepository.findById(donorId))
-                .willReturn(Optional.empty());
+        given(bloodDonationsRepository.findDonationsByDonorId(donorId))
+                .willReturn(List.of());
+        given(usersRepository.existsById(donorId))
+                .willReturn(false);
 
         // When
         // Then
@@ -396,22 +516,11 @@ class BloodDonationsServiceTest {
     void getBloodDonationsWhenBloodDonationIsNotFoundWillThrowResourceNotFoundException() {
         // Given
         Long donorId = 1L;
-        Users donor = new Users(
-                donorId,
-                "milos",
-                "bacetic",
-                "milos.bacetic@gmail.com",
-                Role.DONOR,
-                BloodType.APos
-        );
 
-
-        List<BloodDonations> bloodDonationsList = new ArrayList<BloodDonations>();
-
-        given(usersRepository.findById(donorId))
-                .willReturn(Optional.of(donor));
-        given(bloodDonationsRepository.findByDonorId(donorId))
-                .willReturn(bloodDonationsList);
+        given(bloodDonationsRepository.findDonationsByDonorId(donorId))
+                .willReturn(List.of());
+        given(usersRepository.existsById(donorId))
+                .willReturn(true);
 
         // When
         // Then
@@ -424,6 +533,7 @@ class BloodDonationsServiceTest {
     void willAddNewDonorBloodDonationRequest() {
         // Given
         Users donor = new Users(
+                1L,
                 "milos",
                 "bacetic",
                 "milos.bacetic@gmail.com",
@@ -437,19 +547,128 @@ class BloodDonationsServiceTest {
                 LocalDate.now()
         );
 
+        given(bloodDonationsRepository.insertIfAbsent(
+                donor.getId(),
+                null,
+                donorBloodDonationRequest.units(),
+                donorBloodDonationRequest.donationDate()))
+                .willReturn(1L);
+
         // When
         underTest.donorBloodDonationRequest(donorBloodDonationRequest);
 
         // Then
-        ArgumentCaptor<BloodDonations> donorBloodDonationsRequestCaptor =
-                ArgumentCaptor.forClass(BloodDonations.class);
+        verify(bloodDonationsRepository).insertIfAbsent(
+                donor.getId(),
+                null,
+                donorBloodDonationRequest.units(),
+                donorBloodDonationRequest.donationDate());
+        verify(bloodInventoryService).recordDonation(donor.getId(), donorBloodDonationRequest.units());
+    }
+
+    @Test
+    void willAddBloodDonationsBatch() {
+        // Given
+        Users admin = new Users(1L, "milos", "bacetic", "milos@gmail.com", Role.ADMIN, BloodType.APos);
+        Users donor = new Users(2L, "nemanja", "nemanjic", "nemanja@gmail.com", Role.DONOR, BloodType.BNeg);
+        LocalDate today = LocalDate.now();
+
+        BloodDonationRequest created = new BloodDonationRequest(2, today, donor, admin);
+        BloodDonationRequest duplicate = new BloodDonationRequest(2, today, donor, admin);
+        BloodDonationRequest invalid = new BloodDonationRequest(0, today, donor, admin);
+
+        given(validator.firstViolationInFieldOrder(any())).willReturn(null);
+        given(validator.firstViolationInFieldOrder(invalid)).willReturn("invalid units amount: Must be greater than 0");
+        given(usersRepository.findBloodTypesByIdIn(anyCollection())).willReturn(List.of(
+                donorBloodType(1L, BloodType.APos),
+                donorBloodType(2L, BloodType.BNeg)
+        ));
+        given(usersRepository.getReferenceById(1L)).willReturn(admin);
+        given(usersRepository.getReferenceById(2L)).willReturn(donor);
+
+        // When
+        List<BloodDonationBatchResult> results =
+                underTest.addBloodDonations(List.of(created, duplicate, invalid));
+
+        // Then
+        assertThat(results.get(0).status()).isEqualTo(BatchRowStatus.CREATED);
+        assertThat(results.get(1).status()).isEqualTo(BatchRowStatus.DUPLICATE);
+        assertThat(results.get(2).status()).isEqualTo(BatchRowStatus.INVALID);
+        verify(bloodDonationsRepository).persistInBatches(any());
+        verify(bloodInventoryService).recordDonations(Map.of(BloodType.BNeg, 2L));
+        verify(usersRepository).recordDonations(List.of(2L), today, today.plusDays(56), true);
+    }
 
-        verify(bloodDonationsRepository).save(donorBloodDonationsRequestCaptor.capture());
+    @Test
+    void addBloodDonationsBatchWillReportViolationOfFirstInvalidField() {
+        // Given
+        try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+            BloodDonationsService service = new BloodDonationsService(bloodDonationsRepository, usersRepository,
+                    new DtoValidator(validatorFactory), bloodInventoryService, resourceVersions, eventPublisher,
+                    new ReplicaReads(resourceVersions, transactionManager, Duration.ofSeconds(5)),
+                    3, Period.ofDays(56), Duration.ZERO, 100, Duration.ofMinutes(15));
+            Users donor = new Users(2L, "nemanja", "nemanjic", "nemanja@gmail.com", Role.DONOR, BloodType.BNeg);
+            BloodDonationRequest invalid = new BloodDonationRequest(0, LocalDate.now().minusDays(1), donor, null);
+
+            // When
+            List<BloodDonationBatchResult> results = service.addBloodDonations(List.of(invalid, invalid));
+
+            // Then
+            for (BloodDonationBatchResult result : results) {
+                assertThat(result.status()).isEqualTo(BatchRowStatus.INVALID);
+                assertThat(result.messages()).isEqualTo(Set.of("invalid units amount: Must be greater than 0"));
+            }
+        }
+    }
+
+    @Test
+    void addBloodDonationsBatchWillReportExistingAndUnknownDonors() {
+        // Given
+        Users donor = new Users(2L, "nemanja", "nemanjic", "nemanja@gmail.com", Role.DONOR, BloodType.BNeg);
+        Users unknown = new Users(3L, "miki", "mikic", "miki@gmail.com", Role.DONOR, BloodType.ONeg);
+        LocalDate today = LocalDate.now();
+
+        given(usersRepository.findBloodTypesByIdIn(anyCollection())).willReturn(List.of(
+                donorBloodType(2L, BloodType.BNeg)
+        ));
+        given(bloodDonationsRepository.findDonationKeys(anyCollection(), any(), any())).willReturn(List.of(
+                new DonationKey() {
+                    public Long getDonorId() { return 2L; }
+                    public LocalDate getDonationDate() { return today; }
+                }
+        ));
 
-        BloodDonations captured = donorBloodDonationsRequestCaptor.getValue();
+        // When
+        List<BloodDonationBatchResult> results = underTest.addBloodDonations(List.of(
+                new BloodDonationRequest(1, today, donor, null),
+                new BloodDonationRequest(1, today, unknown, null)
+        ));
+
+        // Then
+        assertThat(results.get(0).status()).isEqualTo(BatchRowStatus.DUPLICATE);
+        assertThat(results.get(1).status()).isEqualTo(BatchRowStatus.INVALID);
+        verify(bloodInventoryService).recordDonations(Map.of());
+    }
+
+    @Test
+    void addBloodDonationsBatchWillThrowRequestValidationExceptionWhenTooLarge() {
+        // Given
+        Users donor = new Users(2L, "nemanja", "nemanjic", "nemanja@gmail.com", Role.DONOR, BloodType.BNeg);
+        BloodDonationRequest request = new BloodDonationRequest(1, LocalDate.now(), donor, null);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.addBloodDonations(List.of(request, request, request, request)))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("batch exceeds 3 donations");
+
+        verify(bloodDonationsRepository, never()).persistInBatches(any());
+    }
 
-        assertThat(captured.getUnits()).isEqualTo(donorBloodDonationRequest.units());
-        assertThat(captured.getDonationDate()).isEqualTo(donorBloodDonationRequest.donationDate());
-        assertThat(captured.getDonor()).isEqualTo(donorBloodDonationRequest.donor());
+    private static DonorBloodType donorBloodType(Long id, BloodType bloodType) {
+        return new DonorBloodType() {
+            public Long getId() { return id; }
+            public BloodType getBloodType() { return bloodType; }
+        };
     }
-}
\ No newline at end of file
+}
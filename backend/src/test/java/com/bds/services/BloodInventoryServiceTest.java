@@ -0,0 +1,200 @@
+package com.bds.services;
+
+import com.bds.dto.BloodUnits;
+import com.bds.dto.DispenseBloodUnitsRequest;
+import com.bds.dto.InventorySnapshot;
+import com.bds.events.InventoryChangedEvent;
+import com.bds.exception.DuplicateResourceException;
+import com.bds.models.BloodInventory;
+import com.bds.models.BloodType;
+import com.bds.repositories.BloodInventoryRepository;
+import com.bds.validators.DtoValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BloodInventoryServiceTest {
+
+    @Mock
+    private BloodInventoryRepository bloodInventoryRepository;
+    @Mock
+    private DtoValidator validator;
+    @Mock
+    private InventoryCache inventoryCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ResourceVersions resourceVersions;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private BloodInventoryService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new BloodInventoryService(
+                bloodInventoryRepository,
+                validator,
+                inventoryCache,
+                eventPublisher,
+                new ReplicaReads(resourceVersions, transactionManager, Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void willGetAvailableUnitsFromInventoryWhenCacheIsNotReady() {
+        // Given
+        given(inventoryCache.isReady()).willReturn(false);
+
+        // When
+        underTest.getAvailableUnits();
+
+        // Then
+        verify(bloodInventoryRepository).findAvailableUnits();
+    }
+
+    @Test
+    void willGetAvailableUnitsFromCacheWhenReady() {
+        // Given
+        given(inventoryCache.isReady()).willReturn(true);
+
+        // When
+        underTest.getAvailableUnits();
+
+        // Then
+        verify(inventoryCache).getAvailableUnits();
+        verify(bloodInventoryRepository, never()).findAvailableUnits();
+    }
+
+    @Test
+    void willRecordDonation() {
+        // Given
+        Long donorId = 1L;
+        Integer units = 3;
+        given(bloodInventoryRepository.addDonorUnits(donorId, units, "DONATION")).willReturn(BloodType.ONeg);
+
+        // When
+        BloodType bloodType = underTest.recordDonation(donorId, units);
+
+        // Then
+        assertThat(bloodType).isEqualTo(BloodType.ONeg);
+        verify(eventPublisher).publishEvent(InventoryChangedEvent.of(BloodType.ONeg, units));
+    }
+
+    @Test
+    void recordDonationWillNotPublishWhenDonorIsUnknown() {
+        // Given
+        given(bloodInventoryRepository.addDonorUnits(1L, 3, "DONATION")).willReturn(null);
+
+        // When
+        underTest.recordDonation(1L, 3);
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void recordRejectionWillThrowWhenUnitsWereDispensed() {
+        // Given
+        given(bloodInventoryRepository.addDonorUnits(1L, -3, "REJECTION")).willReturn(null);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.recordRejection(1L, 3))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("not enough blood units available");
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void willDispenseUnits() {
+        // Given
+        DispenseBloodUnitsRequest request = new DispenseBloodUnitsRequest("ONeg", 2, "DISPENSE");
+        given(bloodInventoryRepository.removeUnits("ONeg", 2L, "DISPENSE")).willReturn(5L);
+
+        // When
+        BloodUnits left = underTest.dispense(request);
+
+        // Then
+        assertThat(left.getBloodType()).isEqualTo(BloodType.ONeg);
+        assertThat(left.getTotalUnits()).isEqualTo(5);
+        verify(eventPublisher).publishEvent(InventoryChangedEvent.of(BloodType.ONeg, -2));
+    }
+
+    @Test
+    void dispenseWillThrowWhenUnitsAreInsufficient() {
+        // Given
+        DispenseBloodUnitsRequest request = new DispenseBloodUnitsRequest("ONeg", 20, "EXPIRY");
+        given(bloodInventoryRepository.removeUnits("ONeg", 20L, "EXPIRY")).willReturn(null);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.dispense(request))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("not enough blood units available");
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void reconcileWillRepairDriftFromSnapshotAndLedgerTail() {
+        // Given
+        BloodInventory aPos = new BloodInventory(BloodType.APos, 10L);
+        BloodInventory oNeg = new BloodInventory(BloodType.ONeg, 4L);
+        BloodInventory bNeg = new BloodInventory(BloodType.BNeg, 2L);
+
+        given(bloodInventoryRepository.findAllForUpdate()).willReturn(List.of(aPos, oNeg, bNeg));
+        given(bloodInventoryRepository.findLatestSnapshot()).willReturn(new InventorySnapshot(100L,
+                Map.of(BloodType.APos, 12L, BloodType.ONeg, 5L, BloodType.BNeg, 0L)));
+        given(bloodInventoryRepository.findLastLedgerId()).willReturn(130L);
+        given(bloodInventoryRepository.sumLedger(100L, 130L))
+                .willReturn(Map.of(BloodType.APos, -2L, BloodType.ONeg, 2L));
+
+        // When
+        int repaired = underTest.reconcile();
+
+        // Then
+        assertThat(repaired).isEqualTo(2);
+        assertThat(aPos.getUnits()).isEqualTo(10L);
+        assertThat(oNeg.getUnits()).isEqualTo(7L);
+        assertThat(bNeg.getUnits()).isEqualTo(0L);
+        verify(bloodInventoryRepository).saveSnapshot(new InventorySnapshot(130L,
+                Map.of(BloodType.APos, 10L, BloodType.ONeg, 7L, BloodType.BNeg, 0L)));
+        verify(eventPublisher).publishEvent(new InventoryChangedEvent(
+                Map.of(BloodType.ONeg, 3L, BloodType.BNeg, -2L)));
+    }
+
+    @Test
+    void reconcileWillNotSnapshotWithoutNewLedgerEntries() {
+        // Given
+        BloodInventory aPos = new BloodInventory(BloodType.APos, 15L);
+
+        given(bloodInventoryRepository.findAllForUpdate()).willReturn(List.of(aPos));
+        given(bloodInventoryRepository.findLatestSnapshot())
+                .willReturn(new InventorySnapshot(100L, Map.of(BloodType.APos, 15L)));
+        given(bloodInventoryRepository.findLastLedgerId()).willReturn(100L);
+
+        // When
+        int repaired = underTest.reconcile();
+
+        // Then
+        assertThat(repaired).isEqualTo(0);
+        verify(bloodInventoryRepository, never()).sumLedger(anyLong(), anyLong());
+        verify(bloodInventoryRepository, never()).saveSnapshot(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
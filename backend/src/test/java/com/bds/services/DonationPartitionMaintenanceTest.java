@@ -0,0 +1,119 @@
+package com.bds.services;
+
+import com.bds.events.DonationHistoryChangedEvent;
+import com.bds.repositories.BloodDonationsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DonationPartitionMaintenanceTest {
+
+    private static final Clock CLOCK = Clock.fixed(
+            LocalDate.of(2026, 10, 18).atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+
+    @Mock
+    private BloodDonationsRepository bloodDonationsRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void willCreateMissingFuturePartitions() {
+        // Given
+        DonationPartitionMaintenance underTest =
+                new DonationPartitionMaintenance(bloodDonationsRepository, eventPublisher, 2, 0, CLOCK);
+        given(bloodDonationsRepository.findPartitionYears()).willReturn(new TreeSet<>(List.of(2010, 2026, 2027)));
+
+        // When
+        int changed = underTest.maintain();
+
+        // Then
+        assertThat(changed).isEqualTo(1);
+        verify(bloodDonationsRepository).createPartition(2028);
+        verify(bloodDonationsRepository, never()).createPartition(2026);
+        verify(bloodDonationsRepository, never()).createPartition(2027);
+        verify(bloodDonationsRepository, never()).detachPartition(anyInt());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void willCountPartitionCreatedFromDefaultPartitionRows() {
+        // Given
+        DonationPartitionMaintenance underTest =
+                new DonationPartitionMaintenance(bloodDonationsRepository, eventPublisher, 2, 0, CLOCK);
+        given(bloodDonationsRepository.findPartitionYears()).willReturn(new TreeSet<>(List.of(2026, 2027)));
+        given(bloodDonationsRepository.createPartition(2028)).willReturn(3L);
+
+        // When
+        int changed = underTest.maintain();
+
+        // Then
+        assertThat(changed).isEqualTo(1);
+        verify(bloodDonationsRepository).createPartition(2028);
+    }
+
+    @Test
+    void willDetachYearsOlderThanRetention() {
+        // Given
+        DonationPartitionMaintenance underTest =
+                new DonationPartitionMaintenance(bloodDonationsRepository, eventPublisher, 1, 10, CLOCK);
+        given(bloodDonationsRepository.findPartitionYears())
+                .willReturn(new TreeSet<>(List.of(2014, 2015, 2016, 2026, 2027)));
+
+        // When
+        int changed = underTest.maintain();
+
+        // Then
+        assertThat(changed).isEqualTo(2);
+        verify(bloodDonationsRepository).detachPartition(2014);
+        verify(bloodDonationsRepository).detachPartition(2015);
+        verify(bloodDonationsRepository, never()).detachPartition(2016);
+        verify(eventPublisher).publishEvent(DonationHistoryChangedEvent.allDonors());
+    }
+
+    @Test
+    void willCarryOnWhenOneYearFails() {
+        // Given
+        DonationPartitionMaintenance underTest =
+                new DonationPartitionMaintenance(bloodDonationsRepository, eventPublisher, 2, 0, CLOCK);
+        given(bloodDonationsRepository.findPartitionYears()).willReturn(new TreeSet<>());
+        given(bloodDonationsRepository.createPartition(anyInt()))
+                .willThrow(new DataIntegrityViolationException("could not create partition"))
+                .willReturn(0L);
+
+        // When
+        int changed = underTest.maintain();
+
+        // Then
+        assertThat(changed).isEqualTo(2);
+        verify(bloodDonationsRepository).createPartition(2026);
+        verify(bloodDonationsRepository).createPartition(2027);
+        verify(bloodDonationsRepository).createPartition(2028);
+    }
+
+    @Test
+    void willRejectNegativeRetention() {
+        // When
+        // Then
+        assertThatThrownBy(() -> new DonationPartitionMaintenance(bloodDonationsRepository, eventPublisher, 2, -1, CLOCK))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("donations.partitions.retention-years must not be negative");
+    }
+}
@@ -0,0 +1,92 @@
+package com.bds.services;
+
+import com.bds.models.BloodType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DonorIndexTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void onlyCompatibleTypesCanDonate() {
+        assertThat(Arrays.stream(BloodType.values()).filter(donor -> donor.canDonateTo(BloodType.ABPos)))
+                .containsExactlyInAnyOrder(BloodType.values());
+        assertThat(Arrays.stream(BloodType.values()).filter(donor -> donor.canDonateTo(BloodType.ONeg)))
+                .containsExactly(BloodType.ONeg);
+        assertThat(Arrays.stream(BloodType.values()).filter(donor -> donor.canDonateTo(BloodType.ANeg)))
+                .containsExactlyInAnyOrder(BloodType.ANeg, BloodType.ONeg);
+        assertThat(Arrays.stream(BloodType.values()).filter(donor -> donor.canDonateTo(BloodType.BPos)))
+                .containsExactlyInAnyOrder(BloodType.BPos, BloodType.BNeg, BloodType.OPos, BloodType.ONeg);
+    }
+
+    @Test
+    void willRankEligibleCompatibleDonorsByScore() {
+        // Given
+        LocalDate eventDate = LocalDate.of(2023, 6, 1);
+        DonorIndex index = new DonorIndex.Builder()
+                .add(1L, BloodType.APos, eventDate.minusDays(180), 10)
+                .add(2L, BloodType.ONeg, eventDate.minusDays(180), 10)
+                .add(3L, BloodType.ANeg, eventDate.minusDays(180), 10)
+                .add(4L, BloodType.APos, eventDate.plusDays(1), 10)
+                .add(5L, BloodType.BPos, eventDate.minusDays(180), 10)
+                .add(6L, BloodType.APos, eventDate, 0)
+                .build();
+
+        // When
+        DonorIndex.Ranking ranking = index.rank(BloodType.APos, eventDate, 10, pool);
+
+        // Then
+        assertThat(IntStream.of(ranking.positions()).mapToLong(index::id).boxed())
+                .containsExactly(1L, 3L, 2L, 6L);
+        assertThat(ranking.scores()).containsExactly(100, 80, 60, 60);
+        assertThat(ranking.candidates()).isEqualTo(4);
+    }
+
+    @Test
+    void parallelTopKMatchesFullSort() {
+        // Given
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate eventDate = LocalDate.of(2023, 6, 1);
+        DonorIndex.Builder builder = new DonorIndex.Builder();
+        BloodType[] bloodTypes = BloodType.values();
+        for (long id = 1; id <= 200_000; id++) {
+            builder.add(id,
+                    bloodTypes[random.nextInt(bloodTypes.length)],
+                    eventDate.plusDays(random.nextInt(-400, 60)),
+                    random.nextInt(20));
+        }
+        DonorIndex index = builder.build();
+
+        // When
+        DonorIndex.Ranking ranking = index.rank(BloodType.BPos, eventDate, 500, pool);
+
+        // Then
+        Integer[] expected = IntStream.range(0, index.size())
+                .filter(i -> index.bloodType(i).canDonateTo(BloodType.BPos)
+                        && !index.nextEligibleDate(i).isAfter(eventDate))
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> -DonorIndex.score(
+                                index.bloodType(i), BloodType.BPos, index.donationCount(i),
+                                eventDate.toEpochDay() - index.nextEligibleDate(i).toEpochDay()))
+                        .thenComparingInt(i -> i))
+                .toArray(Integer[]::new);
+        assertThat(ranking.candidates()).isEqualTo(expected.length);
+        assertThat(IntStream.of(ranking.positions()).boxed())
+                .containsExactly(Arrays.copyOf(expected, 500));
+    }
+}
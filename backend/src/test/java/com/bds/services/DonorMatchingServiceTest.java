@@ -0,0 +1,144 @@
+package com.bds.services;
+
+import com.bds.dto.DonorMatch;
+import com.bds.dto.DonorMatchesPage;
+import com.bds.exception.RequestValidationException;
+import com.bds.exception.ResourceNotFoundException;
+import com.bds.models.BloodDonationEvent;
+import com.bds.models.BloodType;
+import com.bds.models.Role;
+import com.bds.models.Users;
+import com.bds.repositories.BloodDonationEventRepository;
+import com.bds.repositories.UsersRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class DonorMatchingServiceTest {
+
+    @Mock
+    private BloodDonationEventRepository bloodDonationEventRepository;
+    @Mock
+    private UsersRepository usersRepository;
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private DonorMatchingService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new DonorMatchingService(bloodDonationEventRepository, usersRepository, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void willReturnRequestedPageOfMatches() {
+        // Given
+        LocalDate eventDate = LocalDate.of(2023, 6, 1);
+        BloodDonationEvent event = new BloodDonationEvent("Event", eventDate, BloodType.ANeg, 20, null);
+        event.setId(7L);
+        given(bloodDonationEventRepository.findById(7L)).willReturn(Optional.of(event));
+        underTest.setIndex(new DonorIndex.Builder()
+                .add(1L, BloodType.ANeg, eventDate.minusDays(180), 2)
+                .add(2L, BloodType.ONeg, eventDate.minusDays(180), 2)
+                .add(3L, BloodType.APos, eventDate.minusDays(180), 9)
+                .build());
+        Users donor = new Users(2L, "Ana", "Anic", "ana@bds.com", Role.DONOR, BloodType.ONeg);
+        given(usersRepository.findAllById(List.of(2L))).willReturn(List.of(donor));
+
+        // When
+        DonorMatchesPage page = underTest.getMatches(7L, 1, 1);
+
+        // Then
+        assertThat(page.candidates()).isEqualTo(2);
+        assertThat(page.matches()).containsExactly(new DonorMatch(
+                2L, "Ana", "Anic", "ana@bds.com", BloodType.ONeg,
+                36, false, eventDate.minusDays(180), 2));
+    }
+
+    @Test
+    void willNotReturnNeverDonatedSentinelAsNextEligibleDate() {
+        // Given
+        LocalDate eventDate = LocalDate.of(2023, 6, 1);
+        BloodDonationEvent event = new BloodDonationEvent("Event", eventDate, BloodType.ANeg, 20, null);
+        event.setId(7L);
+        given(bloodDonationEventRepository.findById(7L)).willReturn(Optional.of(event));
+        underTest.setIndex(new DonorIndex.Builder()
+                .add(1L, BloodType.ANeg, Users.NEVER_DONATED, 0)
+                .build());
+        Users donor = new Users(1L, "Ana", "Anic", "ana@bds.com", Role.DONOR, BloodType.ANeg);
+        given(usersRepository.findAllById(List.of(1L))).willReturn(List.of(donor));
+
+        // When
+        DonorMatchesPage page = underTest.getMatches(7L, 0, 1);
+
+        // Then
+        assertThat(page.matches()).containsExactly(new DonorMatch(
+                1L, "Ana", "Anic", "ana@bds.com", BloodType.ANeg,
+                70, true, null, 0));
+    }
+
+    @Test
+    void willBuildFirstIndexWithoutBlockingStartup() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            invocation.<UsersRepository.DonorProfileHandler>getArgument(0)
+                    .accept(1L, BloodType.ANeg, LocalDate.of(2023, 6, 1), 3);
+            return null;
+        }).given(usersRepository).forEachDonorProfile(any());
+
+        // When
+        underTest.buildIndex();
+
+        // Then
+        assertThat(underTest.index().size()).isZero();
+        release.countDown();
+        for (int i = 0; i < 50 && underTest.index().size() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(underTest.index().size()).isEqualTo(1);
+    }
+
+    @Test
+    void willThrowWhenEventDoesNotExist() {
+        // Given
+        given(bloodDonationEventRepository.findById(7L)).willReturn(Optional.empty());
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.getMatches(7L, null, null))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("donation event does not exists");
+    }
+
+    @Test
+    void willThrowWhenPageIsBeyondMatchWindow() {
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.getMatches(7L, 10, 1000))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("only the first 10000 matches can be paged through");
+    }
+}
@@ -0,0 +1,84 @@
+package com.bds.services;
+
+import com.bds.dto.ImportFormat;
+import com.bds.dto.ImportKind;
+import com.bds.exception.RequestValidationException;
+import com.bds.validators.DtoValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Period;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+class ImportServiceTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private BloodInventoryService bloodInventoryService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private DtoValidator validator;
+    @TempDir
+    private Path root;
+    private Path importDirectory;
+    private ImportService underTest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        importDirectory = Files.createDirectory(root.resolve("imports"));
+        underTest = new ImportService(dataSource, jdbcTemplate, transactionManager, bloodInventoryService,
+                eventPublisher, validator, new ObjectMapper(), new SimpleMeterRegistry(),
+                importDirectory.toString(), 500_000, 1, Duration.ofHours(24), Period.ofDays(56));
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void willNotImportPathOutsideImportDirectory() {
+        // Given
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.importLocalFile(ImportKind.USERS, ImportFormat.CSV, "../users.csv"))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("import file must be inside the import directory");
+    }
+
+    @Test
+    void willNotImportSymlinkPointingOutsideImportDirectory() throws IOException {
+        // Given
+        Path outside = Files.writeString(root.resolve("users.csv"), "first_name,last_name,email,role,blood_type\n");
+        Files.createSymbolicLink(importDirectory.resolve("users.csv"), outside);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.importLocalFile(ImportKind.USERS, ImportFormat.CSV, "users.csv"))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("import file must be inside the import directory");
+    }
+}
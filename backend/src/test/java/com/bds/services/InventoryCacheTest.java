@@ -0,0 +1,176 @@
+package com.bds.services;
+
+import com.bds.dto.BloodUnits;
+import com.bds.dto.BloodUnitsImpl;
+import com.bds.events.InventoryChangedEvent;
+import com.bds.models.BloodType;
+import com.bds.repositories.BloodInventoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryCacheTest {
+
+    @Mock
+    private BloodInventoryRepository bloodInventoryRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new InventoryCache(bloodInventoryRepository, true, meterRegistry);
+    }
+
+    @Test
+    void willWarmFromInventory() {
+        // Given
+        given(bloodInventoryRepository.findAvailableUnits()).willReturn(List.<BloodUnits>of(
+                new BloodUnitsImpl("ONeg", 7),
+                new BloodUnitsImpl("APos", 3)
+        ));
+
+        // When
+        underTest.warm();
+
+        // Then
+        assertThat(underTest.isReady()).isTrue();
+        assertThat(underTest.getAvailableUnits())
+                .hasSize(BloodType.values().length)
+                .anyMatch(bu -> bu.getBloodType() == BloodType.ONeg && bu.getTotalUnits() == 7)
+                .anyMatch(bu -> bu.getBloodType() == BloodType.APos && bu.getTotalUnits() == 3)
+                .anyMatch(bu -> bu.getBloodType() == BloodType.BNeg && bu.getTotalUnits() == 0);
+    }
+
+    @Test
+    void willNotWarmWhenDisabled() {
+        // Given
+        underTest = new InventoryCache(bloodInventoryRepository, false, meterRegistry);
+
+        // When
+        underTest.warm();
+
+        // Then
+        assertThat(underTest.isReady()).isFalse();
+        verify(bloodInventoryRepository, never()).findAvailableUnits();
+    }
+
+    @Test
+    void willApplyCommittedChanges() {
+        // Given
+        given(bloodInventoryRepository.findAvailableUnits()).willReturn(List.of());
+        underTest.warm();
+
+        // When
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.ABNeg, 4));
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.ABNeg, 2));
+
+        // Then
+        assertThat(underTest.getAvailableUnits())
+                .anyMatch(bu -> bu.getBloodType() == BloodType.ABNeg && bu.getTotalUnits() == 6);
+    }
+
+    @Test
+    void verifyWillRepairAndCountDrift() {
+        // Given
+        given(bloodInventoryRepository.findAvailableUnits())
+                .willReturn(List.of())
+                .willReturn(List.<BloodUnits>of(new BloodUnitsImpl("OPos", 10)));
+        underTest.warm();
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.OPos, 4));
+
+        // When
+        int drifted = underTest.verify();
+
+        // Then
+        assertThat(drifted).isEqualTo(1);
+        assertThat(underTest.driftDetected()).isEqualTo(1);
+        assertThat(meterRegistry.get("bds.inventory.cache.drift").functionCounter().count()).isEqualTo(1.0);
+        assertThat(underTest.getAvailableUnits())
+                .anyMatch(bu -> bu.getBloodType() == BloodType.OPos && bu.getTotalUnits() == 10);
+    }
+
+    @Test
+    void verifyWillNotCountCommittedChangeBeforeItIsApplied() {
+        // Given
+        given(bloodInventoryRepository.findAvailableUnits())
+                .willReturn(List.<BloodUnits>of(new BloodUnitsImpl("OPos", 10)))
+                .willReturn(List.<BloodUnits>of(new BloodUnitsImpl("OPos", 14)));
+        underTest.warm();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.OPos, 4));
+
+            // When
+            // committed, so the database already has it, but not applied yet
+            int drifted = underTest.verify();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            // Then
+            assertThat(drifted).isZero();
+            assertThat(underTest.driftDetected()).isZero();
+            assertThat(underTest.getUnits(BloodType.OPos)).isEqualTo(14);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void verifyWillNotRepairChangeAppliedWhileReading() {
+        // Given
+        given(bloodInventoryRepository.findAvailableUnits())
+                .willReturn(List.<BloodUnits>of(new BloodUnitsImpl("OPos", 10)))
+                .willAnswer(invocation -> {
+                    // committed and applied right after the database was read
+                    underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.OPos, 4));
+                    return List.<BloodUnits>of(new BloodUnitsImpl("OPos", 10));
+                });
+        underTest.warm();
+
+        // When
+        int drifted = underTest.verify();
+
+        // Then
+        assertThat(drifted).isZero();
+        assertThat(underTest.driftDetected()).isZero();
+        assertThat(underTest.getUnits(BloodType.OPos)).isEqualTo(14);
+    }
+
+    @Test
+    void rolledBackChangeIsNotApplied() {
+        // Given
+        given(bloodInventoryRepository.findAvailableUnits()).willReturn(List.of());
+        underTest.warm();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.OPos, 4));
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            assertThat(underTest.getUnits(BloodType.OPos)).isZero();
+            assertThat(underTest.verify()).isZero();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
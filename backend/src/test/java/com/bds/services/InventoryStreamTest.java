@@ -0,0 +1,234 @@
+package com.bds.services;
+
+import com.bds.dto.BloodUnits;
+import com.bds.dto.BloodUnitsImpl;
+import com.bds.events.InventoryChangedEvent;
+import com.bds.models.BloodType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryStreamTest {
+
+    @Mock
+    private BloodInventoryService bloodInventoryService;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong nanoTime;
+    private InventoryStream underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nanoTime = new AtomicLong();
+        underTest = stream(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void willSendSnapshotThenDeltasWithNewUnits() throws Exception {
+        // Given
+        given(bloodInventoryService.getAvailableUnits())
+                .willReturn(units(10))
+                .willReturn(units(12));
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        underTest.subscribe(emitter);
+        assertThat(emitter.next()).startsWith("event:snapshot").contains("\"bloodType\":\"APos\",\"delta\":0,\"units\":10");
+
+        // When
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.APos, 2));
+
+        // Then
+        assertThat(emitter.next()).isEqualTo("event:delta\ndata:[{\"bloodType\":\"APos\",\"delta\":2,\"units\":12}]\n\n");
+    }
+
+    @Test
+    void willMergeChangesForSlowSubscriber() throws Exception {
+        // Given
+        given(bloodInventoryService.getAvailableUnits())
+                .willReturn(units(10))
+                .willReturn(units(11))
+                .willReturn(units(13))
+                .willReturn(units(16));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        underTest.subscribe(emitter);
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.APos, 1));
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.APos, 2));
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.APos, 3));
+        release.countDown();
+
+        // Then
+        assertThat(emitter.next()).startsWith("event:snapshot");
+        assertThat(emitter.next()).isEqualTo("event:delta\ndata:[{\"bloodType\":\"APos\",\"delta\":6,\"units\":16}]\n\n");
+        assertThat(emitter.poll()).isNull();
+        assertThat(meterRegistry.get("bds.inventory.stream.coalesced").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void willNotSendSnapshotOlderThanChangeReadDuringIt() throws Exception {
+        // Given
+        given(bloodInventoryService.getAvailableUnits())
+                .willReturn(units(10))
+                .willAnswer(invocation -> {
+                    // a change lands while the heartbeat reads its snapshot
+                    underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.APos, 2));
+                    return units(10);
+                })
+                .willReturn(units(12));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        underTest.subscribe(emitter);
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        underTest.heartbeat();
+        release.countDown();
+
+        // Then
+        assertThat(emitter.next()).startsWith("event:snapshot");
+        assertThat(emitter.next()).startsWith("event:snapshot").contains("\"bloodType\":\"APos\",\"delta\":0,\"units\":10");
+        assertThat(emitter.next()).isEqualTo("event:delta\ndata:[{\"bloodType\":\"APos\",\"delta\":2,\"units\":12}]\n\n");
+        assertThat(emitter.poll()).isNull();
+    }
+
+    @Test
+    void willNotSendDeltaAfterSnapshotThatIncludesIt() throws Exception {
+        // Given
+        given(bloodInventoryService.getAvailableUnits())
+                .willReturn(units(10))
+                .willReturn(units(12))
+                .willReturn(units(15));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        underTest.subscribe(emitter);
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.APos, 2));
+        underTest.heartbeat();
+        release.countDown();
+
+        // Then
+        assertThat(emitter.next()).startsWith("event:snapshot");
+        assertThat(emitter.next()).startsWith("event:snapshot").contains("\"bloodType\":\"APos\",\"delta\":0,\"units\":15");
+        assertThat(emitter.poll()).isNull();
+    }
+
+    @Test
+    void willEvictStalledSubscriberSoOthersKeepReceiving() throws Exception {
+        // Given
+        underTest.shutdown();
+        underTest = stream(1);
+        given(bloodInventoryService.getAvailableUnits()).willReturn(units(10));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter other = new RecordingEmitter(null);
+        underTest.subscribe(stalled);
+        assertThat(stalled.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        underTest.subscribe(other);
+        assertThat(other.poll()).isNull();
+
+        // When
+        nanoTime.addAndGet(Duration.ofSeconds(11).toNanos());
+        underTest.heartbeat();
+
+        // Then
+        assertThat(other.next()).startsWith("event:snapshot");
+        assertThat(underTest.subscribers()).isEqualTo(1);
+        assertThat(meterRegistry.get("bds.inventory.stream.evicted").counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void willDropSubscriberThatWentAway() throws Exception {
+        // Given
+        given(bloodInventoryService.getAvailableUnits()).willReturn(units(10));
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When
+        underTest.subscribe(emitter);
+
+        // Then
+        for (int i = 0; i < 50 && underTest.subscribers() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(underTest.subscribers()).isZero();
+    }
+
+    private InventoryStream stream(int sendThreads) {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        return new InventoryStream(bloodInventoryService, objectMapper, Duration.ofMinutes(1), sendThreads,
+                Duration.ofSeconds(10), meterRegistry, nanoTime::get);
+    }
+
+    private static List<BloodUnits> units(int aPos) {
+        return List.of(new BloodUnitsImpl("APos", aPos), new BloodUnitsImpl("ONeg", 5));
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(builder.build().stream()
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        String next() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+
+        String poll() throws InterruptedException {
+            return events.poll(100, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.bds.services;
+
+import com.bds.events.DonationHistoryChangedEvent;
+import com.bds.events.InventoryChangedEvent;
+import com.bds.models.BloodType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceVersionsTest {
+
+    @Mock
+    private InventoryCache inventoryCache;
+    private ResourceVersions underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ResourceVersions(inventoryCache);
+    }
+
+    @Test
+    void willChangeInventoryETagOnInventoryChangeAndCacheDrift() {
+        // Given
+        String initial = underTest.inventoryETag();
+
+        // When
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.APos, 1));
+        String changed = underTest.inventoryETag();
+        given(inventoryCache.driftDetected()).willReturn(1L);
+        String repaired = underTest.inventoryETag();
+
+        // Then
+        assertThat(initial).startsWith("\"").endsWith("\"");
+        assertThat(changed).isNotEqualTo(initial);
+        assertThat(repaired).isNotEqualTo(changed);
+    }
+
+    @Test
+    void willChangeDonationHistoryETagOfChangedDonorsOnly() {
+        // Given
+        String first = underTest.donationHistoryETag(1L);
+        String second = underTest.donationHistoryETag(2L);
+
+        // When
+        underTest.onDonationHistoryChanged(DonationHistoryChangedEvent.of(1L));
+
+        // Then
+        assertThat(underTest.donationHistoryETag(1L)).isNotEqualTo(first);
+        assertThat(underTest.donationHistoryETag(2L)).isEqualTo(second);
+    }
+
+    @Test
+    void willChangeEveryDonationHistoryETagAfterBulkChange() {
+        // Given
+        List<String> before = List.of(underTest.donationHistoryETag(1L), underTest.donationHistoryETag(2L));
+
+        // When
+        underTest.onDonationHistoryChanged(DonationHistoryChangedEvent.allDonors());
+
+        // Then
+        assertThat(underTest.donationHistoryETag(1L)).isNotEqualTo(before.get(0));
+        assertThat(underTest.donationHistoryETag(2L)).isNotEqualTo(before.get(1));
+    }
+
+    @Test
+    void willTellWhetherResourcesChangedWithinWindow() {
+        // Given
+        AtomicLong now = new AtomicLong(Duration.ofHours(1).toNanos());
+        ResourceVersions underTest = new ResourceVersions(inventoryCache, now::get);
+        Duration window = Duration.ofSeconds(5);
+
+        // When
+        boolean neverChanged = underTest.donationHistoryChangedWithin(1L, window);
+        underTest.onDonationHistoryChanged(DonationHistoryChangedEvent.of(1L));
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.APos, 1));
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        boolean changedDonor = underTest.donationHistoryChangedWithin(1L, window);
+        boolean otherDonor = underTest.donationHistoryChangedWithin(2L, window);
+        boolean inventory = underTest.inventoryChangedWithin(window);
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        boolean afterWindow = underTest.donationHistoryChangedWithin(1L, window);
+
+        // Then
+        assertThat(neverChanged).isFalse();
+        assertThat(changedDonor).isTrue();
+        assertThat(otherDonor).isFalse();
+        assertThat(inventory).isTrue();
+        assertThat(afterWindow).isFalse();
+    }
+}
@@ -0,0 +1,143 @@
+package com.bds.services;
+
+import com.bds.config.ShortageAlertProperties;
+import com.bds.dto.ShortageAlert;
+import com.bds.dto.ShortageAlertType;
+import com.bds.events.InventoryChangedEvent;
+import com.bds.models.BloodType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ShortageAlertServiceTest {
+
+    @Mock
+    private InventoryCache inventoryCache;
+    private final List<ShortageAlert> notified = new CopyOnWriteArrayList<>();
+    private ShortageAlertService underTest;
+
+    @BeforeEach
+    void setUp() {
+        ShortageAlertProperties properties = new ShortageAlertProperties(10, Map.of(
+                BloodType.ONeg, new ShortageAlertProperties.Threshold(50, 80)
+        ));
+        underTest = new ShortageAlertService(
+                inventoryCache,
+                properties,
+                notified::add,
+                Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC),
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void willAlertOnceWhenDroppingBelowLowWaterAndRecoverAtHighWater() throws InterruptedException {
+        // Given
+        given(inventoryCache.isReady()).willReturn(true);
+        given(inventoryCache.getUnits(BloodType.ONeg)).willReturn(
+                60L,  // sufficient
+                49L,  // shortage
+                40L,  // still short, no new alert
+                70L,  // above low-water but below high-water, still short
+                49L,  // still short
+                80L   // recovered
+        );
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.ONeg, 1));
+        }
+
+        // Then
+        assertThat(underTest.getRecentAlerts())
+                .extracting(ShortageAlert::type, ShortageAlert::units)
+                .containsExactly(
+                        tuple(ShortageAlertType.RECOVERED, 80L),
+                        tuple(ShortageAlertType.SHORTAGE, 49L)
+                );
+        for (int i = 0; i < 50 && notified.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(notified)
+                .extracting(ShortageAlert::type)
+                .containsExactly(ShortageAlertType.SHORTAGE, ShortageAlertType.RECOVERED);
+    }
+
+    @Test
+    void willNotRaiseAlertFromCountReadBeforeNewerEvaluation() {
+        // Given
+        given(inventoryCache.isReady()).willReturn(true);
+        AtomicInteger reads = new AtomicInteger();
+        given(inventoryCache.getUnits(BloodType.ONeg)).willAnswer(invocation -> switch (reads.incrementAndGet()) {
+            case 1 -> 40L;
+            case 2 -> {
+                // a newer change is evaluated while this read is still in flight
+                underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.ONeg, 50));
+                yield 40L;
+            }
+            default -> 90L;
+        });
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.ONeg, -20));
+
+        // When
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.ONeg, -1));
+
+        // Then
+        assertThat(underTest.getRecentAlerts())
+                .extracting(ShortageAlert::type, ShortageAlert::units)
+                .containsExactly(
+                        tuple(ShortageAlertType.RECOVERED, 90L),
+                        tuple(ShortageAlertType.SHORTAGE, 40L)
+                );
+    }
+
+    @Test
+    void willIgnoreBloodTypesWithoutThresholds() {
+        // Given
+        given(inventoryCache.isReady()).willReturn(true);
+
+        // When
+        underTest.onInventoryChanged(InventoryChangedEvent.of(BloodType.APos, -100));
+
+        // Then
+        verify(inventoryCache, never()).getUnits(BloodType.APos);
+        assertThat(underTest.getRecentAlerts()).isEmpty();
+    }
+
+    @Test
+    void willNotEvaluateBeforeCacheIsWarm() {
+        // Given
+        given(inventoryCache.isReady()).willReturn(false);
+
+        // When
+        underTest.evaluateAll();
+
+        // Then
+        verify(inventoryCache, never()).getUnits(BloodType.ONeg);
+        assertThat(underTest.getRecentAlerts()).isEmpty();
+    }
+}
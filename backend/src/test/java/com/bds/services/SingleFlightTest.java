@@ -0,0 +1,103 @@
+package com.bds.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void willShareOneLoadBetweenConcurrentCallers() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlight<Integer> underTest = new SingleFlight<>(() -> {
+            loading.countDown();
+            await(release);
+            return loads.incrementAndGet();
+        }, Duration.ZERO);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // When
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(underTest::get));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(underTest::get));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            // Then
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(underTest.get()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void willServeStaleResultWithinWindow() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        AtomicLong now = new AtomicLong();
+        SingleFlight<Integer> underTest = new SingleFlight<>(loads::incrementAndGet, Duration.ofSeconds(1), now::get);
+
+        // When
+        int first = underTest.get();
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        int withinWindow = underTest.get();
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        int afterWindow = underTest.get();
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(withinWindow).isEqualTo(1);
+        assertThat(afterWindow).isEqualTo(2);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void willNotKeepFailedLoad() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlight<Integer> underTest = new SingleFlight<>(() -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return loads.get();
+        }, Duration.ofSeconds(1));
+
+        // When
+        // Then
+        assertThatThrownBy(underTest::get)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("database unavailable");
+        assertThat(underTest.get()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
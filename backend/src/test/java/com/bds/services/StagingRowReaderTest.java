@@ -0,0 +1,105 @@
+package com.bds.services;
+
+import com.bds.dto.ImportFormat;
+import com.bds.dto.ImportKind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StagingRowReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void willSkipHeaderAndBlankLinesAndNumberSourceLines() throws IOException {
+        String csv = """
+                donor_email,admin_email,units,donation_date
+
+                donor@bds.com,admin@bds.com,2,2021-03-04
+                donor@bds.com,,1,2021-09-04
+                """;
+        AtomicLong rowsRead = new AtomicLong();
+
+        String rows = readAll(csv, ImportFormat.CSV, ImportKind.BLOOD_DONATIONS, values -> null, rowsRead);
+
+        assertThat(rows).isEqualTo(
+                "3\tdonor@bds.com\tadmin@bds.com\t2\t2021-03-04\t\\N\t\\N\n" +
+                        "4\tdonor@bds.com\t\\N\t1\t2021-09-04\t\\N\t\\N\n"
+        );
+        assertThat(rowsRead).hasValue(2);
+    }
+
+    @Test
+    void willEmitRejectsWithReasonAndEscapedLine() throws IOException {
+        String csv = "Ana,Anic,ana@bds.com,DONOR\n" +
+                "\"Marko, Jr\",\"Ma\"\"rkovic\",marko@bds.com,DONOR,\tAPos\n";
+
+        String rows = readAll(csv, ImportFormat.CSV, ImportKind.USERS, values -> null, new AtomicLong());
+
+        assertThat(rows).isEqualTo(
+                "1\t\\N\t\\N\t\\N\t\\N\t\\N\texpected 5 fields but found 4\tAna,Anic,ana@bds.com,DONOR\n" +
+                        "2\tMarko, Jr\tMa\"rkovic\tmarko@bds.com\tDONOR\tAPos\t\\N\t\\N\n"
+        );
+    }
+
+    @Test
+    void willRejectRowsTheValidatorRejects() throws IOException {
+        String csv = "donor@bds.com,,0,2021-03-04\n";
+
+        String rows = readAll(csv, ImportFormat.CSV, ImportKind.BLOOD_DONATIONS,
+                values -> "invalid units amount: Must be greater than 0", new AtomicLong());
+
+        assertThat(rows).isEqualTo(
+                "1\t\\N\t\\N\t\\N\t\\N\tinvalid units amount: Must be greater than 0\tdonor@bds.com,,0,2021-03-04\n"
+        );
+    }
+
+    @Test
+    void willReadNdjsonByApiFieldNames() throws IOException {
+        String ndjson = """
+                {"donorEmail":"donor@bds.com","adminEmail":null,"units":2,"donationDate":"2021-03-04"}
+                {"donorEmail":
+                [1,2]
+                """;
+
+        String rows = readAll(ndjson, ImportFormat.NDJSON, ImportKind.BLOOD_DONATIONS, values -> null, new AtomicLong());
+
+        assertThat(rows).isEqualTo(
+                "1\tdonor@bds.com\t\\N\t2\t2021-03-04\t\\N\t\\N\n" +
+                        "2\t\\N\t\\N\t\\N\t\\N\tmalformed JSON\t{\"donorEmail\":\n" +
+                        "3\t\\N\t\\N\t\\N\t\\N\texpected a JSON object\t[1,2]\n"
+        );
+    }
+
+    @Test
+    void willRejectUnterminatedQuotedField() {
+        assertThatThrownBy(() -> StagingRowReader.parseCsv("\"a,b"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("unterminated quoted field");
+    }
+
+    private String readAll(String source,
+                           ImportFormat format,
+                           ImportKind kind,
+                           StagingRowReader.RowValidator validator,
+                           AtomicLong rowsRead) throws IOException {
+        StringWriter out = new StringWriter();
+        try (StagingRowReader reader = new StagingRowReader(
+                new BufferedReader(new StringReader(source)), format, kind, validator, objectMapper, rowsRead)) {
+            char[] buffer = new char[7];
+            int read;
+            while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -1,7 +1,11 @@
 package com.bds.services;
 
+import com.bds.dto.EligibleDonor;
+import com.bds.dto.EligibleDonorsPage;
+import com.bds.dto.UsersPage;
 import com.bds.dto.UsersRegistrationRequest;
 import com.bds.exception.DuplicateResourceException;
+import com.bds.exception.RequestValidationException;
 import com.bds.exception.ResourceNotFoundException;
 import com.bds.models.BloodType;
 import com.bds.models.Role;
@@ -14,6 +18,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -29,7 +38,7 @@ class UsersServiceTest {
     @Mock
     private UsersRepository usersRepository;
     @Mock
-    private DtoValidator<Object> validator;
+    private DtoValidator validator;
     private UsersService underTest;
 
     @BeforeEach
@@ -38,15 +47,115 @@ class UsersServiceTest {
     }
 
     @Test
-    void willGetAllDonors() {
+    void willGetFirstPageOfDonors() {
+        // Given
+        Users first = new Users(1L, "milos", "bacetic", "milos.bacetic@gmail.com", Role.DONOR, BloodType.APos);
+        Users second = new Users(2L, "nemanja", "stanojevic", "nemanja.stanojevic@gmail.com", Role.DONOR, BloodType.BNeg);
+        Users third = new Users(3L, "ana", "anic", "ana.anic@gmail.com", Role.DONOR, BloodType.ONeg);
+        given(usersRepository.findPageByRole(Role.DONOR, 0L, PageRequest.of(0, 3)))
+                .willReturn(List.of(first, second, third));
+
+        // When
+        UsersPage page = underTest.getDonors(null, 2);
+
+        // Then
+        assertThat(page.users()).isEqualTo(List.of(first, second));
+        assertThat(page.nextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    void willGetLastPageOfAdminsWithoutCursor() {
+        // Given
+        Users admin = new Users(7L, "milos", "bacetic", "milos.bacetic@gmail.com", Role.ADMIN, BloodType.APos);
+        given(usersRepository.findPageByRole(Role.ADMIN, 5L, PageRequest.of(0, 101)))
+                .willReturn(List.of(admin));
+
+        // When
+        UsersPage page = underTest.getAdmins(5L, null);
+
+        // Then
+        assertThat(page.users()).isEqualTo(List.of(admin));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void willThrowWhenPageLimitIsOutOfRange() {
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.getDonors(null, 1001))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("limit must be between 1 and 1000");
+
+        verify(usersRepository, never()).findPageByRole(any(), any(), any());
+    }
+
+    @Test
+    void willGetEligibleDonorsPageWithCursor() {
+        // Given
+        LocalDate on = LocalDate.of(2023, 6, 1);
+        EligibleDonor first = new EligibleDonor(4L, "milos", "bacetic", "milos.bacetic@gmail.com",
+                BloodType.ONeg, LocalDate.of(2023, 1, 2), LocalDate.of(2023, 2, 27));
+        EligibleDonor second = new EligibleDonor(9L, "ana", "anic", "ana.anic@gmail.com",
+                BloodType.ONeg, null, LocalDate.of(2023, 3, 1));
+        given(usersRepository.findEligibleDonors(BloodType.ONeg, on, LocalDate.of(2023, 2, 1), 3L, 2))
+                .willReturn(List.of(first, second));
+
+        // When
+        EligibleDonorsPage page = underTest.getEligibleDonors("ONeg", on, "2023-02-01_3", 1);
+
+        // Then
+        assertThat(page.donors()).isEqualTo(List.of(first));
+        assertThat(page.nextCursor()).isEqualTo("2023-02-27_4");
+    }
+
+    @Test
+    void willPageDonorsWhoNeverDonatedWithCursor() {
+        // Given
+        LocalDate on = LocalDate.of(2023, 6, 1);
+        EligibleDonor first = new EligibleDonor(4L, "milos", "bacetic", "milos.bacetic@gmail.com",
+                BloodType.ONeg, null, null);
+        EligibleDonor second = new EligibleDonor(9L, "ana", "anic", "ana.anic@gmail.com",
+                BloodType.ONeg, null, null);
+        given(usersRepository.findEligibleDonors(BloodType.ONeg, on, LocalDate.MIN, 0L, 2))
+                .willReturn(List.of(first, second));
+
+        // When
+        EligibleDonorsPage page = underTest.getEligibleDonors("ONeg", on, null, 1);
+
+        // Then
+        assertThat(page.donors()).isEqualTo(List.of(first));
+        assertThat(page.nextCursor()).isEqualTo("1900-01-01_4");
+    }
+
+    @Test
+    void willThrowWhenEligibleBloodTypeIsInvalid() {
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.getEligibleDonors("O+", null, null, null))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessageStartingWith("Invalid blood type");
+    }
+
+    @Test
+    void willThrowWhenEligibleCursorIsInvalid() {
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.getEligibleDonors("ONeg", null, "yesterday", null))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("invalid cursor: yesterday");
+    }
+
+    @Test
+    void willStreamDonors() {
         // Given
-        Role role = Role.DONOR;
+        Consumer<Users> action = user -> {
+        };
 
         // When
-        underTest.getAllDonors();
+        underTest.forEachDonor(action);
 
         // Then
-        verify(usersRepository).findByRoleIs(role);
+        verify(usersRepository).forEachByRole(Role.DONOR, action);
     }
 
     @Test
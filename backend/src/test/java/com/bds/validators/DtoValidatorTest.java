@@ -0,0 +1,86 @@
+package com.bds.validators;
+
+import com.bds.dto.ConfirmDonationRequest;
+import com.bds.dto.UsersRegistrationRequest;
+import com.bds.exception.ObjectNotValidException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class DtoValidatorTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static DtoValidator underTest;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        underTest = new DtoValidator(validatorFactory);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void canValidate() {
+        // Given
+        UsersRegistrationRequest request =
+                new UsersRegistrationRequest("Ana", "Anic", "ana@bds.com", "DONOR", "APos");
+
+        // When
+        boolean validated = underTest.validate(request);
+
+        // Then
+        assertThat(validated).isTrue();
+        assertThat(underTest.violations(request)).isEmpty();
+    }
+
+    @Test
+    void willThrowWithEveryViolation() {
+        // Given
+        ConfirmDonationRequest request = new ConfirmDonationRequest(null, null);
+
+        // When
+        ObjectNotValidException e = catchThrowableOfType(() -> underTest.validate(request), ObjectNotValidException.class);
+
+        // Then
+        assertThat(e.getErrorMessages()).containsExactlyInAnyOrder(
+                "Invalid admin id: Empty admin id",
+                "Invalid units amount: Empty units amount"
+        );
+    }
+
+    @Test
+    void willReportViolationOnEarliestField() {
+        // Given
+        UsersRegistrationRequest request =
+                new UsersRegistrationRequest("", "A", "not-an-email", "GUEST", "Zero");
+
+        // When
+        String violation = underTest.firstViolationInFieldOrder(request);
+
+        // Then
+        assertThat(violation).isEqualTo("Invalid first name: Empty first name");
+        assertThat(underTest.firstViolationInFieldOrder(
+                new UsersRegistrationRequest("Ana", "Anic", "ana@bds.com", "GUEST", "Zero")))
+                .isEqualTo("Invalid role: The validated role 'GUEST' must be in proper format");
+    }
+
+    @Test
+    void willSkipTypesWithoutConstraints() {
+        // Given
+        Object request = new Object();
+
+        // When
+        // Then
+        assertThat(underTest.violations(request)).isEmpty();
+        assertThat(underTest.firstViolationInFieldOrder(request)).isNull();
+    }
+}
@@ -0,0 +1,56 @@
+package com.bds.benchmarks;
+
+import com.bds.exception.ApiExceptionHandler;
+import com.bds.exception.DuplicateResourceException;
+import com.bds.exception.ErrorCode;
+import com.bds.exception.ObjectNotValidException;
+import com.bds.exception.RequestValidationException;
+import com.bds.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an error response: creating the exception a service throws and
+ * turning it into the {@link ApiExceptionHandler} response.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiExceptionHandlerBenchmark {
+
+    private ApiExceptionHandler handler;
+
+    @Setup
+    public void setUp() {
+        handler = new ApiExceptionHandler(new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public ResponseEntity<?> duplicateResource() {
+        return handler.handleException(new DuplicateResourceException(ErrorCode.EMAIL_TAKEN));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> resourceNotFound() {
+        return handler.handleException(new ResourceNotFoundException(ErrorCode.DONOR_NOT_FOUND, 1L));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> requestValidation() {
+        return handler.handleException(new RequestValidationException(ErrorCode.UNKNOWN_USER, 1L));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> objectNotValid() {
+        return handler.handleException(new ObjectNotValidException(Set.of(
+                "Invalid first name: Must be between 2 and 32 characters long ",
+                "Invalid role: The validated role 'DOCTOR' must be in proper format")));
+    }
+}
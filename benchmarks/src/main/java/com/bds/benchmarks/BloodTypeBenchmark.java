@@ -0,0 +1,42 @@
+package com.bds.benchmarks;
+
+import com.bds.models.BloodType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BloodType#valueOf} on every blood type name, as done for each request
+ * that carries a blood type string.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BloodTypeBenchmark {
+
+    private static final int NAMES = 8;
+
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        // fresh strings, as if read from a request body, so equals cannot short-circuit on identity
+        names = new String[NAMES];
+        BloodType[] bloodTypes = BloodType.values();
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = new String(bloodTypes[i].name().toCharArray());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NAMES)
+    public void valueOf(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(BloodType.valueOf(name));
+        }
+    }
+}
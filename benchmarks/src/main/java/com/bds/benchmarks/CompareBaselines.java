@@ -0,0 +1,58 @@
+package com.bds.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints throughput and allocation per operation of two JMH JSON result files
+ * side by side, e.g. a committed baseline and a run of the working tree:
+ * <pre>
+ * java -cp target/benchmarks.jar com.bds.benchmarks.CompareBaselines baselines/baseline.json result.json
+ * </pre>
+ */
+public class CompareBaselines {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CompareBaselines <before.json> <after.json>");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> before = byBenchmark(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> after = byBenchmark(objectMapper.readTree(new File(args[1])));
+
+        System.out.printf("%-60s %14s %14s %8s %12s %12s%n",
+                "Benchmark", "before ops/s", "after ops/s", "change", "before B/op", "after B/op");
+        after.forEach((benchmark, result) -> {
+            JsonNode previous = before.get(benchmark);
+            double score = result.at("/primaryMetric/score").asDouble();
+            double allocation = result.at("/secondaryMetrics/" + ALLOCATION + "/score").asDouble(Double.NaN);
+            if (previous == null) {
+                System.out.printf("%-60s %14s %14.0f %8s %12s %12.0f%n",
+                        benchmark, "-", score, "new", "-", allocation);
+                return;
+            }
+            double previousScore = previous.at("/primaryMetric/score").asDouble();
+            double previousAllocation = previous.at("/secondaryMetrics/" + ALLOCATION + "/score").asDouble(Double.NaN);
+            System.out.printf("%-60s %14.0f %14.0f %+7.1f%% %12.0f %12.0f%n",
+                    benchmark, previousScore, score, (score - previousScore) * 100 / previousScore,
+                    previousAllocation, allocation);
+        });
+    }
+
+    private static Map<String, JsonNode> byBenchmark(JsonNode results) {
+        Map<String, JsonNode> byBenchmark = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String benchmark = result.get("benchmark").asText().replace("com.bds.benchmarks.", "");
+            byBenchmark.put(benchmark, result);
+        }
+        return byBenchmark;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bds.benchmarks;
+
+import com.bds.models.BloodDonationEvent;
+import com.bds.models.BloodDonations;
+import com.bds.models.BloodType;
+import com.bds.models.Role;
+import com.bds.models.Users;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation and deserialisation of the entities the API returns,
+ * with an ObjectMapper built the way Spring Boot builds the application's one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Users users;
+    private BloodDonations bloodDonations;
+    private BloodDonationEvent bloodDonationEvent;
+
+    private byte[] usersJson;
+    private byte[] bloodDonationsJson;
+    private byte[] bloodDonationEventJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDate date = LocalDate.of(2023, 6, 1);
+        users = new Users(1L, "Ana", "Anic", "ana@bds.com", Role.DONOR, BloodType.APos);
+        Users admin = new Users(2L, "Marko", "Markovic", "marko@bds.com", Role.ADMIN, BloodType.ONeg);
+        bloodDonations = new BloodDonations(3L, 1, date, users, admin);
+        bloodDonationEvent = new BloodDonationEvent("City hall", date, BloodType.ONeg, 5, admin);
+        bloodDonationEvent.setId(4L);
+
+        usersJson = objectMapper.writeValueAsBytes(users);
+        bloodDonationsJson = objectMapper.writeValueAsBytes(bloodDonations);
+        bloodDonationEventJson = objectMapper.writeValueAsBytes(bloodDonationEvent);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws IOException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public Users deserializeUsers() throws IOException {
+        return objectMapper.readValue(usersJson, Users.class);
+    }
+
+    @Benchmark
+    public byte[] serializeBloodDonations() throws IOException {
+        return objectMapper.writeValueAsBytes(bloodDonations);
+    }
+
+    @Benchmark
+    public BloodDonations deserializeBloodDonations() throws IOException {
+        return objectMapper.readValue(bloodDonationsJson, BloodDonations.class);
+    }
+
+    @Benchmark
+    public byte[] serializeBloodDonationEvent() throws IOException {
+        return objectMapper.writeValueAsBytes(bloodDonationEvent);
+    }
+
+    @Benchmark
+    public BloodDonationEvent deserializeBloodDonationEvent() throws IOException {
+        return objectMapper.readValue(bloodDonationEventJson, BloodDonationEvent.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.bds.benchmarks;
+
+import com.bds.dto.*;
+import com.bds.exception.ObjectNotValidException;
+import com.bds.models.BloodType;
+import com.bds.models.Role;
+import com.bds.models.Users;
+import com.bds.validators.DtoValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DtoValidator#validate} on each request record the controllers accept,
+ * plus the rejection path that builds an {@link ObjectNotValidException} and the
+ * {@link DtoValidator#firstViolationInFieldOrder} used by batch and import rows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private DtoValidator validator;
+
+    private UsersRegistrationRequest usersRegistrationRequest;
+    private UsersRegistrationRequest invalidUsersRegistrationRequest;
+    private BloodDonationEventRequest bloodDonationEventRequest;
+    private BloodDonationRequest bloodDonationRequest;
+    private DonorBloodDonationRequest donorBloodDonationRequest;
+    private InitiateBloodDonationRequest initiateBloodDonationRequest;
+    private ConfirmDonationRequest confirmDonationRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = new DtoValidator(validatorFactory);
+
+        LocalDate date = LocalDate.now().plusDays(1);
+        Users donor = new Users(1L, "Ana", "Anic", "ana@bds.com", Role.DONOR, BloodType.APos);
+        Users admin = new Users(2L, "Marko", "Markovic", "marko@bds.com", Role.ADMIN, BloodType.ONeg);
+
+        usersRegistrationRequest = new UsersRegistrationRequest("Ana", "Anic", "ana@bds.com", "DONOR", "APos");
+        invalidUsersRegistrationRequest = new UsersRegistrationRequest("A", "", "ana", "DOCTOR", "Zero");
+        bloodDonationEventRequest = new BloodDonationEventRequest("City hall", date, "ONeg", 5, admin);
+        bloodDonationRequest = new BloodDonationRequest(1, date, donor, admin);
+        donorBloodDonationRequest = new DonorBloodDonationRequest(donor, 1, date);
+        initiateBloodDonationRequest = new InitiateBloodDonationRequest(donor, 1, date);
+        confirmDonationRequest = new ConfirmDonationRequest(2L, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public boolean usersRegistrationRequest() {
+        return validator.validate(usersRegistrationRequest);
+    }
+
+    @Benchmark
+    public Object invalidUsersRegistrationRequest() {
+        try {
+            return validator.validate(invalidUsersRegistrationRequest);
+        } catch (ObjectNotValidException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String invalidUsersRegistrationRequestFirstViolationInFieldOrder() {
+        return validator.firstViolationInFieldOrder(invalidUsersRegistrationRequest);
+    }
+
+    @Benchmark
+    public boolean bloodDonationEventRequest() {
+        return validator.validate(bloodDonationEventRequest);
+    }
+
+    @Benchmark
+    public boolean bloodDonationRequest() {
+        return validator.validate(bloodDonationRequest);
+    }
+
+    @Benchmark
+    public boolean donorBloodDonationRequest() {
+        return validator.validate(donorBloodDonationRequest);
+    }
+
+    @Benchmark
+    public boolean initiateBloodDonationRequest() {
+        return validator.validate(initiateBloodDonationRequest);
+    }
+
+    @Benchmark
+    public boolean confirmDonationRequest() {
+        return validator.validate(confirmDonationRequest);
+    }
+}
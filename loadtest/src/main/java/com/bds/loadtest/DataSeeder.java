@@ -0,0 +1,140 @@
+package com.bds.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.javafaker.Faker;
+import com.github.javafaker.Name;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Creates the run's users and initiated donations through the public API, so
+ * seeding works the same against an in-process and a remote backend.
+ */
+class DataSeeder {
+
+    private static final int CONCURRENCY = 32;
+
+    // approximate ABO/RhD distribution of a European donor population
+    private static final String[] BLOOD_TYPES = {"OPos", "APos", "BPos", "ONeg", "ANeg", "ABPos", "BNeg", "ABNeg"};
+    private static final int[] BLOOD_TYPE_PERCENT = {38, 34, 9, 7, 6, 3, 2, 1};
+
+    private final ApiClient apiClient;
+    private final Faker faker;
+    private final Random random;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+
+    DataSeeder(ApiClient apiClient, long seed) {
+        this.apiClient = apiClient;
+        this.random = new Random(seed);
+        this.faker = new Faker(Locale.ENGLISH, random);
+    }
+
+    SeedData seed(LoadTestOptions options) {
+        List<Long> adminIds = registerUsers("ADMIN", options.admins());
+        List<Long> donorIds = registerUsers("DONOR", options.donors());
+        Collections.shuffle(donorIds, random);
+
+        // donations start tomorrow: requests must not be dated in the past, and
+        // the run may cross midnight
+        SeedData seedData = new SeedData(donorIds, adminIds, new ConcurrentLinkedQueue<>(), LocalDate.now().plusDays(1));
+
+        Set<Long> initiatedBy = Collections.synchronizedSet(new LinkedHashSet<>());
+        forEachConcurrently(options.pendingDonations(), i -> {
+            SeedData.DonorDay donorDay = seedData.nextDonorDay();
+            initiatedBy.add(donorDay.donorId());
+            return apiClient.post("/api/v1/donor/initiate_blood_donation", Map.of(
+                    "donor", Map.of("id", donorDay.donorId()),
+                    "units", 1,
+                    "donationDate", donorDay.donationDate()
+            ));
+        }, response -> {
+        });
+
+        List<Long> donors = new ArrayList<>(initiatedBy);
+        forEachConcurrently(donors.size(),
+                i -> apiClient.get("/api/v1/donor/my_blood_donations/" + donors.get(i)),
+                response -> {
+                    for (JsonNode donation : apiClient.readTree(response.body())) {
+                        if (donation.get("adminId").isNull()) {
+                            seedData.addPendingDonation(new SeedData.PendingDonation(
+                                    donation.get("id").asLong(), donation.get("units").asInt()));
+                        }
+                    }
+                });
+        return seedData;
+    }
+
+    private List<Long> registerUsers(String role, int count) {
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>(count));
+        List<Map<String, String>> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Name name = faker.name();
+            requests.add(Map.of(
+                    "firstName", fit(name.firstName()),
+                    "lastName", fit(name.lastName()),
+                    "email", role.toLowerCase(Locale.ROOT) + "-" + runId + "-" + i + "@loadtest.bds.com",
+                    "role", role,
+                    "bloodType", bloodType()
+            ));
+        }
+        forEachConcurrently(count,
+                i -> apiClient.post("/api/v1/admin/register_user", requests.get(i)),
+                response -> ids.add(apiClient.readTree(response.body()).get("id").asLong()));
+        return new ArrayList<>(ids);
+    }
+
+    private String bloodType() {
+        int percentile = random.nextInt(100);
+        for (int i = 0; i < BLOOD_TYPES.length; i++) {
+            percentile -= BLOOD_TYPE_PERCENT[i];
+            if (percentile < 0) {
+                return BLOOD_TYPES[i];
+            }
+        }
+        return BLOOD_TYPES[0];
+    }
+
+    // names must be 2 to 32 characters long
+    private static String fit(String name) {
+        String fitted = name.length() > 32 ? name.substring(0, 32) : name;
+        return fitted.length() < 2 ? fitted + "a" : fitted;
+    }
+
+    private interface RequestAt {
+        HttpRequest build(int index);
+    }
+
+    private void forEachConcurrently(int count, RequestAt requests, Consumer<HttpResponse<byte[]>> onSuccess) {
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        List<CompletableFuture<Void>> sent = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            permits.acquireUninterruptibly();
+            HttpRequest request = requests.build(i);
+            sent.add(apiClient.send(request)
+                    .thenAccept(response -> {
+                        if (response.statusCode() / 100 != 2) {
+                            throw new IllegalStateException("seeding request " + request.uri() + " failed with "
+                                    + response.statusCode() + ": " + new String(response.body()));
+                        }
+                        onSuccess.accept(response);
+                    })
+                    .whenComplete((ignored, error) -> permits.release()));
+        }
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+    }
+}
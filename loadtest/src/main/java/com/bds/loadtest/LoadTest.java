@@ -0,0 +1,101 @@
+package com.bds.loadtest;
+
+import com.bds.BdsApplication;
+import com.bds.datasets.LoadedDataset;
+import com.bds.datasets.SyntheticDataset;
+import com.bds.services.InventoryCache;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Boots the backend against a throwaway Postgres (or targets a running one),
+ * seeds donors, admins and initiated donations, then drives the donation
+ * endpoints at a fixed arrival rate and reports throughput and latencies.
+ * <p>
+ * The in-process backend shares the machine with the load generator; for
+ * numbers close to production run it separately and pass {@code --target}.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && args[0].equals("--help")) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        PostgreSQLContainer<?> postgres = null;
+        ConfigurableApplicationContext backend = null;
+        try {
+            String baseUrl = options.target();
+            if (baseUrl == null) {
+                String jdbcUrl = options.jdbcUrl();
+                String user = options.dbUser();
+                String password = options.dbPassword();
+                if (jdbcUrl == null) {
+                    postgres = new PostgreSQLContainer<>("postgres:15.3")
+                            .withDatabaseName("bds-load-test")
+                            .withUsername(user)
+                            .withPassword(password);
+                    postgres.start();
+                    jdbcUrl = postgres.getJdbcUrl();
+                }
+                backend = new SpringApplicationBuilder(BdsApplication.class)
+                        .properties(Map.of(
+                                "server.port", "0",
+                                "spring.datasource.url", jdbcUrl,
+                                "spring.datasource.username", user,
+                                "spring.datasource.password", password,
+                                "spring.jpa.show-sql", "false",
+                                "logging.level.root", "WARN"
+                        ))
+                        .run();
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) backend).getWebServer().getPort();
+
+                if (options.dataset() != null) {
+                    LoadedDataset loaded = SyntheticDataset.of(options.dataset()).load(backend.getBean(DataSource.class));
+                    System.out.printf("loaded %s dataset: %d users and %d donations in %d ms%n",
+                            options.dataset(), loaded.users(), loaded.donations(), loaded.elapsed().toMillis());
+                    // the inventory cache was warmed from the database before the bulk load
+                    backend.getBean(InventoryCache.class).warm();
+                }
+            }
+
+            ApiClient apiClient = new ApiClient(baseUrl);
+            System.out.printf("seeding %d donors, %d admins and %d initiated donations on %s%n",
+                    options.donors(), options.admins(), options.pendingDonations(), baseUrl);
+            SeedData seedData = new DataSeeder(apiClient, options.seed()).seed(options);
+
+            System.out.printf("running %s warm-up and %s measurement at %.1f req/s%n",
+                    options.warmup(), options.duration(), options.rate());
+            Map<Operation, OperationStats> stats = new OpenModelDriver(apiClient, seedData, options).run();
+
+            Report report = new Report(stats, options);
+            report.print(System.out);
+            if (options.report() != null) {
+                report.write(options.report());
+            }
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+        System.exit(0);
+    }
+}
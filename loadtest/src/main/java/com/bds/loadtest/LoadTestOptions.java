@@ -0,0 +1,133 @@
+package com.bds.loadtest;
+
+import com.bds.datasets.DatasetSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ *
+ * @param target         base URL of a running backend; when absent the backend is booted in-process
+ * @param jdbcUrl        database for the in-process backend; when absent a Postgres container is started
+ * @param dataset        synthetic dataset bulk loaded into the in-process backend's database before seeding
+ * @param rate           mean arrivals per second, independent of how fast responses come back
+ * @param poisson        exponential inter-arrival times instead of a constant interval
+ * @param mix            relative weight of each operation
+ * @param maxInFlight    requests allowed in flight before new arrivals are dropped
+ * @param lateThreshold  how late a request may start before it is reported as a coordinated omission outlier
+ */
+record LoadTestOptions(
+        String target,
+        String jdbcUrl,
+        String dbUser,
+        String dbPassword,
+        DatasetSize dataset,
+        double rate,
+        boolean poisson,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        int donors,
+        int admins,
+        int pendingDonations,
+        int maxInFlight,
+        Duration lateThreshold,
+        long seed,
+        Path report
+) {
+
+    static final String USAGE = """
+            usage: java -jar loadtest.jar [--name=value ...]
+              --target=URL              running backend, e.g. http://localhost:8081 (default: boot one in-process)
+              --jdbc-url=URL            database for the in-process backend (default: Testcontainers postgres:15.3)
+              --db-user=NAME            database user (default: milos)
+              --db-password=SECRET      database password (default: password)
+              --dataset=SIZE            bulk load a TINY, SMALL, MEDIUM or LARGE synthetic dataset first
+                                        (in-process backend only)
+              --rate=N                  arrivals per second (default: 100)
+              --arrivals=poisson|constant
+                                        inter-arrival distribution (default: poisson)
+              --warmup=DURATION         unrecorded warm-up, ISO-8601 (default: PT30S)
+              --duration=DURATION       recorded run, ISO-8601 (default: PT2M)
+              --mix=OP:W,...            operation weights (default: enter_donation:20,initiate_blood_donation:30,
+                                        confirm_blood_donation:20,available_blood_units:30)
+              --donors=N                donors to seed (default: 2000)
+              --admins=N                admins to seed (default: 20)
+              --pending-donations=N     initiated donations seeded for confirm_blood_donation (default: 5000)
+              --max-in-flight=N         outstanding requests before arrivals are dropped (default: 2000)
+              --late-threshold=DURATION start delay reported as an outlier (default: PT0.05S)
+              --seed=N                  random seed (default: 42)
+              --report=FILE             also write the results as JSON
+            """;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("expected --name=value but found: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                values.remove("target"),
+                values.remove("jdbc-url"),
+                values.getOrDefault("db-user", "milos"),
+                values.getOrDefault("db-password", "password"),
+                values.containsKey("dataset") ? DatasetSize.valueOf(values.get("dataset")) : null,
+                Double.parseDouble(values.getOrDefault("rate", "100")),
+                !"constant".equals(values.getOrDefault("arrivals", "poisson")),
+                Duration.parse(values.getOrDefault("warmup", "PT30S")),
+                Duration.parse(values.getOrDefault("duration", "PT2M")),
+                parseMix(values.getOrDefault("mix",
+                        "enter_donation:20,initiate_blood_donation:30,confirm_blood_donation:20,available_blood_units:30")),
+                Integer.parseInt(values.getOrDefault("donors", "2000")),
+                Integer.parseInt(values.getOrDefault("admins", "20")),
+                Integer.parseInt(values.getOrDefault("pending-donations", "5000")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Duration.parse(values.getOrDefault("late-threshold", "PT0.05S")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.containsKey("report") ? Path.of(values.get("report")) : null
+        );
+        values.keySet().removeAll(List.of("db-user", "db-password", "dataset", "rate", "arrivals", "warmup", "duration",
+                "mix", "donors", "admins", "pending-donations", "max-in-flight", "late-threshold", "seed", "report"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("unknown options: " + values.keySet());
+        }
+        if (options.dataset() != null && options.target() != null) {
+            throw new IllegalArgumentException("dataset can only be loaded into an in-process backend");
+        }
+        if (options.rate() <= 0) {
+            throw new IllegalArgumentException("rate must be greater than 0");
+        }
+        if (options.donors() < 1 || options.admins() < 1) {
+            throw new IllegalArgumentException("at least one donor and one admin must be seeded");
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected operation:weight but found: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("weight must not be negative: " + entry);
+            }
+            weights.put(Operation.fromKey(parts[0].trim()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("mix must have at least one positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,143 @@
+package com.bds.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests on an arrival schedule that does not wait for responses (an
+ * open workload model), so a slow backend builds a queue as it would with real
+ * users instead of quietly lowering the offered load.
+ */
+class OpenModelDriver {
+
+    private final ApiClient apiClient;
+    private final SeedData seedData;
+    private final LoadTestOptions options;
+    private final SplittableRandom random;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    OpenModelDriver(ApiClient apiClient, SeedData seedData, LoadTestOptions options) {
+        this.apiClient = apiClient;
+        this.seedData = seedData;
+        this.options = options;
+        this.random = new SplittableRandom(options.seed());
+
+        this.operations = options.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation));
+        }
+    }
+
+    Map<Operation, OperationStats> run() throws InterruptedException {
+        long lateThreshold = options.lateThreshold().toNanos();
+        double meanInterval = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+
+        // arrivals are scheduled from the previous intended time, not from when the
+        // previous request went out, so falling behind never lowers the offered load
+        double intended = start;
+        while (true) {
+            intended += options.poisson()
+                    ? -Math.log(1 - random.nextDouble()) * meanInterval
+                    : meanInterval;
+            long intendedNanos = (long) intended;
+            if (intendedNanos >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = nextOperation();
+            OperationStats operationStats = stats.get(operation);
+            boolean measured = intendedNanos >= measureFrom;
+
+            HttpRequest request = buildRequest(operation);
+            if (request == null) {
+                if (measured) {
+                    operationStats.recordSkipped();
+                }
+                continue;
+            }
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    operationStats.recordDropped();
+                }
+                continue;
+            }
+            long sent = System.nanoTime();
+            apiClient.send(request).whenComplete((response, error) -> {
+                long completed = System.nanoTime();
+                inFlight.release();
+                if (measured) {
+                    operationStats.record(intendedNanos, sent, completed,
+                            error == null ? response.statusCode() : -1, lateThreshold);
+                }
+            });
+        }
+
+        // responses still in flight belong to the measured interval
+        if (!inFlight.tryAcquire(options.maxInFlight(), 2, TimeUnit.MINUTES)) {
+            System.err.println("gave up waiting for " + (options.maxInFlight() - inFlight.availablePermits())
+                    + " outstanding responses");
+        }
+        return stats;
+    }
+
+    private Operation nextOperation() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private HttpRequest buildRequest(Operation operation) {
+        return switch (operation) {
+            case ENTER_DONATION -> {
+                SeedData.DonorDay donorDay = seedData.nextDonorDay();
+                yield apiClient.post("/api/v1/admin/enter_donation", Map.of(
+                        "donor", Map.of("id", donorDay.donorId()),
+                        "admin", Map.of("id", seedData.adminId(random.nextInt())),
+                        "units", 1,
+                        "donationDate", donorDay.donationDate()
+                ));
+            }
+            case INITIATE_DONATION -> {
+                SeedData.DonorDay donorDay = seedData.nextDonorDay();
+                yield apiClient.post("/api/v1/donor/initiate_blood_donation", Map.of(
+                        "donor", Map.of("id", donorDay.donorId()),
+                        "units", 1,
+                        "donationDate", donorDay.donationDate()
+                ));
+            }
+            case CONFIRM_DONATION -> {
+                SeedData.PendingDonation pending = seedData.pollPendingDonation();
+                yield pending == null ? null : apiClient.patch(
+                        "/api/v1/admin/confirm_blood_donation/" + pending.id(),
+                        Map.of("adminId", seedData.adminId(random.nextInt()), "units", pending.units()));
+            }
+            case AVAILABLE_UNITS -> apiClient.get("/api/v1/admin/available_blood_units");
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.bds.loadtest;
+
+/**
+ * Requests the load generator can send, with the key used for them in {@code --mix}.
+ */
+enum Operation {
+    ENTER_DONATION("enter_donation"),
+    INITIATE_DONATION("initiate_blood_donation"),
+    CONFIRM_DONATION("confirm_blood_donation"),
+    AVAILABLE_UNITS("available_blood_units");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("unknown operation: " + key);
+    }
+}
@@ -0,0 +1,125 @@
+package com.bds.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one operation, in microseconds, recorded twice: service time
+ * from when the request was actually sent, and response time from when the
+ * arrival schedule intended to send it. Only the latter includes the time a
+ * request waited behind a stalled generator or backend, so comparing the two
+ * exposes coordinated omission.
+ */
+class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Operation operation;
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder successful = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder lateStarts = new LongAdder();
+
+    OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    void record(long intendedNanos, long sentNanos, long completedNanos, int status, long lateThresholdNanos) {
+        long service = Math.min(toMicros(completedNanos - sentNanos), HIGHEST_TRACKABLE_MICROS);
+        long response = Math.min(toMicros(completedNanos - intendedNanos), HIGHEST_TRACKABLE_MICROS);
+        serviceTime.recordValue(service);
+        responseTime.recordValue(response);
+        if (sentNanos - intendedNanos > lateThresholdNanos) {
+            lateStarts.increment();
+        }
+        if (status < 0) {
+            failures.increment();
+        } else if (status < 400) {
+            successful.increment();
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    Operation operation() {
+        return operation;
+    }
+
+    Histogram serviceTime() {
+        return serviceTime;
+    }
+
+    Histogram responseTime() {
+        return responseTime;
+    }
+
+    long completed() {
+        return successful.sum() + clientErrors.sum() + serverErrors.sum();
+    }
+
+    long successful() {
+        return successful.sum();
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    long skipped() {
+        return skipped.sum();
+    }
+
+    long lateStarts() {
+        return lateStarts.sum();
+    }
+
+    /**
+     * Requests slower than the service time p99 plus {@code tolerance} only once
+     * the wait before they were sent is counted: outliers an uncorrected
+     * measurement would not show.
+     */
+    long correctedOutliers(Duration tolerance) {
+        if (serviceTime.getTotalCount() == 0) {
+            return 0;
+        }
+        long above = serviceTime.getValueAtPercentile(99) + toMicros(tolerance.toNanos()) + 1;
+        long corrected = responseTime.getCountBetweenValues(above, HIGHEST_TRACKABLE_MICROS);
+        long uncorrected = serviceTime.getCountBetweenValues(above, HIGHEST_TRACKABLE_MICROS);
+        return Math.max(corrected - uncorrected, 0);
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0));
+    }
+}
@@ -0,0 +1,134 @@
+package com.bds.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints throughput and latency percentiles per operation and flags operations
+ * whose corrected latencies diverge from the uncorrected ones.
+ */
+class Report {
+
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+
+    // corrected p99 this many times the uncorrected one means the uncorrected numbers are misleading
+    private static final double COORDINATED_OMISSION_FACTOR = 2;
+
+    private final Map<Operation, OperationStats> stats;
+    private final LoadTestOptions options;
+
+    Report(Map<Operation, OperationStats> stats, LoadTestOptions options) {
+        this.stats = stats;
+        this.options = options;
+    }
+
+    void print(PrintStream out) {
+        double seconds = options.duration().toNanos() / 1e9;
+        long completed = stats.values().stream().mapToLong(OperationStats::completed).sum();
+        out.printf("%ntarget %.1f req/s (%s arrivals), achieved %.1f req/s over %s%n",
+                options.rate(), options.poisson() ? "poisson" : "constant", completed / seconds, options.duration());
+        out.printf("%-24s %8s %9s %6s %6s %6s %7s %7s %6s  %-38s %-46s%n",
+                "operation", "count", "req/s", "4xx", "5xx", "fail", "dropped", "skipped", "late",
+                "service time ms p50/p95/p99/max", "response time ms p50/p95/p99/p99.9/max");
+
+        List<String> flagged = new ArrayList<>();
+        for (OperationStats operationStats : stats.values()) {
+            if (operationStats.completed() + operationStats.failures() + operationStats.dropped() + operationStats.skipped() == 0) {
+                continue;
+            }
+            Histogram service = operationStats.serviceTime();
+            Histogram response = operationStats.responseTime();
+            out.printf("%-24s %8d %9.1f %6d %6d %6d %7d %7d %6d  %-38s %-46s%n",
+                    operationStats.operation().key(),
+                    operationStats.completed(),
+                    operationStats.completed() / seconds,
+                    operationStats.clientErrors(),
+                    operationStats.serverErrors(),
+                    operationStats.failures(),
+                    operationStats.dropped(),
+                    operationStats.skipped(),
+                    operationStats.lateStarts(),
+                    millis(service, 50, 95, 99) + "/" + millis(service.getMaxValue()),
+                    millis(response, PERCENTILES) + "/" + millis(response.getMaxValue()));
+
+            long outliers = operationStats.correctedOutliers(options.lateThreshold());
+            if (service.getTotalCount() > 0
+                    && response.getValueAtPercentile(99) > COORDINATED_OMISSION_FACTOR * service.getValueAtPercentile(99)) {
+                flagged.add(String.format("%s: corrected p99 %s ms vs uncorrected %s ms, %d requests beyond the uncorrected p99 only after correction",
+                        operationStats.operation().key(),
+                        millis(response, 99), millis(service, 99), outliers));
+            } else if (outliers > 0) {
+                flagged.add(String.format("%s: %d requests beyond the uncorrected p99 only after correction",
+                        operationStats.operation().key(), outliers));
+            }
+        }
+
+        if (!flagged.isEmpty()) {
+            out.println();
+            out.println("coordinated omission outliers (requests that waited before they were sent):");
+            flagged.forEach(line -> out.println("  " + line));
+        }
+        out.println();
+        out.println("4xx responses are expected for some requests, e.g. donations entered twice;");
+        out.println("dropped arrivals exceeded --max-in-flight, skipped ones had no pending donation to confirm.");
+    }
+
+    void write(Path path) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rate", options.rate());
+        report.put("arrivals", options.poisson() ? "poisson" : "constant");
+        report.put("duration", options.duration().toString());
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (OperationStats operationStats : stats.values()) {
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("completed", operationStats.completed());
+            operation.put("successful", operationStats.successful());
+            operation.put("clientErrors", operationStats.clientErrors());
+            operation.put("serverErrors", operationStats.serverErrors());
+            operation.put("failures", operationStats.failures());
+            operation.put("dropped", operationStats.dropped());
+            operation.put("skipped", operationStats.skipped());
+            operation.put("lateStarts", operationStats.lateStarts());
+            operation.put("correctedOutliers", operationStats.correctedOutliers(options.lateThreshold()));
+            operation.put("serviceTimeMicros", percentiles(operationStats.serviceTime()));
+            operation.put("responseTimeMicros", percentiles(operationStats.responseTime()));
+            operations.put(operationStats.operation().key(), operation);
+        }
+        report.put("operations", operations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    private static Map<String, Long> percentiles(Histogram histogram) {
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + (percentile == (long) percentile ? String.valueOf((long) percentile) : String.valueOf(percentile)),
+                    histogram.getValueAtPercentile(percentile));
+        }
+        percentiles.put("max", histogram.getMaxValue());
+        return percentiles;
+    }
+
+    private static String millis(Histogram histogram, double... percentiles) {
+        StringBuilder millis = new StringBuilder();
+        for (double percentile : percentiles) {
+            if (!millis.isEmpty()) {
+                millis.append('/');
+            }
+            millis.append(millis(histogram.getValueAtPercentile(percentile)));
+        }
+        return millis.toString();
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bds.loadtest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Users created for a run and the initiated donations still waiting to be confirmed.
+ * Donation dates are handed out so that no donor gets two donations on the same day,
+ * which the backend would reject as a duplicate.
+ */
+class SeedData {
+
+    record PendingDonation(long id, int units) {
+    }
+
+    record DonorDay(long donorId, LocalDate donationDate) {
+    }
+
+    private final List<Long> donorIds;
+    private final List<Long> adminIds;
+    private final Queue<PendingDonation> pendingDonations;
+    private final LocalDate firstDay;
+    private final AtomicLong nextDonation = new AtomicLong();
+
+    SeedData(List<Long> donorIds, List<Long> adminIds, Queue<PendingDonation> pendingDonations, LocalDate firstDay) {
+        this.donorIds = donorIds;
+        this.adminIds = adminIds;
+        this.pendingDonations = pendingDonations;
+        this.firstDay = firstDay;
+    }
+
+    DonorDay nextDonorDay() {
+        long donation = nextDonation.getAndIncrement();
+        return new DonorDay(
+                donorIds.get((int) (donation % donorIds.size())),
+                firstDay.plusDays(donation / donorIds.size())
+        );
+    }
+
+    long adminId(int index) {
+        return adminIds.get(Math.floorMod(index, adminIds.size()));
+    }
+
+    List<Long> donorIds() {
+        return donorIds;
+    }
+
+    PendingDonation pollPendingDonation() {
+        return pendingDonations.poll();
+    }
+
+    void addPendingDonation(PendingDonation pendingDonation) {
+        pendingDonations.add(pendingDonation);
+    }
+
+    int pendingDonations() {
+        return pendingDonations.size();
+    }
+}